@@ -0,0 +1,44 @@
+package org.example.bookstore.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.bookstore.config.properties.BookCacheProperties;
+import org.example.bookstore.config.properties.SearchCacheProperties;
+import org.example.bookstore.dto.SearchResponseDto;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caffeine backed caches. Caches are registered up front, so that Spring Boot binds their hit, miss and eviction
+ * statistics to the Micrometer registry ({@code cache_gets_total}, {@code cache_evictions_total}, ...). Read and
+ * invalidated through {@link org.example.bookstore.service.BookCaches}.
+ */
+@Configuration
+@EnableConfigurationProperties({SearchCacheProperties.class, BookCacheProperties.class})
+public class CacheConfig {
+
+    public static final String BOOK_SEARCH = "bookSearch";
+    public static final String BOOK_BY_ID = "bookById";
+
+    @Bean
+    public CacheManager cacheManager(SearchCacheProperties properties, BookCacheProperties bookProperties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        // W-TinyLFU eviction bounded by the number of cached books rather than the number of pages
+        cacheManager.registerCustomCache(BOOK_SEARCH, Caffeine.newBuilder()
+            .maximumWeight(properties.maxWeight())
+            .<Object, Object>weigher((key, value) ->
+                value instanceof SearchResponseDto<?> page ? page.content().size() + 1 : 1)
+            .expireAfterWrite(properties.expireAfterWrite())
+            .recordStats()
+            .build());
+        cacheManager.registerCustomCache(BOOK_BY_ID, Caffeine.newBuilder()
+            .maximumSize(bookProperties.maxSize())
+            .expireAfterWrite(bookProperties.expireAfterWrite())
+            .recordStats()
+            .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.bookstore.config;
+
+import java.util.concurrent.Callable;
+import lombok.RequiredArgsConstructor;
+import org.example.bookstore.config.properties.ExportProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Gives book exports their own async timeout: a streamed response is async, and an export runs for as long as the
+ * cursor has rows, far longer than any other async request should.
+ */
+@Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(ExportProperties.class)
+public class ExportConfig implements WebMvcConfigurer {
+
+    /**
+     * Request attribute that marks the streamed body of the request as an export.
+     */
+    public static final String EXPORT_REQUEST = ExportConfig.class.getName() + ".EXPORT_REQUEST";
+
+    private final ExportProperties properties;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                // called with the async request, before it is started
+                if (request instanceof AsyncWebRequest asyncRequest
+                    && request.getAttribute(EXPORT_REQUEST, RequestAttributes.SCOPE_REQUEST) != null) {
+                    asyncRequest.setTimeout(properties.timeout().toMillis());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.bookstore.config;
+
+import org.example.bookstore.config.properties.ImportProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ImportProperties.class)
+public class ImportConfig {
+}
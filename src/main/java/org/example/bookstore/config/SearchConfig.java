@@ -0,0 +1,13 @@
+package org.example.bookstore.config;
+
+import org.example.bookstore.config.properties.SearchCountProperties;
+import org.example.bookstore.config.properties.SearchRefreshProperties;
+import org.example.bookstore.config.properties.SingleFlightProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({SearchCountProperties.class, SearchRefreshProperties.class,
+    SingleFlightProperties.class})
+public class SearchConfig {
+}
@@ -0,0 +1,6 @@
+package org.example.bookstore.config.database;
+
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
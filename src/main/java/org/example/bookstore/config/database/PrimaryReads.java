@@ -0,0 +1,31 @@
+package org.example.bookstore.config.database;
+
+import java.util.function.Supplier;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sends the read-only transactions of a call to the primary, for reads that must not miss a recent commit, such as
+ * refilling a cache entry the commit has just invalidated. Unlike {@link ReadYourWrites}, scoped to the call.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    public static <T> T call(Supplier<T> call) {
+        if (isActive()) {
+            return call.get();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return call.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
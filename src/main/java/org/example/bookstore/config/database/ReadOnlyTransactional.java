@@ -0,0 +1,23 @@
+package org.example.bookstore.config.database;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Read-only transaction. Routed to the read replica when one is configured, see {@link ReadWriteRoutingDataSource};
+ * within a read-write transaction it joins that one and stays on the primary.
+ *
+ * <p>The Hibernate session runs with {@code FlushMode.MANUAL} and loads entities read-only: no snapshots are kept
+ * for dirty checking and nothing is flushed at commit. Joined into a read-write transaction, it keeps that one's
+ * session settings.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface ReadOnlyTransactional {
+}
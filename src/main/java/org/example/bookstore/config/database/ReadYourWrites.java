@@ -0,0 +1,27 @@
+package org.example.bookstore.config.database;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Remembers that the current request has written, so that its later reads go to the primary and see the write
+ * regardless of replica lag. Cleared at the end of every request by
+ * {@link org.example.bookstore.config.filter.ReadYourWritesFilter}.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> WRITTEN = new ThreadLocal<>();
+
+    public static void markWritten() {
+        WRITTEN.set(Boolean.TRUE);
+    }
+
+    public static boolean hasWritten() {
+        return WRITTEN.get() != null;
+    }
+
+    public static void clear() {
+        WRITTEN.remove();
+    }
+}
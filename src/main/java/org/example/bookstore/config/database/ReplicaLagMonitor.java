@@ -0,0 +1,91 @@
+package org.example.bookstore.config.database;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Measures how far the replica trails the primary. The replica is caught up once it has replayed the current WAL
+ * position of the primary; otherwise its lag is the age of the last replayed transaction.
+ *
+ * <p>An unreachable replica counts as lagging. The lag is published as {@code bookstore.datasource.replica.lag}
+ * (seconds).
+ */
+@Slf4j
+public class ReplicaLagMonitor implements DisposableBean {
+
+    private static final String PRIMARY_LSN_SQL = "SELECT pg_current_wal_lsn()::text";
+    private static final String REPLICA_LAG_SQL = """
+        SELECT CASE
+                   WHEN NOT pg_is_in_recovery() THEN 0
+                   WHEN pg_wal_lsn_diff(?::pg_lsn, pg_last_wal_replay_lsn()) <= 0 THEN 0
+                   ELSE extract(epoch FROM now() - pg_last_xact_replay_timestamp())
+               END
+        """;
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final Duration maxLag;
+    private final ScheduledExecutorService scheduler;
+    private volatile double lagSeconds = Double.POSITIVE_INFINITY;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag, Duration interval,
+                             MeterRegistry registry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLag = maxLag;
+        Gauge.builder("bookstore.datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+            .description("Replay lag of the read replica in seconds, infinite when unreachable")
+            .baseUnit("seconds")
+            .register(registry);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("replica-lag-"));
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isReplicaUsable() {
+        return lagSeconds * 1_000 <= maxLag.toMillis();
+    }
+
+    /**
+     * Measures the lag now.
+     */
+    public void refresh() {
+        try {
+            String primaryLsn;
+            try (Connection con = primary.getConnection(); Statement st = con.createStatement();
+                 ResultSet rs = st.executeQuery(PRIMARY_LSN_SQL)) {
+                rs.next();
+                primaryLsn = rs.getString(1);
+            }
+            try (Connection con = replica.getConnection();
+                 PreparedStatement ps = con.prepareStatement(REPLICA_LAG_SQL)) {
+                ps.setString(1, primaryLsn);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    double lag = rs.getDouble(1);
+                    lagSeconds = rs.wasNull() ? Double.POSITIVE_INFINITY : lag;
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Replica lag check failed, reading from the primary: {}", e.getMessage());
+            lagSeconds = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
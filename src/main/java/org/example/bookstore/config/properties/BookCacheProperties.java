@@ -0,0 +1,14 @@
+package org.example.bookstore.config.properties;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Bounds of the book-by-id cache.
+ *
+ * @param maxSize          number of cached books
+ * @param expireAfterWrite upper bound on how long an entry may outlive a missed invalidation
+ */
+@ConfigurationProperties(prefix = "app.book.cache")
+public record BookCacheProperties(long maxSize, Duration expireAfterWrite) {
+}
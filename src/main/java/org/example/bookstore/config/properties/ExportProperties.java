@@ -0,0 +1,13 @@
+package org.example.bookstore.config.properties;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Streaming exports of {@code /api/books/export}.
+ *
+ * @param timeout longest time an export may stream; replaces the async request timeout for exports only
+ */
+@ConfigurationProperties(prefix = "app.export")
+public record ExportProperties(Duration timeout) {
+}
@@ -0,0 +1,17 @@
+package org.example.bookstore.config.properties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Catalog imports.
+ *
+ * @param directory  where uploaded files are kept until their job completes
+ * @param chunkSize  records merged per transaction, at most 10,000; each chunk is a checkpoint
+ * @param threads    jobs running at the same time
+ * @param staleAfter time without a checkpoint after which a running job is considered interrupted
+ */
+@ConfigurationProperties(prefix = "app.import")
+public record ImportProperties(Path directory, int chunkSize, int threads, Duration staleAfter) {
+}
@@ -0,0 +1,27 @@
+package org.example.bookstore.config.properties;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Read replica that serves read-only transactions.
+ *
+ * @param enabled          route read-only transactions to the replica
+ * @param url              JDBC url of the replica
+ * @param username         replica user
+ * @param password         replica password
+ * @param maximumPoolSize  connections to the replica
+ * @param maxLag           replay lag above which reads go to the primary
+ * @param lagCheckInterval how often the lag is measured
+ */
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public record ReplicaProperties(
+    boolean enabled,
+    String url,
+    String username,
+    String password,
+    int maximumPoolSize,
+    Duration maxLag,
+    Duration lagCheckInterval
+) {
+}
@@ -0,0 +1,14 @@
+package org.example.bookstore.config.properties;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Bounds of the book search result cache.
+ *
+ * @param maxWeight        total weight of the cached pages, one per book plus one per page
+ * @param expireAfterWrite upper bound on how long an entry may outlive a missed invalidation
+ */
+@ConfigurationProperties(prefix = "app.search.cache")
+public record SearchCacheProperties(long maxWeight, Duration expireAfterWrite) {
+}
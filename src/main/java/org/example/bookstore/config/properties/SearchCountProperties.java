@@ -0,0 +1,15 @@
+package org.example.bookstore.config.properties;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Concurrent count of offset searches.
+ *
+ * @param parallel run the count query next to the page query instead of after it
+ * @param threads  counts running at once, each holding a connection of its own
+ * @param timeout  longest wait for a count; a slower count is cancelled and the page is returned without total
+ */
+@ConfigurationProperties(prefix = "app.search.count")
+public record SearchCountProperties(boolean parallel, int threads, Duration timeout) {
+}
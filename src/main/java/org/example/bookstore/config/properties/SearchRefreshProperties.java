@@ -0,0 +1,15 @@
+package org.example.bookstore.config.properties;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Catch-up of the in-memory search and suggest indexes with changes committed by other instances.
+ *
+ * @param interval pause between two refreshes
+ * @param overlap  how far before the previous refresh each one reads back; covers clock skew between instances and
+ *                 transactions that commit well after the {@code updated_at} they wrote
+ */
+@ConfigurationProperties(prefix = "app.search.refresh")
+public record SearchRefreshProperties(Duration interval, Duration overlap) {
+}
@@ -0,0 +1,15 @@
+package org.example.bookstore.config.properties;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Coalescing of identical concurrent reads.
+ *
+ * @param enabled       share one execution between concurrent equal calls
+ * @param searchTimeout longest wait for a shared search before executing it again
+ * @param getTimeout    longest wait for a shared book lookup before executing it again
+ */
+@ConfigurationProperties(prefix = "app.single-flight")
+public record SingleFlightProperties(boolean enabled, Duration searchTimeout, Duration getTimeout) {
+}
@@ -1,15 +1,35 @@
 package org.example.bookstore.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.example.bookstore.auth.PermissionAuthority;
+import org.example.bookstore.config.ExportConfig;
+import org.example.bookstore.dto.IdListRequestDto;
 import org.example.bookstore.dto.SearchResponseDto;
+import org.example.bookstore.dto.Versioned;
+import org.example.bookstore.dto.book.BookBatchResponseDto;
+import org.example.bookstore.dto.book.BookBulkCreateRequestDto;
+import org.example.bookstore.dto.book.BookBulkCreateResponseDto;
+import org.example.bookstore.dto.book.BookBulkUpdateRequestDto;
+import org.example.bookstore.dto.book.BookBulkUpdateResponseDto;
 import org.example.bookstore.dto.book.BookCreateRequestDto;
+import org.example.bookstore.dto.book.BookFullTextSearchRequestDto;
 import org.example.bookstore.dto.book.BookPatchRequestDto;
 import org.example.bookstore.dto.book.BookResponseDto;
 import org.example.bookstore.dto.book.BookSearchRequestDto;
+import org.example.bookstore.dto.book.BookSuggestionsDto;
+import org.example.bookstore.export.BookExportWriter;
+import org.example.bookstore.export.ExportFormat;
+import org.example.bookstore.service.BookBulkService;
+import org.example.bookstore.service.BookReadCoalescer;
 import org.example.bookstore.service.BookService;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,8 +38,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/books")
@@ -28,23 +52,91 @@ public class BookController {
 
 
     private final BookService bookService;
+    private final BookReadCoalescer bookReadCoalescer;
+    private final BookBulkService bookBulkService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/search")
     @PreAuthorize("hasAnyAuthority('" + PermissionAuthority.MANAGE_ALL
         + "', '" + PermissionAuthority.READ_ONLY + "')")
-    public SearchResponseDto<BookResponseDto> search(
-        @RequestBody(required = false) @Valid BookSearchRequestDto request) {
+    public ResponseEntity<SearchResponseDto<BookResponseDto>> search(
+        @RequestBody(required = false) @Valid BookSearchRequestDto request,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         if (request == null) {
             request = new BookSearchRequestDto();
         }
-        return bookService.search(request);
+        // searches are POSTs, for which WebRequest#checkNotModified answers 412 rather than 304; If-None-Match
+        // compares weakly
+        String etag = bookService.searchEtag(request);
+        if (ifNoneMatch != null && ETag.parse(ifNoneMatch).stream()
+            .anyMatch(tag -> tag.isWildcard() || tag.compare(ETag.create(etag), false))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(bookReadCoalescer.search(request));
+    }
+
+    @PostMapping("/search/fulltext")
+    @PreAuthorize("hasAnyAuthority('" + PermissionAuthority.MANAGE_ALL
+        + "', '" + PermissionAuthority.READ_ONLY + "')")
+    public SearchResponseDto<BookResponseDto> searchFullText(
+        @RequestBody @Valid BookFullTextSearchRequestDto request) {
+        return bookService.searchFullText(request);
+    }
+
+    @GetMapping("/suggest")
+    @PreAuthorize("hasAnyAuthority('" + PermissionAuthority.MANAGE_ALL
+        + "', '" + PermissionAuthority.READ_ONLY + "')")
+    public BookSuggestionsDto suggest(@RequestParam("q") String query,
+                                      @RequestParam(defaultValue = "10") int limit) {
+        return bookService.suggest(query, limit);
+    }
+
+    /**
+     * Streams every book matching the filters as NDJSON or CSV; paging and count settings are ignored.
+     */
+    @PostMapping("/export")
+    @PreAuthorize("hasAnyAuthority('" + PermissionAuthority.MANAGE_ALL
+        + "', '" + PermissionAuthority.READ_ONLY + "')")
+    public ResponseEntity<StreamingResponseBody> export(
+        @RequestBody(required = false) @Valid BookSearchRequestDto request,
+        @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+        HttpServletRequest servletRequest) {
+        BookSearchRequestDto filters = request == null ? new BookSearchRequestDto() : request;
+        // an invalid sort is a 400, which can not be sent once streaming has started
+        Sort sort = bookService.exportSort(filters);
+        servletRequest.setAttribute(ExportConfig.EXPORT_REQUEST, Boolean.TRUE);
+        StreamingResponseBody body = out -> {
+            BookExportWriter writer = new BookExportWriter(format, objectMapper, out);
+            bookService.export(filters, sort, books -> {
+                writer.writeAll(books);
+                writer.flush();
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(format.mediaType()).body(body);
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyAuthority('" + PermissionAuthority.MANAGE_ALL
         + "', '" + PermissionAuthority.READ_ONLY + "')")
-    public BookResponseDto get(@PathVariable Long id) {
-        return bookService.get(id);
+    public ResponseEntity<BookResponseDto> get(@PathVariable Long id, WebRequest webRequest) {
+        // a cached book comes with its version, so a 304 needs neither a statement nor serialization
+        Versioned<BookResponseDto> book = bookReadCoalescer.get(id);
+        String etag = "\"" + book.version() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(book.body());
+    }
+
+    /**
+     * Books by id in request order, with the ids that have no book.
+     */
+    @PostMapping("/batch-get")
+    @PreAuthorize("hasAnyAuthority('" + PermissionAuthority.MANAGE_ALL
+        + "', '" + PermissionAuthority.READ_ONLY + "')")
+    public BookBatchResponseDto batchGet(@RequestBody @Valid IdListRequestDto request) {
+        return bookService.getAll(request.ids());
     }
 
     @PostMapping
@@ -54,6 +146,24 @@ public class BookController {
         return bookService.create(request);
     }
 
+    /**
+     * Creates many books with their authors and genres; reports the outcome per item.
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyAuthority('" + PermissionAuthority.MANAGE_ALL + "')")
+    public BookBulkCreateResponseDto bulkCreate(@RequestBody @Valid BookBulkCreateRequestDto request) {
+        return bookBulkService.createAll(request.books());
+    }
+
+    /**
+     * Updates price, quantity and rating of many books, per item or by a rule; reports counts and failed ids.
+     */
+    @PatchMapping("/bulk")
+    @PreAuthorize("hasAnyAuthority('" + PermissionAuthority.MANAGE_ALL + "')")
+    public BookBulkUpdateResponseDto bulkUpdate(@RequestBody @Valid BookBulkUpdateRequestDto request) {
+        return bookBulkService.updateAll(request);
+    }
+
     @PatchMapping("/{id}")
     @PreAuthorize("hasAnyAuthority('" + PermissionAuthority.MANAGE_ALL + "')")
     public BookResponseDto patch(@PathVariable Long id,
@@ -0,0 +1,51 @@
+package org.example.bookstore.controller;
+
+import java.io.InputStream;
+import lombok.RequiredArgsConstructor;
+import org.example.bookstore.auth.PermissionAuthority;
+import org.example.bookstore.dto.importjob.ImportJobDto;
+import org.example.bookstore.importer.ImportFormat;
+import org.example.bookstore.service.CatalogImportService;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/imports")
+@RequiredArgsConstructor
+public class CatalogImportController {
+
+    private final CatalogImportService catalogImportService;
+
+    /**
+     * Starts importing the request body, an NDJSON or CSV file in the layout of {@code /api/books/export}.
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @PreAuthorize("hasAnyAuthority('" + PermissionAuthority.MANAGE_ALL + "')")
+    public ImportJobDto start(@RequestParam(defaultValue = "NDJSON") ImportFormat format, InputStream body) {
+        return catalogImportService.start(format, body);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyAuthority('" + PermissionAuthority.MANAGE_ALL + "')")
+    public ImportJobDto get(@PathVariable Long id) {
+        return catalogImportService.get(id);
+    }
+
+    /**
+     * Continues a failed or interrupted import after the last committed chunk.
+     */
+    @PostMapping("/{id}/resume")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @PreAuthorize("hasAnyAuthority('" + PermissionAuthority.MANAGE_ALL + "')")
+    public ImportJobDto resume(@PathVariable Long id) {
+        return catalogImportService.resume(id);
+    }
+}
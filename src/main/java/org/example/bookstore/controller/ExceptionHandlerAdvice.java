@@ -6,7 +6,10 @@ import java.time.ZonedDateTime;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.example.bookstore.dto.ApiError;
+import org.example.bookstore.exception.BookstoreBadRequestException;
+import org.example.bookstore.exception.BookstoreConflictException;
 import org.example.bookstore.exception.BookstoreEntityNotFoundException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -90,6 +93,42 @@ public class ExceptionHandlerAdvice {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
     }
 
+    @ExceptionHandler(BookstoreBadRequestException.class)
+    public ResponseEntity<ApiError> handleBadRequest(
+        BookstoreBadRequestException ex,
+        HttpServletRequest request
+    ) {
+        ApiError body = new ApiError(
+            ZonedDateTime.now(),
+            HttpStatus.BAD_REQUEST.value(),
+            "Bad Request",
+            ex.getMessage(),
+            request.getRequestURI(),
+            List.of()
+        );
+        return ResponseEntity.badRequest().body(body);
+    }
+
+    @ExceptionHandler(BookstoreConflictException.class)
+    public ResponseEntity<ApiError> handleConflict(
+        BookstoreConflictException ex,
+        HttpServletRequest request
+    ) {
+        return conflict(ex.getMessage(), request);
+    }
+
+    /**
+     * A unique or foreign key constraint the service checks did not catch, typically a concurrent insert of the same
+     * natural key. The database message is not exposed.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiError> handleDataIntegrityViolation(
+        DataIntegrityViolationException ex,
+        HttpServletRequest request
+    ) {
+        return conflict("The request conflicts with the current state of the catalog", request);
+    }
+
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ApiError> handleJsonParse(
         HttpMessageNotReadableException ex,
@@ -124,4 +163,16 @@ public class ExceptionHandlerAdvice {
         );
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(body);
     }
+
+    private static ResponseEntity<ApiError> conflict(String message, HttpServletRequest request) {
+        ApiError body = new ApiError(
+            ZonedDateTime.now(),
+            HttpStatus.CONFLICT.value(),
+            "Conflict",
+            message,
+            request.getRequestURI(),
+            List.of()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
 }
@@ -14,6 +14,29 @@ public class SearchRequestDto {
     private int page = 0;
     private int size = 10;
     private SortDto sort = new SortDto();
+    // KEYSET ignores page and continues after the opaque cursor returned with the previous page
+    private PagingMode paging = PagingMode.OFFSET;
+    private String cursor;
+    // how totalElements is computed for OFFSET paging; KEYSET never counts
+    private CountMode countMode = CountMode.EXACT;
+
+    public SearchRequestDto(int page, int size, SortDto sort) {
+        this(page, size, sort, PagingMode.OFFSET, null, CountMode.EXACT);
+    }
+
+    public enum PagingMode {
+        OFFSET,
+        KEYSET
+    }
+
+    public enum CountMode {
+        // count query over the whole result
+        EXACT,
+        // no count, only whether there is a next page
+        NONE,
+        // count capped at a fixed limit; a capped total is a lower bound
+        ESTIMATED
+    }
 
     @Data
     public static class SortDto {
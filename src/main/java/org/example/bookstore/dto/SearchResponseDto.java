@@ -1,11 +1,60 @@
 package org.example.bookstore.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
+import org.example.bookstore.dto.book.BookFacetsDto;
 
+/**
+ * Page of search results.
+ *
+ * <p>{@code countType} tells what {@code totalElements} and {@code totalPages} carry: an exact count, a lower bound
+ * ({@code ESTIMATED}) or nothing ({@code NONE}, both set to {@code -1}). {@code hasNext} is always known. For keyset
+ * paging {@code nextCursor} is {@code null} on the last page. {@code facets} is only present when requested.
+ */
 public record SearchResponseDto<T>(
         List<T> content,
         int page,
         int size,
         long totalElements,
-        int totalPages
-) {}
+        int totalPages,
+        CountType countType,
+        boolean hasNext,
+        String nextCursor,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        BookFacetsDto facets
+) {
+
+    /**
+     * Page with an exact count.
+     */
+    public SearchResponseDto(List<T> content, int page, int size, long totalElements, int totalPages) {
+        this(content, page, size, totalElements, totalPages, CountType.EXACT, page + 1 < totalPages, null, null);
+    }
+
+    /**
+     * Keyset page, not counted.
+     */
+    public SearchResponseDto(List<T> content, int page, int size, long totalElements, int totalPages,
+                             String nextCursor) {
+        this(content, page, size, totalElements, totalPages, CountType.NONE, nextCursor != null, nextCursor, null);
+    }
+
+    /**
+     * Offset page that is not counted.
+     */
+    public static <T> SearchResponseDto<T> slice(List<T> content, int page, int size, boolean hasNext) {
+        return new SearchResponseDto<>(content, page, size, -1, -1, CountType.NONE, hasNext, null, null);
+    }
+
+    public SearchResponseDto<T> withFacets(BookFacetsDto facets) {
+        return new SearchResponseDto<>(content, page, size, totalElements, totalPages, countType, hasNext, nextCursor,
+            facets);
+    }
+
+    public enum CountType {
+        EXACT,
+        // totalElements is a lower bound
+        ESTIMATED,
+        NONE
+    }
+}
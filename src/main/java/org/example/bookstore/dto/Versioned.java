@@ -0,0 +1,11 @@
+package org.example.bookstore.dto;
+
+/**
+ * A read result with the version of the rows it was built from. Cached as one entry, so that a conditional request is
+ * answered from the version without loading or serializing the result.
+ *
+ * @param version digest of the rows the result was built from, changes whenever they do
+ * @param body    the result
+ */
+public record Versioned<T>(String version, T body) {
+}
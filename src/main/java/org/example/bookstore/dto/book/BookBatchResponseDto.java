@@ -0,0 +1,15 @@
+package org.example.bookstore.dto.book;
+
+import java.util.List;
+
+/**
+ * Books looked up by id.
+ *
+ * @param books      the books that exist, in the order of the requested ids
+ * @param missingIds requested ids without a book, in request order
+ */
+public record BookBatchResponseDto(
+    List<BookResponseDto> books,
+    List<Long> missingIds
+) {
+}
@@ -0,0 +1,17 @@
+package org.example.bookstore.dto.book;
+
+import java.util.Set;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * A book of a bulk creation, with the ids of its authors and genres.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class BookBulkCreateItemDto extends BookCreateRequestDto {
+    private Set<Long> authorIds;
+    private Set<Long> genreIds;
+}
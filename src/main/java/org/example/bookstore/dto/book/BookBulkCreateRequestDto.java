@@ -0,0 +1,10 @@
+package org.example.bookstore.dto.book;
+
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+/**
+ * Books to create at once. Items are validated one by one, so an invalid item fails alone, see
+ * {@link BookBulkCreateResponseDto}.
+ */
+public record BookBulkCreateRequestDto(@NotEmpty List<BookBulkCreateItemDto> books) {}
@@ -0,0 +1,25 @@
+package org.example.bookstore.dto.book;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk creation.
+ *
+ * @param created number of books created
+ * @param failed  number of items rejected
+ * @param items   one result per requested item, in request order
+ */
+public record BookBulkCreateResponseDto(
+    int created,
+    int failed,
+    List<ItemResult> items
+) {
+
+    /**
+     * @param index position of the item in the request
+     * @param id    id of the created book, {@code null} if the item failed
+     * @param error why the item failed, {@code null} if it was created
+     */
+    public record ItemResult(int index, Long id, String error) {
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.bookstore.dto.book;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.math.BigDecimal;
+
+/**
+ * New values of one book of a bulk update; {@code null} values are left unchanged.
+ */
+public record BookBulkUpdateItemDto(
+    @NotNull Long id,
+    @DecimalMin(value = "0.0") @Digits(integer = 8, fraction = 2) BigDecimal price,
+    @PositiveOrZero Integer quantity,
+    @DecimalMin(value = "0.0") @Digits(integer = 8, fraction = 2) BigDecimal rating
+) {
+}
@@ -0,0 +1,10 @@
+package org.example.bookstore.dto.book;
+
+import jakarta.validation.Valid;
+import java.util.List;
+
+/**
+ * A bulk update: either {@code items} with new values per book, or a {@code rule}. Items are validated one by one,
+ * so an invalid item fails alone, see {@link BookBulkUpdateResponseDto}.
+ */
+public record BookBulkUpdateRequestDto(List<BookBulkUpdateItemDto> items, @Valid BookBulkUpdateRuleDto rule) {}
@@ -0,0 +1,19 @@
+package org.example.bookstore.dto.book;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk update.
+ *
+ * @param updated   number of books changed
+ * @param unchanged number of books that already had the new values, left untouched
+ * @param failed    number of items or books not updated
+ * @param failedIds ids of the books not updated: invalid items, unknown ids and books of failed chunks
+ */
+public record BookBulkUpdateResponseDto(
+    int updated,
+    int unchanged,
+    int failed,
+    List<Long> failedIds
+) {
+}
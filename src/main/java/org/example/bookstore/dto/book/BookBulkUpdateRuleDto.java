@@ -0,0 +1,21 @@
+package org.example.bookstore.dto.book;
+
+import jakarta.validation.constraints.DecimalMin;
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * A change applied to every book matching the filters, or to every book if there are none.
+ *
+ * @param pricePercent  price change in percent, e.g. {@code 10} for +10%; prices are rounded to cents
+ * @param quantityDelta added to the quantity, which does not go below zero
+ * @param genreIds      books having any of these genres
+ * @param authorIds     books having any of these authors
+ */
+public record BookBulkUpdateRuleDto(
+    @DecimalMin(value = "-100.0") BigDecimal pricePercent,
+    Integer quantityDelta,
+    Set<Long> genreIds,
+    Set<Long> authorIds
+) {
+}
@@ -0,0 +1,30 @@
+package org.example.bookstore.dto.book;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Facet counts for the current filter set. Each facet is counted with all filters applied except its own, so the
+ * counts tell how many books selecting that value would give.
+ *
+ * @param genres  most frequent genres, by count descending
+ * @param authors most frequent authors, by count descending
+ * @param price   fixed price buckets
+ * @param rating  fixed rating buckets
+ */
+public record BookFacetsDto(
+    List<ValueCount> genres,
+    List<ValueCount> authors,
+    List<RangeCount> price,
+    List<RangeCount> rating
+) {
+
+    public record ValueCount(Long id, String name, long count) {
+    }
+
+    /**
+     * Books with a value in {@code [from, to)}; a {@code null} bound is open.
+     */
+    public record RangeCount(BigDecimal from, BigDecimal to, long count) {
+    }
+}
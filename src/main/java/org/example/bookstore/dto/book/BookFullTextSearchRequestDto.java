@@ -0,0 +1,22 @@
+package org.example.bookstore.dto.book;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookFullTextSearchRequestDto {
+    // web search syntax: words, "quoted phrases", OR, -excluded
+    @NotBlank
+    private String query;
+    @Min(1)
+    @Max(100)
+    private int size = 10;
+    // opaque cursor returned with the previous page
+    private String cursor;
+}
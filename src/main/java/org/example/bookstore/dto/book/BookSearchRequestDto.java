@@ -25,6 +25,10 @@ public final class BookSearchRequestDto extends SearchRequestDto {
     private Integer maxQuantity;
     private BigDecimal minRating;
     private BigDecimal maxRating;
+    // also return genre, author, price and rating counts; each ignores its own filter
+    private boolean facets;
+    // title and authorNames tolerate typos: trigram word similarity instead of substring match
+    private boolean fuzzy;
 
     public BookSearchRequestDto(
         int page, int size, SortDto sort,
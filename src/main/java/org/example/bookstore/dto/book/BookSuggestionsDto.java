@@ -0,0 +1,17 @@
+package org.example.bookstore.dto.book;
+
+import java.util.List;
+
+/**
+ * Completions of a search box prefix, each list ranked by popularity: titles by rating, authors and genres by
+ * number of books.
+ */
+public record BookSuggestionsDto(
+    List<Suggestion> titles,
+    List<Suggestion> authors,
+    List<Suggestion> genres
+) {
+
+    public record Suggestion(Long id, String text) {
+    }
+}
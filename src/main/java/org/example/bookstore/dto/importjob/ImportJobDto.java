@@ -0,0 +1,30 @@
+package org.example.bookstore.dto.importjob;
+
+import java.time.ZonedDateTime;
+import org.example.bookstore.importer.ImportFormat;
+import org.example.bookstore.importer.ImportJobStatus;
+
+/**
+ * Progress of a catalog import.
+ *
+ * @param recordsRead    records of the file committed so far, the checkpoint a resumed job continues from
+ * @param booksMerged    books created or updated
+ * @param authorsCreated authors that did not exist yet
+ * @param genresCreated  genres that did not exist yet
+ * @param rejected       records that could not be imported
+ * @param error          why the job failed, {@code null} unless it did
+ */
+public record ImportJobDto(
+    Long id,
+    ImportFormat format,
+    ImportJobStatus status,
+    long recordsRead,
+    long booksMerged,
+    long authorsCreated,
+    long genresCreated,
+    long rejected,
+    String error,
+    ZonedDateTime createdAt,
+    ZonedDateTime updatedAt
+) {
+}
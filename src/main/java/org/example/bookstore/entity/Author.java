@@ -2,6 +2,7 @@ package org.example.bookstore.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
@@ -12,6 +13,11 @@ import lombok.Setter;
 
 
 @Entity
+@SequenceGenerator(
+    name = BaseEntity.ID_GENERATOR,
+    sequenceName = "author_seq",
+    allocationSize = BaseEntity.ID_ALLOCATION_SIZE
+)
 @Table(
     name = "author",
     uniqueConstraints = @UniqueConstraint(
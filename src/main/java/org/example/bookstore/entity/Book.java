@@ -6,6 +6,7 @@ import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
@@ -19,9 +20,15 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
+@SequenceGenerator(
+    name = BaseEntity.ID_GENERATOR,
+    sequenceName = "book_seq",
+    allocationSize = BaseEntity.ID_ALLOCATION_SIZE
+)
 @Table(indexes = {
     @Index(name = "idx_book_title", columnList = "title"),
-    @Index(name = "idx_book_price", columnList = "price")
+    @Index(name = "idx_book_price", columnList = "price"),
+    @Index(name = "idx_book_updated_at", columnList = "updated_at")
 })
 @Getter
 @Setter
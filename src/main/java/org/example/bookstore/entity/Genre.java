@@ -2,6 +2,7 @@ package org.example.bookstore.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
@@ -11,6 +12,11 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@SequenceGenerator(
+    name = BaseEntity.ID_GENERATOR,
+    sequenceName = "genre_seq",
+    allocationSize = BaseEntity.ID_ALLOCATION_SIZE
+)
 @Table(uniqueConstraints = @UniqueConstraint(name = "uk_genre_name", columnNames = "name"))
 @Getter
 @Setter
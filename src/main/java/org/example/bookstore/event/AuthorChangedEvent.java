@@ -0,0 +1,7 @@
+package org.example.bookstore.event;
+
+/**
+ * Published when a author is created, updated or deleted.
+ */
+public record AuthorChangedEvent(Long authorId) {
+}
@@ -0,0 +1,7 @@
+package org.example.bookstore.event;
+
+/**
+ * Published when a book is created, updated or deleted, including changes of its authors and genres.
+ */
+public record BookChangedEvent(Long bookId) {
+}
@@ -0,0 +1,9 @@
+package org.example.bookstore.event;
+
+import java.util.List;
+
+/**
+ * Published by bulk operations instead of one {@link BookChangedEvent} per book; listeners apply it in one pass.
+ */
+public record BooksChangedEvent(List<Long> bookIds) {
+}
@@ -0,0 +1,7 @@
+package org.example.bookstore.event;
+
+/**
+ * Published when a genre is created, updated or deleted.
+ */
+public record GenreChangedEvent(Long genreId) {
+}
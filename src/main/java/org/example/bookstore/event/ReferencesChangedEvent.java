@@ -0,0 +1,10 @@
+package org.example.bookstore.event;
+
+import java.util.List;
+
+/**
+ * Published by bulk operations instead of one {@link AuthorChangedEvent} or {@link GenreChangedEvent} per row;
+ * listeners apply it in one pass.
+ */
+public record ReferencesChangedEvent(List<Long> authorIds, List<Long> genreIds) {
+}
@@ -0,0 +1,15 @@
+package org.example.bookstore.exception;
+
+/**
+ * Thrown when a request is syntactically valid but can not be processed, e.g. a malformed search cursor.
+ */
+public class BookstoreBadRequestException extends BookstoreRuntimeException {
+
+    public BookstoreBadRequestException(String message) {
+        super(message);
+    }
+
+    public BookstoreBadRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
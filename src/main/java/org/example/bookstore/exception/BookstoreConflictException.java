@@ -0,0 +1,11 @@
+package org.example.bookstore.exception;
+
+/**
+ * Thrown when a request conflicts with the current state of the catalog, e.g. a second author with the same names.
+ */
+public class BookstoreConflictException extends BookstoreRuntimeException {
+
+    public BookstoreConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.bookstore.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.example.bookstore.dto.book.BookResponseDto;
+import org.example.bookstore.dto.genre.GenreDto;
+
+/**
+ * Writes exported books to an output stream, one line per book. Lines are buffered until {@link #flush()}, so
+ * callers flush once per batch to send rows as they are read.
+ */
+public final class BookExportWriter {
+
+    static final String CSV_HEADER = "id,title,price,quantity,rating,authors,genres";
+
+    private final ExportFormat format;
+    private final ObjectMapper objectMapper;
+    private final Writer out;
+
+    public BookExportWriter(ExportFormat format, ObjectMapper objectMapper, OutputStream out) {
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            line(CSV_HEADER);
+        }
+    }
+
+    public void write(BookResponseDto book) {
+        try {
+            line(format == ExportFormat.NDJSON ? objectMapper.writeValueAsString(book) : csv(book));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void writeAll(List<BookResponseDto> books) {
+        books.forEach(this::write);
+    }
+
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void line(String line) {
+        try {
+            out.write(line);
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csv(BookResponseDto book) {
+        String authors = book.authors().stream()
+            .map(a -> a.getFirstName() + " " + a.getLastName())
+            .collect(Collectors.joining("; "));
+        String genres = book.genres().stream().map(GenreDto::getName).collect(Collectors.joining("; "));
+        return String.join(",", String.valueOf(book.id()), quote(book.title()), decimal(book.price()),
+            book.quantity() == null ? "" : book.quantity().toString(), decimal(book.rating()), quote(authors),
+            quote(genres));
+    }
+
+    private static String decimal(BigDecimal value) {
+        return value == null ? "" : value.toPlainString();
+    }
+
+    /**
+     * Quotes a field when it holds a separator, a quote or a line break (RFC 4180).
+     */
+    static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
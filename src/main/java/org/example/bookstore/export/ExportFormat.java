@@ -0,0 +1,23 @@
+package org.example.bookstore.export;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formats of a book export.
+ */
+public enum ExportFormat {
+    // one JSON object per line, same shape as a search result
+    NDJSON(MediaType.parseMediaType("application/x-ndjson")),
+    // header row, authors and genres joined with "; "
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"));
+
+    private final MediaType mediaType;
+
+    ExportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.bookstore.importer;
+
+/**
+ * Formats of a catalog import, the layouts of {@link org.example.bookstore.export.ExportFormat}: an export can be
+ * imported back.
+ */
+public enum ImportFormat {
+    // one JSON object per line, same shape as a search result
+    NDJSON,
+    // header row naming the columns, authors and genres joined with "; ", an author's last name after the last space
+    CSV
+}
@@ -0,0 +1,14 @@
+package org.example.bookstore.importer;
+
+/**
+ * Lifecycle of an import job.
+ */
+public enum ImportJobStatus {
+    // stored, waiting for a worker
+    PENDING,
+    // being read; a job whose checkpoint stops moving was interrupted and can be resumed
+    RUNNING,
+    COMPLETED,
+    // stopped by an error; resuming continues after the last checkpoint
+    FAILED
+}
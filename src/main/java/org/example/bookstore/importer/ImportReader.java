@@ -0,0 +1,209 @@
+package org.example.bookstore.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.example.bookstore.dto.author.AuthorDto;
+import org.example.bookstore.dto.book.BookResponseDto;
+import org.example.bookstore.dto.genre.GenreDto;
+import org.example.bookstore.importer.ImportRecord.AuthorName;
+
+/**
+ * Reads the records of an import file one at a time, so files of any size are read in constant memory.
+ *
+ * <p>A record that can not be imported raises {@link InvalidRecordException} and is skipped; the next call reads the
+ * record after it. Values are trimmed, and checked against the limits of the {@code book}, {@code author} and
+ * {@code genre} columns.
+ */
+public final class ImportReader implements Closeable {
+
+    private static final int MAX_TEXT = 255;
+    private static final BigDecimal MAX_DECIMAL = new BigDecimal("99999999.99");
+    private static final String LIST_SEPARATOR = ";";
+
+    private final ImportFormat format;
+    private final ObjectMapper objectMapper;
+    private final BufferedReader in;
+    private final CsvRecordReader csv;
+    private Map<String, Integer> columns;
+
+    public ImportReader(ImportFormat format, ObjectMapper objectMapper, InputStream in) {
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+        this.csv = format == ImportFormat.CSV ? new CsvRecordReader(this.in) : null;
+    }
+
+    /**
+     * @return the next record, {@code null} at the end of the file
+     * @throws InvalidRecordException if the record can not be imported
+     */
+    public ImportRecord next() throws IOException {
+        return format == ImportFormat.CSV ? nextCsv() : nextJson();
+    }
+
+    /**
+     * Moves past records without checking them, to continue after a checkpoint.
+     *
+     * @return number of records skipped, less than {@code count} if the file ends first
+     */
+    public long skip(long count) throws IOException {
+        long skipped = 0;
+        while (skipped < count) {
+            try {
+                if (next() == null) {
+                    break;
+                }
+            } catch (InvalidRecordException e) {
+                // counted like any other record
+            }
+            skipped++;
+        }
+        return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private ImportRecord nextJson() throws IOException {
+        String line;
+        do {
+            line = in.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        BookResponseDto book;
+        try {
+            book = objectMapper.readValue(line, BookResponseDto.class);
+        } catch (JsonProcessingException e) {
+            throw new InvalidRecordException("Malformed JSON: " + e.getOriginalMessage(), e);
+        }
+        List<AuthorName> authors = new ArrayList<>();
+        if (book.authors() != null) {
+            for (AuthorDto author : book.authors()) {
+                authors.add(author(author.getFirstName(), author.getLastName()));
+            }
+        }
+        List<String> genres = new ArrayList<>();
+        if (book.genres() != null) {
+            for (GenreDto genre : book.genres()) {
+                genres.add(text("genre", genre.getName()));
+            }
+        }
+        return new ImportRecord(book.id(), text("title", book.title()), decimal("price", book.price()),
+            book.quantity(), decimal("rating", book.rating()), authors, genres);
+    }
+
+    private ImportRecord nextCsv() throws IOException {
+        if (columns == null) {
+            List<String> header = csv.next();
+            if (header == null) {
+                return null;
+            }
+            columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(), i);
+            }
+            if (!columns.containsKey("title")) {
+                throw new IOException("CSV header has no title column: " + header);
+            }
+        }
+        List<String> fields;
+        do {
+            fields = csv.next();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        List<AuthorName> authors = new ArrayList<>();
+        for (String name : list(field(fields, "authors"))) {
+            int space = name.lastIndexOf(' ');
+            if (space < 0) {
+                throw new InvalidRecordException("Author '" + name + "' has no first and last name");
+            }
+            authors.add(author(name.substring(0, space), name.substring(space + 1)));
+        }
+        List<String> genres = new ArrayList<>();
+        for (String name : list(field(fields, "genres"))) {
+            genres.add(text("genre", name));
+        }
+        return new ImportRecord(
+            parse("id", field(fields, "id"), Long::valueOf),
+            text("title", field(fields, "title")),
+            decimal("price", parse("price", field(fields, "price"), BigDecimal::new)),
+            parse("quantity", field(fields, "quantity"), Integer::valueOf),
+            decimal("rating", parse("rating", field(fields, "rating"), BigDecimal::new)),
+            authors, genres);
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static List<String> list(String value) {
+        if (value == null) {
+            return List.of();
+        }
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(LIST_SEPARATOR)) {
+            if (!item.isBlank()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    private static AuthorName author(String firstName, String lastName) {
+        return new AuthorName(text("author first name", firstName), text("author last name", lastName));
+    }
+
+    private static String text(String name, String value) {
+        String trimmed = value == null ? "" : value.trim();
+        if (trimmed.isEmpty()) {
+            throw new InvalidRecordException("Missing " + name);
+        }
+        if (trimmed.length() > MAX_TEXT) {
+            throw new InvalidRecordException("The " + name + " is longer than " + MAX_TEXT + " characters");
+        }
+        return trimmed;
+    }
+
+    private static BigDecimal decimal(String name, BigDecimal value) {
+        if (value != null && (value.signum() < 0 || value.compareTo(MAX_DECIMAL) > 0)) {
+            throw new InvalidRecordException("The " + name + " " + value.toPlainString() + " is out of range");
+        }
+        return value;
+    }
+
+    private static <T> T parse(String name, String value, Function<String, T> parser) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidRecordException("The " + name + " '" + value + "' is not a number", e);
+        }
+    }
+}
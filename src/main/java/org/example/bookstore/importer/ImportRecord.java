@@ -0,0 +1,29 @@
+package org.example.bookstore.importer;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A book read from an import file, trimmed and checked.
+ *
+ * @param id      id of the book to update; a book is created when it is {@code null} or unknown
+ * @param authors authors of the book, resolved or created by name
+ * @param genres  names of the genres of the book, resolved or created by name
+ */
+public record ImportRecord(
+    Long id,
+    String title,
+    BigDecimal price,
+    Integer quantity,
+    BigDecimal rating,
+    List<AuthorName> authors,
+    List<String> genres
+) {
+
+    public ImportRecord withId(Long newId) {
+        return new ImportRecord(newId, title, price, quantity, rating, authors, genres);
+    }
+
+    public record AuthorName(String firstName, String lastName) {
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.bookstore.importer;
+
+/**
+ * A record of an import file that can not be imported; the reader has moved past it.
+ */
+public class InvalidRecordException extends RuntimeException {
+
+    public InvalidRecordException(String message) {
+        super(message);
+    }
+
+    public InvalidRecordException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
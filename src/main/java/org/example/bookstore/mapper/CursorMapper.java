@@ -0,0 +1,127 @@
+package org.example.bookstore.mapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookstore.exception.BookstoreBadRequestException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Encodes keyset paging positions into opaque, URL-safe cursors and back.
+ *
+ * <p>A cursor holds a signature (normally the sort it was produced for) and the sort key values of the last row of
+ * a page. Decoding fails with {@link BookstoreBadRequestException} when the cursor is malformed, was produced for
+ * another signature or does not hold one value per sort key.
+ */
+@Slf4j
+@Component
+public class CursorMapper {
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte LONG = 2;
+    private static final byte INTEGER = 3;
+    private static final byte DECIMAL = 4;
+    private static final byte DATE_TIME = 5;
+    private static final byte DOUBLE = 6;
+
+    /**
+     * Encodes sort key values into a cursor.
+     *
+     * @param signature identifies the ordering the values belong to
+     * @param values    sort key values of the last returned row
+     * @return opaque cursor
+     */
+    public String encode(String signature, List<?> values) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(signature);
+            out.writeShort(values.size());
+            for (Object value : values) {
+                writeValue(out, value);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode(String, List)}.
+     *
+     * @param cursor    opaque cursor
+     * @param signature expected signature
+     * @param keys      expected number of sort key values
+     * @return sort key values
+     */
+    public List<Object> decode(String cursor, String signature, int keys) {
+        try (DataInputStream in = new DataInputStream(
+            new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (!signature.equals(in.readUTF())) {
+                throw new BookstoreBadRequestException("Cursor does not match the requested sort");
+            }
+            int size = in.readShort();
+            if (size != keys) {
+                throw new BookstoreBadRequestException("Cursor does not match the requested sort");
+            }
+            List<Object> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(readValue(in));
+            }
+            return values;
+        } catch (IOException | IllegalArgumentException | DateTimeException e) {
+            log.debug("Malformed cursor '{}'", cursor, e);
+            throw new BookstoreBadRequestException("Malformed cursor", e);
+        }
+    }
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String s) {
+            out.writeByte(STRING);
+            out.writeUTF(s);
+        } else if (value instanceof Long l) {
+            out.writeByte(LONG);
+            out.writeLong(l);
+        } else if (value instanceof Integer i) {
+            out.writeByte(INTEGER);
+            out.writeInt(i);
+        } else if (value instanceof BigDecimal d) {
+            out.writeByte(DECIMAL);
+            out.writeUTF(d.toPlainString());
+        } else if (value instanceof ZonedDateTime t) {
+            out.writeByte(DATE_TIME);
+            out.writeUTF(t.toString());
+        } else if (value instanceof Number n) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(n.doubleValue());
+        } else {
+            throw new IllegalArgumentException("Unsupported cursor value type: " + value.getClass());
+        }
+    }
+
+    private Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case NULL -> null;
+            case STRING -> in.readUTF();
+            case LONG -> in.readLong();
+            case INTEGER -> in.readInt();
+            case DECIMAL -> new BigDecimal(in.readUTF());
+            case DATE_TIME -> ZonedDateTime.parse(in.readUTF());
+            case DOUBLE -> in.readDouble();
+            default -> throw new IllegalArgumentException("Unknown cursor value type: " + type);
+        };
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.bookstore.reference;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * Immutable map from primitive {@code long} keys to values: sorted key array searched by bisection, values in a
+ * parallel array. No boxing on lookup and two arrays per map, which suits small, read-mostly tables.
+ *
+ * <p>{@link #with}, {@link #without} and {@link #withAll} return modified copies.
+ *
+ * @param <V> value type
+ */
+public final class LongMap<V> {
+
+    private static final LongMap<?> EMPTY = new LongMap<>(new long[0], new Object[0]);
+
+    private final long[] keys;
+    private final Object[] values;
+
+    private LongMap(long[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> LongMap<V> empty() {
+        return (LongMap<V>) EMPTY;
+    }
+
+    /**
+     * Map of the given values; of values with equal keys, the last one wins.
+     */
+    public static <V> LongMap<V> of(Collection<? extends V> values, ToLongFunction<? super V> key) {
+        Object[] sorted = values.toArray();
+        Arrays.sort(sorted, (a, b) -> Long.compare(keyOf(a, key), keyOf(b, key)));
+        long[] keys = new long[sorted.length];
+        int size = 0;
+        for (Object value : sorted) {
+            long k = keyOf(value, key);
+            if (size > 0 && keys[size - 1] == k) {
+                sorted[size - 1] = value;
+            } else {
+                keys[size] = k;
+                sorted[size++] = value;
+            }
+        }
+        return new LongMap<>(Arrays.copyOf(keys, size), Arrays.copyOf(sorted, size));
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int index = Arrays.binarySearch(keys, key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    public boolean containsKey(long key) {
+        return Arrays.binarySearch(keys, key) >= 0;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Values in key order.
+     */
+    public List<V> values() {
+        return new AbstractList<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public V get(int index) {
+                return (V) values[index];
+            }
+
+            @Override
+            public int size() {
+                return values.length;
+            }
+        };
+    }
+
+    public LongMap<V> with(long key, V value) {
+        int index = Arrays.binarySearch(keys, key);
+        if (index >= 0) {
+            Object[] newValues = values.clone();
+            newValues[index] = value;
+            return new LongMap<>(keys, newValues);
+        }
+        int at = -index - 1;
+        long[] newKeys = new long[keys.length + 1];
+        Object[] newValues = new Object[values.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, at);
+        System.arraycopy(values, 0, newValues, 0, at);
+        newKeys[at] = key;
+        newValues[at] = value;
+        System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+        System.arraycopy(values, at, newValues, at + 1, values.length - at);
+        return new LongMap<>(newKeys, newValues);
+    }
+
+    public LongMap<V> without(long key) {
+        int index = Arrays.binarySearch(keys, key);
+        if (index < 0) {
+            return this;
+        }
+        long[] newKeys = new long[keys.length - 1];
+        Object[] newValues = new Object[values.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(values, 0, newValues, 0, index);
+        System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+        System.arraycopy(values, index + 1, newValues, index, values.length - index - 1);
+        return new LongMap<>(newKeys, newValues);
+    }
+
+    /**
+     * Copy with the values added or replaced and the keys removed, built in one pass rather than one copy per change.
+     */
+    public LongMap<V> withAll(Collection<? extends V> changed, Collection<Long> removed,
+                              ToLongFunction<? super V> key) {
+        if (changed.isEmpty() && removed.isEmpty()) {
+            return this;
+        }
+        Set<Long> dropped = new HashSet<>(removed);
+        List<V> all = new ArrayList<>(values.length + changed.size());
+        for (int i = 0; i < keys.length; i++) {
+            if (!dropped.contains(keys[i])) {
+                all.add(valueAt(i));
+            }
+        }
+        // of keeps the last of equal keys, so the changed values replace the current ones
+        all.addAll(changed);
+        return of(all, key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> long keyOf(Object value, ToLongFunction<? super V> key) {
+        return key.applyAsLong((V) value);
+    }
+}
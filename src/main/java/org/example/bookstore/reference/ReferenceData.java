@@ -0,0 +1,133 @@
+package org.example.bookstore.reference;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookstore.entity.Author;
+import org.example.bookstore.entity.Genre;
+import org.example.bookstore.event.AuthorChangedEvent;
+import org.example.bookstore.event.GenreChangedEvent;
+import org.example.bookstore.event.ReferencesChangedEvent;
+import org.example.bookstore.repository.SearchDocumentRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory {@link ReferenceSnapshot} of all authors and genres, so that reads needing author or genre data do not go
+ * to the database.
+ *
+ * <p>Loaded once the application is ready, or on first use if that comes earlier. Every committed author or genre
+ * change re-reads that one row, a bulk change all its rows with one query per table, and atomically swaps in a modified
+ * copy of the snapshot; readers always see a complete snapshot without locking. Runs before the other change
+ * listeners, so that they already see the new state.
+ *
+ * <p>Only changes made through this instance are applied; with several instances, the snapshot misses the others'
+ * changes. Writes therefore check that the authors and genres they refer to exist against the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReferenceData {
+
+    private final SearchDocumentRepository repository;
+    private final AtomicReference<ReferenceSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong changes = new AtomicLong();
+
+    public ReferenceSnapshot snapshot() {
+        ReferenceSnapshot current = snapshot.get();
+        return current != null ? current : load();
+    }
+
+    /**
+     * Whether an author or genre exists in the snapshot.
+     */
+    public boolean contains(Class<?> type, long id) {
+        if (type == Author.class) {
+            return snapshot().authors().containsKey(id);
+        }
+        if (type == Genre.class) {
+            return snapshot().genres().containsKey(id);
+        }
+        throw new IllegalArgumentException("Not reference data: " + type.getSimpleName());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        load();
+    }
+
+    private ReferenceSnapshot load() {
+        while (true) {
+            long seen = changes.get();
+            ReferenceSnapshot loaded = new ReferenceSnapshot(
+                LongMap.of(repository.findAllAuthors().stream().map(ReferenceSnapshot.AuthorRef::of).toList(),
+                    ReferenceSnapshot.AuthorRef::id),
+                LongMap.of(repository.findAllGenres().stream().map(ReferenceSnapshot.GenreRef::of).toList(),
+                    ReferenceSnapshot.GenreRef::id));
+            // a change committed while loading may be missing from what was read, so read again
+            synchronized (changes) {
+                if (changes.get() == seen) {
+                    snapshot.set(loaded);
+                    log.debug("Reference data loaded: {} authors, {} genres",
+                        loaded.authors().size(), loaded.genres().size());
+                    return loaded;
+                }
+            }
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        long id = event.authorId();
+        apply(() -> repository.findAuthor(id)
+            .<UnaryOperator<ReferenceSnapshot>>map(author -> s -> s.withAuthor(ReferenceSnapshot.AuthorRef.of(author)))
+            .orElse(s -> s.withoutAuthor(id)));
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGenreChanged(GenreChangedEvent event) {
+        long id = event.genreId();
+        apply(() -> repository.findGenre(id)
+            .<UnaryOperator<ReferenceSnapshot>>map(genre -> s -> s.withGenre(ReferenceSnapshot.GenreRef.of(genre)))
+            .orElse(s -> s.withoutGenre(id)));
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferencesChanged(ReferencesChangedEvent event) {
+        apply(() -> {
+            List<ReferenceSnapshot.AuthorRef> authors = repository.findAuthorsByIds(event.authorIds()).stream()
+                .map(ReferenceSnapshot.AuthorRef::of).toList();
+            List<ReferenceSnapshot.GenreRef> genres = repository.findGenresByIds(event.genreIds()).stream()
+                .map(ReferenceSnapshot.GenreRef::of).toList();
+            Set<Long> removedAuthors = new HashSet<>(event.authorIds());
+            authors.forEach(author -> removedAuthors.remove(author.id()));
+            Set<Long> removedGenres = new HashSet<>(event.genreIds());
+            genres.forEach(genre -> removedGenres.remove(genre.id()));
+            return s -> s.withAuthors(authors, removedAuthors).withGenres(genres, removedGenres);
+        });
+    }
+
+    /**
+     * Reads and applies a change; serialized, so that of two changes of one row the later read is applied last.
+     */
+    private void apply(Supplier<UnaryOperator<ReferenceSnapshot>> read) {
+        synchronized (changes) {
+            changes.incrementAndGet();
+            UnaryOperator<ReferenceSnapshot> change = read.get();
+            snapshot.updateAndGet(current -> current == null ? null : change.apply(current));
+        }
+    }
+}
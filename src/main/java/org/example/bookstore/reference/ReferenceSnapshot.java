@@ -0,0 +1,73 @@
+package org.example.bookstore.reference;
+
+import java.util.Collection;
+import org.example.bookstore.dto.author.AuthorDto;
+import org.example.bookstore.dto.genre.GenreDto;
+
+/**
+ * Immutable copy of all authors and genres at one point in time.
+ *
+ * @param authors authors by id
+ * @param genres  genres by id
+ */
+public record ReferenceSnapshot(LongMap<AuthorRef> authors, LongMap<GenreRef> genres) {
+
+    public ReferenceSnapshot withAuthor(AuthorRef author) {
+        return new ReferenceSnapshot(authors.with(author.id(), author), genres);
+    }
+
+    public ReferenceSnapshot withoutAuthor(long id) {
+        return new ReferenceSnapshot(authors.without(id), genres);
+    }
+
+    public ReferenceSnapshot withAuthors(Collection<AuthorRef> changed, Collection<Long> removed) {
+        return new ReferenceSnapshot(authors.withAll(changed, removed, AuthorRef::id), genres);
+    }
+
+    public ReferenceSnapshot withGenre(GenreRef genre) {
+        return new ReferenceSnapshot(authors, genres.with(genre.id(), genre));
+    }
+
+    public ReferenceSnapshot withoutGenre(long id) {
+        return new ReferenceSnapshot(authors, genres.without(id));
+    }
+
+    public ReferenceSnapshot withGenres(Collection<GenreRef> changed, Collection<Long> removed) {
+        return new ReferenceSnapshot(authors, genres.withAll(changed, removed, GenreRef::id));
+    }
+
+    public record AuthorRef(long id, String firstName, String lastName) {
+
+        public static AuthorRef of(AuthorDto dto) {
+            return new AuthorRef(dto.getId(), dto.getFirstName(), dto.getLastName());
+        }
+
+        /**
+         * Fresh, mutable DTO; the snapshot itself is never handed out.
+         */
+        public AuthorDto toDto() {
+            AuthorDto dto = new AuthorDto();
+            dto.setId(id);
+            dto.setFirstName(firstName);
+            dto.setLastName(lastName);
+            return dto;
+        }
+    }
+
+    public record GenreRef(long id, String name) {
+
+        public static GenreRef of(GenreDto dto) {
+            return new GenreRef(dto.getId(), dto.getName());
+        }
+
+        /**
+         * Fresh, mutable DTO; the snapshot itself is never handed out.
+         */
+        public GenreDto toDto() {
+            GenreDto dto = new GenreDto();
+            dto.setId(id);
+            dto.setName(name);
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package org.example.bookstore.repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.example.bookstore.dto.book.BookBulkCreateItemDto;
+import org.example.bookstore.dto.book.BookBulkUpdateItemDto;
+import org.example.bookstore.entity.BaseEntity;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Bulk writes of books with JDBC batches and set-based statements, bypassing the persistence context.
+ *
+ * <p>Ids come from {@code book_seq} in blocks of {@link BaseEntity#ID_ALLOCATION_SIZE}, the sequence and block size of
+ * the {@code @SequenceGenerator} of {@code Book}, so books created here and through JPA never collide.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookBulkRepository {
+
+    private static final int ID_BATCH = 10_000;
+
+    private static final String NEXT_IDS_SQL = "SELECT nextval('book_seq') FROM generate_series(1, :blocks)";
+    private static final String INSERT_BOOK_SQL = """
+        INSERT INTO book (id, title, price, quantity, rating, created_at, updated_at, created_by, updated_by)
+        VALUES (:id, :title, :price, :quantity, :rating, now(), now(), :user, :user)
+        """;
+    private static final String INSERT_BOOK_AUTHOR_SQL = """
+        INSERT INTO book_author (book_id, author_id) VALUES (:bookId, :relatedId)
+        """;
+    private static final String INSERT_BOOK_GENRE_SQL = """
+        INSERT INTO book_genre (book_id, genre_id) VALUES (:bookId, :relatedId)
+        """;
+    /**
+     * Updates the books that differ from their item and reports, per item, whether the book exists and changed.
+     */
+    private static final String UPDATE_BOOKS_SQL = """
+        WITH v (id, price, quantity, rating) AS (VALUES :rows),
+        changed AS (
+            UPDATE book b
+            SET price = COALESCE(v.price, b.price), quantity = COALESCE(v.quantity, b.quantity),
+                rating = COALESCE(v.rating, b.rating), updated_at = now(), updated_by = :user
+            FROM v
+            WHERE b.id = v.id
+              AND (b.price, b.quantity, b.rating) IS DISTINCT FROM
+                  (COALESCE(v.price, b.price), COALESCE(v.quantity, b.quantity), COALESCE(v.rating, b.rating))
+            RETURNING b.id
+        )
+        SELECT v.id, b.id IS NOT NULL AS found, c.id IS NOT NULL AS changed
+        FROM v
+        LEFT JOIN book b ON b.id = v.id
+        LEFT JOIN changed c ON c.id = v.id
+        """;
+    private static final String FIND_IDS_SQL = """
+        SELECT b.id
+        FROM book b
+        WHERE b.id > :after %s
+        ORDER BY b.id
+        LIMIT :limit
+        """;
+    private static final String GENRE_FILTER = """
+        AND EXISTS (SELECT 1 FROM book_genre bg WHERE bg.book_id = b.id AND bg.genre_id IN (:genreIds))
+        """;
+    private static final String AUTHOR_FILTER = """
+        AND EXISTS (SELECT 1 FROM book_author ba WHERE ba.book_id = b.id AND ba.author_id IN (:authorIds))
+        """;
+    private static final String EXISTING_AUTHORS_SQL = "SELECT id FROM author WHERE id IN (:ids)";
+    private static final String EXISTING_GENRES_SQL = "SELECT id FROM genre WHERE id IN (:ids)";
+    private static final String ADJUST_BOOKS_SQL = """
+        UPDATE book
+        SET price = %1$s, quantity = %2$s, updated_at = now(), updated_by = :user
+        WHERE id IN (:ids)
+          AND (price, quantity) IS DISTINCT FROM (%1$s, %2$s)
+        RETURNING id
+        """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Inserts the books with their author and genre links: one batch per table.
+     *
+     * @return ids of the inserted books, in the order of {@code books}
+     */
+    public List<Long> insertAll(List<? extends BookBulkCreateItemDto> books, String user) {
+        List<Long> ids = reserveIds(books.size());
+        List<SqlParameterSource> bookRows = new ArrayList<>(books.size());
+        List<SqlParameterSource> authorRows = new ArrayList<>();
+        List<SqlParameterSource> genreRows = new ArrayList<>();
+        for (int i = 0; i < books.size(); i++) {
+            BookBulkCreateItemDto book = books.get(i);
+            Long id = ids.get(i);
+            bookRows.add(new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("title", book.getTitle())
+                .addValue("price", book.getPrice())
+                .addValue("quantity", book.getQuantity())
+                .addValue("rating", book.getRating() == null ? null : BigDecimal.valueOf(book.getRating()))
+                .addValue("user", user));
+            addLinks(authorRows, id, book.getAuthorIds());
+            addLinks(genreRows, id, book.getGenreIds());
+        }
+        jdbc.batchUpdate(INSERT_BOOK_SQL, bookRows.toArray(SqlParameterSource[]::new));
+        jdbc.batchUpdate(INSERT_BOOK_AUTHOR_SQL, authorRows.toArray(SqlParameterSource[]::new));
+        jdbc.batchUpdate(INSERT_BOOK_GENRE_SQL, genreRows.toArray(SqlParameterSource[]::new));
+        return ids;
+    }
+
+    /**
+     * @return the ids of the authors that exist
+     */
+    public Set<Long> findExistingAuthorIds(Collection<Long> ids) {
+        return findExisting(EXISTING_AUTHORS_SQL, ids);
+    }
+
+    /**
+     * @return the ids of the genres that exist
+     */
+    public Set<Long> findExistingGenreIds(Collection<Long> ids) {
+        return findExisting(EXISTING_GENRES_SQL, ids);
+    }
+
+    /**
+     * Reserves {@code count} book ids; ids of a partly used block are skipped.
+     */
+    public List<Long> reserveIds(int count) {
+        int size = BaseEntity.ID_ALLOCATION_SIZE;
+        List<Long> ids = new ArrayList<>(count + size);
+        while (ids.size() < count) {
+            int blocks = (count - ids.size() + size - 1) / size;
+            for (Long last : jdbc.queryForList(NEXT_IDS_SQL, Map.of("blocks", blocks), Long.class)) {
+                // the first call on a fresh sequence returns its start value, a block of one
+                for (long id = Math.max(1, last - size + 1); id <= last; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids.subList(0, count);
+    }
+
+    /**
+     * Sets the non-null values of the items on their books; books already having them are not touched.
+     *
+     * @param books items with distinct ids
+     */
+    public UpdateResult updateAll(List<BookBulkUpdateItemDto> books, String user) {
+        List<Object[]> rows = new ArrayList<>(books.size());
+        for (BookBulkUpdateItemDto book : books) {
+            // typed, so that PostgreSQL infers the column types of VALUES even from nulls
+            rows.add(new Object[] {
+                new SqlParameterValue(Types.BIGINT, book.id()),
+                new SqlParameterValue(Types.NUMERIC, book.price()),
+                new SqlParameterValue(Types.INTEGER, book.quantity()),
+                new SqlParameterValue(Types.NUMERIC, book.rating())});
+        }
+        List<Long> updatedIds = new ArrayList<>();
+        List<Long> missingIds = new ArrayList<>();
+        jdbc.query(UPDATE_BOOKS_SQL, new MapSqlParameterSource().addValue("rows", rows).addValue("user", user),
+            (ResultSet rs) -> {
+                if (!rs.getBoolean("found")) {
+                    missingIds.add(rs.getLong("id"));
+                } else if (rs.getBoolean("changed")) {
+                    updatedIds.add(rs.getLong("id"));
+                }
+            });
+        return new UpdateResult(updatedIds, missingIds);
+    }
+
+    /**
+     * Ids of the books after {@code after} having any of the genres and any of the authors, in ascending order.
+     *
+     * @param genreIds  {@code null} or empty for any genre
+     * @param authorIds {@code null} or empty for any author
+     */
+    public List<Long> findIds(Collection<Long> genreIds, Collection<Long> authorIds, long after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource().addValue("after", after).addValue("limit", limit);
+        StringBuilder filters = new StringBuilder();
+        if (genreIds != null && !genreIds.isEmpty()) {
+            filters.append(GENRE_FILTER);
+            params.addValue("genreIds", genreIds);
+        }
+        if (authorIds != null && !authorIds.isEmpty()) {
+            filters.append(AUTHOR_FILTER);
+            params.addValue("authorIds", authorIds);
+        }
+        return jdbc.queryForList(FIND_IDS_SQL.formatted(filters), params, Long.class);
+    }
+
+    /**
+     * Multiplies the prices by {@code priceFactor}, rounded to cents, and adds {@code quantityDelta} to the
+     * quantities, not going below zero. A {@code null} factor or delta leaves the column unchanged.
+     *
+     * @return ids of the books changed
+     */
+    public List<Long> adjustAll(Collection<Long> ids, BigDecimal priceFactor, Integer quantityDelta, String user) {
+        String price = priceFactor == null ? "price" : "round(price * :priceFactor, 2)";
+        String quantity = quantityDelta == null ? "quantity" : "GREATEST(quantity + :quantityDelta, 0)";
+        return jdbc.queryForList(ADJUST_BOOKS_SQL.formatted(price, quantity), new MapSqlParameterSource()
+            .addValue("ids", ids)
+            .addValue("priceFactor", priceFactor)
+            .addValue("quantityDelta", quantityDelta)
+            .addValue("user", user), Long.class);
+    }
+
+    private Set<Long> findExisting(String sql, Collection<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        List<Long> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += ID_BATCH) {
+            List<Long> batch = all.subList(from, Math.min(from + ID_BATCH, all.size()));
+            existing.addAll(jdbc.queryForList(sql, Map.of("ids", batch), Long.class));
+        }
+        return existing;
+    }
+
+    private static void addLinks(List<SqlParameterSource> rows, Long bookId, Collection<Long> relatedIds) {
+        if (relatedIds == null) {
+            return;
+        }
+        for (Long relatedId : relatedIds) {
+            rows.add(new MapSqlParameterSource().addValue("bookId", bookId).addValue("relatedId", relatedId));
+        }
+    }
+
+    /**
+     * @param updatedIds ids of the books changed
+     * @param missingIds ids of the items having no book
+     */
+    public record UpdateResult(List<Long> updatedIds, List<Long> missingIds) {
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.bookstore.repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Relevance-ranked full-text search over {@code book.search_vector}.
+ *
+ * <p>The vector covers the title, author names and genre names and is maintained by database triggers, so it is
+ * current whatever path changed a book or its associations. Matches are ordered by {@code ts_rank} descending, then
+ * by id, and paged with a seek on that pair.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookFullTextRepository {
+
+    private static final String RANKED_SQL = """
+        SELECT id, rank
+        FROM (
+            SELECT b.id, ts_rank(b.search_vector, q) AS rank
+            FROM book b, websearch_to_tsquery('english', :query) q
+            WHERE b.search_vector @@ q
+        ) ranked
+        %s
+        ORDER BY rank DESC, id
+        LIMIT :limit
+        """;
+    private static final String SEEK = "WHERE rank < :rank OR (rank = :rank AND id > :id)";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Finds matching books ordered by relevance.
+     *
+     * @param query web search style query
+     * @param after last match of the previous page, {@code null} for the first page
+     * @param limit maximum number of matches
+     * @return matches, most relevant first
+     */
+    public List<Match> findMatches(String query, Match after, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("query", query);
+        params.put("limit", limit);
+        if (after != null) {
+            params.put("rank", after.rank());
+            params.put("id", after.id());
+        }
+        String sql = RANKED_SQL.formatted(after == null ? "" : SEEK);
+        return jdbc.query(sql, params, (rs, rowNum) -> new Match(rs.getLong("id"), rs.getFloat("rank")));
+    }
+
+    /**
+     * A matching book and its rank; ranks are {@code real} in PostgreSQL and kept as float to compare exactly.
+     */
+    public record Match(long id, float rank) {
+    }
+}
@@ -0,0 +1,184 @@
+package org.example.bookstore.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.example.bookstore.dto.Versioned;
+import org.example.bookstore.dto.author.AuthorDto;
+import org.example.bookstore.dto.book.BookResponseDto;
+import org.example.bookstore.dto.genre.GenreDto;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Read model of books: builds {@link BookResponseDto} straight from SQL without hydrating managed entities.
+ *
+ * <p>Books, their authors and their genres are loaded with one IN query each, so the number of statements does not
+ * depend on the number of requested books. A single book is loaded with one statement, its authors and genres
+ * aggregated into JSON arrays. Books loaded for the cache come with a {@link Versioned#version()}: the digest of their
+ * own {@code updated_at} and the ids and {@code updated_at} of their authors and genres.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookReadRepository {
+
+    private static final String BOOKS_SQL = """
+        SELECT b.id, b.title, b.price, b.quantity, b.rating%s
+        FROM book b
+        WHERE b.id IN (:ids)
+        """;
+    private static final String AUTHORS_SQL = """
+        SELECT ba.book_id, a.id, a.first_name, a.last_name
+        FROM book_author ba
+        JOIN author a ON a.id = ba.author_id
+        WHERE ba.book_id IN (:ids)
+        ORDER BY ba.book_id, a.id
+        """;
+    private static final String GENRES_SQL = """
+        SELECT bg.book_id, g.id, g.name
+        FROM book_genre bg
+        JOIN genre g ON g.id = bg.genre_id
+        WHERE bg.book_id IN (:ids)
+        ORDER BY bg.book_id, g.id
+        """;
+    // the book row, the ids of its authors and genres and their rows: what the response is built from
+    private static final String VERSION = """
+        , md5(concat_ws('|', b.updated_at,
+              (SELECT string_agg(a.id || '@' || a.updated_at, ',' ORDER BY a.id)
+               FROM book_author ba
+               JOIN author a ON a.id = ba.author_id
+               WHERE ba.book_id = b.id),
+              (SELECT string_agg(g.id || '@' || g.updated_at, ',' ORDER BY g.id)
+               FROM book_genre bg
+               JOIN genre g ON g.id = bg.genre_id
+               WHERE bg.book_id = b.id))) AS version""";
+    private static final String BOOK_SQL = """
+        SELECT b.id, b.title, b.price, b.quantity, b.rating%s,
+               (SELECT json_agg(json_build_object('id', a.id, 'firstName', a.first_name, 'lastName', a.last_name)
+                                ORDER BY a.id)
+                FROM book_author ba
+                JOIN author a ON a.id = ba.author_id
+                WHERE ba.book_id = b.id) AS authors,
+               (SELECT json_agg(json_build_object('id', g.id, 'name', g.name) ORDER BY g.id)
+                FROM book_genre bg
+                JOIN genre g ON g.id = bg.genre_id
+                WHERE bg.book_id = b.id) AS genres
+        FROM book b
+        WHERE b.id = :id
+        """;
+    private static final TypeReference<List<AuthorDto>> AUTHORS = new TypeReference<>() {
+    };
+    private static final TypeReference<List<GenreDto>> GENRES = new TypeReference<>() {
+    };
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Loads a book and its version with one statement.
+     *
+     * @param id book id
+     * @return the book, empty if it does not exist
+     */
+    public Optional<Versioned<BookResponseDto>> findById(long id) {
+        return jdbc.query(BOOK_SQL.formatted(VERSION), Map.of("id", id), (rs, rowNum) -> new Versioned<>(
+            rs.getString("version"),
+            new BookResponseDto(
+                rs.getLong("id"),
+                rs.getString("title"),
+                readList(rs.getString("authors"), AUTHORS),
+                readList(rs.getString("genres"), GENRES),
+                rs.getBigDecimal("price"),
+                rs.getObject("quantity", Integer.class),
+                rs.getBigDecimal("rating")
+            ))).stream().findFirst();
+    }
+
+    /**
+     * Loads books by ids.
+     *
+     * @param ids book ids
+     * @return books in the order of the given ids, ids that do not exist are skipped
+     */
+    public List<BookResponseDto> findAllByIds(Collection<Long> ids) {
+        return findAll(ids, "").stream().map(Versioned::body).toList();
+    }
+
+    /**
+     * Loads books by ids with their versions, with the same three statements as {@link #findAllByIds}.
+     *
+     * @param ids book ids
+     * @return books in the order of the given ids, ids that do not exist are skipped
+     */
+    public List<Versioned<BookResponseDto>> findAllVersionedByIds(Collection<Long> ids) {
+        return findAll(ids, VERSION);
+    }
+
+    private List<Versioned<BookResponseDto>> findAll(Collection<Long> ids, String version) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Object> params = Map.of("ids", ids);
+
+        Map<Long, List<AuthorDto>> authors = new HashMap<>();
+        jdbc.query(AUTHORS_SQL, params, rs -> {
+            authors.computeIfAbsent(rs.getLong("book_id"), id -> new ArrayList<>()).add(mapAuthor(rs));
+        });
+        Map<Long, List<GenreDto>> genres = new HashMap<>();
+        jdbc.query(GENRES_SQL, params, rs -> {
+            genres.computeIfAbsent(rs.getLong("book_id"), id -> new ArrayList<>()).add(mapGenre(rs));
+        });
+
+        Map<Long, Versioned<BookResponseDto>> books = new HashMap<>();
+        jdbc.query(BOOKS_SQL.formatted(version), params, rs -> {
+            long id = rs.getLong("id");
+            books.put(id, new Versioned<>(version.isEmpty() ? null : rs.getString("version"), new BookResponseDto(
+                id,
+                rs.getString("title"),
+                authors.getOrDefault(id, List.of()),
+                genres.getOrDefault(id, List.of()),
+                rs.getBigDecimal("price"),
+                rs.getObject("quantity", Integer.class),
+                rs.getBigDecimal("rating")
+            )));
+        });
+
+        return ids.stream().map(books::get).filter(Objects::nonNull).toList();
+    }
+
+    private <T> List<T> readList(String json, TypeReference<List<T>> type) {
+        if (json == null) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed aggregate: " + json, e);
+        }
+    }
+
+    private static AuthorDto mapAuthor(ResultSet rs) throws SQLException {
+        AuthorDto author = new AuthorDto();
+        author.setId(rs.getLong("id"));
+        author.setFirstName(rs.getString("first_name"));
+        author.setLastName(rs.getString("last_name"));
+        return author;
+    }
+
+    private static GenreDto mapGenre(ResultSet rs) throws SQLException {
+        GenreDto genre = new GenreDto();
+        genre.setId(rs.getLong("id"));
+        genre.setName(rs.getString("name"));
+        return genre;
+    }
+}
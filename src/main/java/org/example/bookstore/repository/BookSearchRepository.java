@@ -0,0 +1,78 @@
+package org.example.bookstore.repository;
+
+import jakarta.persistence.Tuple;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+import org.example.bookstore.dto.book.BookFacetsDto;
+import org.example.bookstore.entity.Book;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Search queries that can not be expressed with derived or specification based repository methods.
+ */
+public interface BookSearchRepository {
+
+    /**
+     * Selects keys of the books matching the specification: the id (alias {@code id}) and the value of every sort
+     * property (aliased by the property name). No entities are loaded.
+     *
+     * @param spec   filter
+     * @param sort   ordering, properties must be scalar attributes of {@link Book}
+     * @param offset number of rows to skip
+     * @param limit  maximum number of rows to return
+     * @return tuples in the requested order
+     */
+    List<Tuple> findKeys(Specification<Book> spec, Sort sort, long offset, int limit);
+
+    /**
+     * Counts the books matching the specification, stopping after {@code cap + 1} rows.
+     *
+     * @param spec filter
+     * @param cap  count above which the exact value is not needed
+     * @return the exact count if it is at most {@code cap}, otherwise {@code cap + 1}
+     */
+    long countAtMost(Specification<Book> spec, int cap);
+
+    /**
+     * Streams the ids of the books matching the specification from a forward-only cursor. Must be consumed, and
+     * closed, within a transaction: PostgreSQL only fetches in chunks when auto-commit is off.
+     *
+     * @param spec      filter
+     * @param sort      ordering, properties must be scalar attributes of {@link Book}
+     * @param fetchSize number of rows fetched per round trip
+     * @return ids in the requested order
+     */
+    Stream<Long> streamIds(Specification<Book> spec, Sort sort, int fetchSize);
+
+    /**
+     * Counts the books matching the specification per genre, grouped in the database.
+     *
+     * @param spec  filter
+     * @param limit maximum number of genres to return
+     * @return genres ordered by count descending, then id
+     */
+    List<BookFacetsDto.ValueCount> countByGenre(Specification<Book> spec, int limit);
+
+    /**
+     * Counts the books matching the specification per author, grouped in the database; the name is "first last".
+     *
+     * @param spec  filter
+     * @param limit maximum number of authors to return
+     * @return authors ordered by count descending, then id
+     */
+    List<BookFacetsDto.ValueCount> countByAuthor(Specification<Book> spec, int limit);
+
+    /**
+     * Counts the books matching the specification per bucket of a numeric attribute in a single row: bucket 0 is
+     * below the first edge, bucket {@code i} is {@code [edges[i - 1], edges[i])}. Books without a value are not
+     * counted.
+     *
+     * @param spec      filter
+     * @param attribute scalar attribute of {@link Book}
+     * @param edges     ascending bucket boundaries
+     * @return {@code edges.size() + 1} counts
+     */
+    List<Long> countByRange(Specification<Book> spec, String attribute, List<BigDecimal> edges);
+}
@@ -0,0 +1,177 @@
+package org.example.bookstore.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.example.bookstore.dto.book.BookFacetsDto;
+import org.example.bookstore.entity.Author;
+import org.example.bookstore.entity.Book;
+import org.example.bookstore.entity.Genre;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaSubQuery;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+class BookSearchRepositoryImpl implements BookSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findKeys(Specification<Book> spec, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Book> root = cq.from(Book.class);
+
+        Predicate predicate = spec.toPredicate(root, cq, cb);
+        if (predicate != null) {
+            cq.where(predicate);
+        }
+
+        // sort keys are selected as well: used to build keyset cursors
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get("id").alias("id"));
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Path<Object> path = root.get(order.getProperty());
+            if (!"id".equals(order.getProperty())) {
+                selections.add(path.alias(order.getProperty()));
+            }
+            orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+        cq.multiselect(selections).orderBy(orders);
+
+        return entityManager.createQuery(cq)
+            .setFirstResult(Math.toIntExact(offset))
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    public long countAtMost(Specification<Book> spec, int cap) {
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        JpaCriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        JpaSubQuery<Long> matches = cq.subquery(Long.class);
+        Root<Book> root = matches.from(Book.class);
+        matches.select(root.<Long>get("id")).where(matching(spec, root, cq, cb));
+        // SELECT count(*) FROM (SELECT id ... LIMIT cap + 1): the scan stops at the limit instead of visiting every
+        // match, and only the count leaves the database
+        matches.fetch(cap + 1);
+        cq.from(matches);
+        cq.select(cb.count(cb.literal(1)));
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+
+    @Override
+    public Stream<Long> streamIds(Specification<Book> spec, Sort sort, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Book> root = cq.from(Book.class);
+        cq.select(root.get("id")).where(matching(spec, root, cq, cb));
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Path<Object> path = root.get(order.getProperty());
+            orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+        cq.orderBy(orders);
+
+        // scalar ids only: nothing is added to the persistence context, however many rows are read
+        return entityManager.createQuery(cq)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    }
+
+    @Override
+    public List<BookFacetsDto.ValueCount> countByGenre(Specification<Book> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Book> root = cq.from(Book.class);
+        Join<Book, Genre> genre = root.join("genres");
+        Expression<Long> count = cb.count(root);
+
+        cq.multiselect(genre.get("id"), genre.get("name"), count)
+            .where(matching(spec, root, cq, cb))
+            .groupBy(genre.get("id"), genre.get("name"))
+            .orderBy(cb.desc(count), cb.asc(genre.get("id")));
+
+        return entityManager.createQuery(cq).setMaxResults(limit).getResultStream()
+            .map(t -> new BookFacetsDto.ValueCount(t.get(0, Long.class), t.get(1, String.class), t.get(2, Long.class)))
+            .toList();
+    }
+
+    @Override
+    public List<BookFacetsDto.ValueCount> countByAuthor(Specification<Book> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Book> root = cq.from(Book.class);
+        Join<Book, Author> author = root.join("authors");
+        Expression<Long> count = cb.count(root);
+
+        cq.multiselect(author.get("id"), author.get("firstName"), author.get("lastName"), count)
+            .where(matching(spec, root, cq, cb))
+            .groupBy(author.get("id"), author.get("firstName"), author.get("lastName"))
+            .orderBy(cb.desc(count), cb.asc(author.get("id")));
+
+        return entityManager.createQuery(cq).setMaxResults(limit).getResultStream()
+            .map(t -> new BookFacetsDto.ValueCount(t.get(0, Long.class),
+                t.get(1, String.class) + " " + t.get(2, String.class), t.get(3, Long.class)))
+            .toList();
+    }
+
+    @Override
+    public List<Long> countByRange(Specification<Book> spec, String attribute, List<BigDecimal> edges) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Book> root = cq.from(Book.class);
+        Path<BigDecimal> value = root.get(attribute);
+
+        // count(CASE WHEN <bucket> THEN id END) per bucket: every bucket in one scan, no GROUP BY on an expression
+        List<Selection<?>> selections = new ArrayList<>();
+        for (int i = 0; i <= edges.size(); i++) {
+            List<Predicate> bucket = new ArrayList<>();
+            bucket.add(cb.isNotNull(value));
+            if (i > 0) {
+                bucket.add(cb.greaterThanOrEqualTo(value, edges.get(i - 1)));
+            }
+            if (i < edges.size()) {
+                bucket.add(cb.lessThan(value, edges.get(i)));
+            }
+            selections.add(cb.count(cb.<Long>selectCase()
+                .when(cb.and(bucket.toArray(Predicate[]::new)), root.<Long>get("id"))));
+        }
+        cq.multiselect(selections).where(matching(spec, root, cq, cb));
+
+        Tuple row = entityManager.createQuery(cq).getSingleResult();
+        List<Long> counts = new ArrayList<>(selections.size());
+        for (int i = 0; i < selections.size(); i++) {
+            counts.add(row.get(i, Long.class));
+        }
+        return counts;
+    }
+
+    /**
+     * Predicate of the specification; its relation filters are semi-joins, so each book is counted once per group.
+     */
+    private static Predicate matching(Specification<Book> spec, Root<Book> root, CriteriaQuery<?> cq,
+                                      CriteriaBuilder cb) {
+        Predicate predicate = spec.toPredicate(root, cq, cb);
+        return predicate != null ? predicate : cb.conjunction();
+    }
+}
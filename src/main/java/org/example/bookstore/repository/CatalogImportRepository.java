@@ -0,0 +1,323 @@
+package org.example.bookstore.repository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.example.bookstore.dto.importjob.ImportJobDto;
+import org.example.bookstore.importer.ImportFormat;
+import org.example.bookstore.importer.ImportJobStatus;
+import org.example.bookstore.importer.ImportRecord;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based merge of imported books, and the state of import jobs.
+ *
+ * <p>A chunk of records is loaded with {@code COPY} into temporary staging tables dropped at commit, then merged
+ * with one statement per table: authors and genres are resolved by name and created when missing, books are
+ * upserted by id, and the author and genre links of the imported books are replaced by the imported ones. Rows that
+ * do not change are not written, so re-importing a file is cheap.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CatalogImportRepository {
+
+    /**
+     * Maximum number of ids bound to one statement.
+     */
+    private static final int ID_BATCH = 10_000;
+
+    private static final String STAGING_SQL = """
+        CREATE TEMP TABLE import_book (
+            id BIGINT PRIMARY KEY, title TEXT NOT NULL, price NUMERIC(10,2), quantity INTEGER, rating NUMERIC(10,2)
+        ) ON COMMIT DROP;
+        CREATE TEMP TABLE import_book_author (
+            book_id BIGINT NOT NULL, first_name TEXT NOT NULL, last_name TEXT NOT NULL
+        ) ON COMMIT DROP;
+        CREATE TEMP TABLE import_book_genre (book_id BIGINT NOT NULL, name TEXT NOT NULL) ON COMMIT DROP
+        """;
+    private static final String COPY_BOOKS_SQL =
+        "COPY import_book (id, title, price, quantity, rating) FROM STDIN (FORMAT csv)";
+    private static final String COPY_BOOK_AUTHORS_SQL =
+        "COPY import_book_author (book_id, first_name, last_name) FROM STDIN (FORMAT csv)";
+    private static final String COPY_BOOK_GENRES_SQL =
+        "COPY import_book_genre (book_id, name) FROM STDIN (FORMAT csv)";
+    private static final String MERGE_AUTHORS_SQL = """
+        INSERT INTO author (first_name, last_name, created_by, updated_by)
+        SELECT DISTINCT s.first_name, s.last_name, :user, :user
+        FROM import_book_author s
+        ON CONFLICT ON CONSTRAINT uk_author_first_last DO NOTHING
+        RETURNING id
+        """;
+    private static final String MERGE_GENRES_SQL = """
+        INSERT INTO genre (name, created_by, updated_by)
+        SELECT DISTINCT s.name, :user, :user
+        FROM import_book_genre s
+        ON CONFLICT ON CONSTRAINT uk_genre_name DO NOTHING
+        RETURNING id
+        """;
+    private static final String MERGE_BOOKS_SQL = """
+        INSERT INTO book AS b (id, title, price, quantity, rating, created_by, updated_by)
+        SELECT s.id, s.title, s.price, s.quantity, s.rating, :user, :user
+        FROM import_book s
+        ON CONFLICT (id) DO UPDATE
+        SET title = EXCLUDED.title, price = EXCLUDED.price, quantity = EXCLUDED.quantity, rating = EXCLUDED.rating,
+            updated_at = now(), updated_by = EXCLUDED.updated_by
+        WHERE (b.title, b.price, b.quantity, b.rating)
+            IS DISTINCT FROM (EXCLUDED.title, EXCLUDED.price, EXCLUDED.quantity, EXCLUDED.rating)
+        RETURNING id
+        """;
+    private static final String DELETE_AUTHOR_LINKS_SQL = """
+        DELETE FROM book_author ba
+        USING import_book s
+        WHERE ba.book_id = s.id
+          AND NOT EXISTS (SELECT 1
+                          FROM import_book_author sa
+                          JOIN author a ON a.first_name = sa.first_name AND a.last_name = sa.last_name
+                          WHERE sa.book_id = ba.book_id AND a.id = ba.author_id)
+        RETURNING ba.book_id
+        """;
+    private static final String INSERT_AUTHOR_LINKS_SQL = """
+        INSERT INTO book_author (book_id, author_id)
+        SELECT DISTINCT sa.book_id, a.id
+        FROM import_book_author sa
+        JOIN author a ON a.first_name = sa.first_name AND a.last_name = sa.last_name
+        ON CONFLICT DO NOTHING
+        RETURNING book_id
+        """;
+    private static final String DELETE_GENRE_LINKS_SQL = """
+        DELETE FROM book_genre bg
+        USING import_book s
+        WHERE bg.book_id = s.id
+          AND NOT EXISTS (SELECT 1
+                          FROM import_book_genre sg
+                          JOIN genre g ON g.name = sg.name
+                          WHERE sg.book_id = bg.book_id AND g.id = bg.genre_id)
+        RETURNING bg.book_id
+        """;
+    private static final String INSERT_GENRE_LINKS_SQL = """
+        INSERT INTO book_genre (book_id, genre_id)
+        SELECT DISTINCT sg.book_id, g.id
+        FROM import_book_genre sg
+        JOIN genre g ON g.name = sg.name
+        ON CONFLICT DO NOTHING
+        RETURNING book_id
+        """;
+    private static final String EXISTING_BOOKS_SQL = "SELECT id FROM book WHERE id IN (:ids)";
+
+    private static final String JOB_COLUMNS = """
+        id, format, status, records_read, books_merged, authors_created, genres_created, rejected, error,
+        created_at, updated_at
+        """;
+    private static final String INSERT_JOB_SQL = """
+        INSERT INTO import_job (format, file_name, status, created_by)
+        VALUES (:format, :fileName, 'PENDING', :user)
+        """;
+    private static final String FIND_JOB_SQL = "SELECT " + JOB_COLUMNS + " FROM import_job WHERE id = :id";
+    private static final String CLAIM_JOB_SQL = """
+        UPDATE import_job
+        SET status = 'RUNNING', error = NULL, updated_at = now()
+        WHERE id = :id
+          AND (status IN ('PENDING', 'FAILED')
+               OR status = 'RUNNING' AND updated_at < now() - make_interval(secs => :staleSeconds))
+        RETURNING file_name, created_by
+        """;
+    private static final String CHECKPOINT_SQL = """
+        UPDATE import_job
+        SET records_read = :recordsRead, books_merged = books_merged + :books,
+            authors_created = authors_created + :authors, genres_created = genres_created + :genres,
+            rejected = rejected + :rejected, updated_at = now()
+        WHERE id = :id
+        """;
+    private static final String FINISH_JOB_SQL = """
+        UPDATE import_job SET status = :status, error = :error, updated_at = now() WHERE id = :id
+        """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * What a merged chunk changed.
+     *
+     * @param bookIds   books created or updated, including books whose authors or genres changed
+     * @param authorIds authors created
+     * @param genreIds  genres created
+     */
+    public record MergeResult(List<Long> bookIds, List<Long> authorIds, List<Long> genreIds) {
+    }
+
+    /**
+     * A job claimed by {@link #claim}.
+     */
+    public record ClaimedJob(String fileName, String user) {
+    }
+
+    /**
+     * Ids among {@code ids} that belong to existing books.
+     */
+    public Set<Long> findExistingBookIds(Collection<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        List<Long> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += ID_BATCH) {
+            List<Long> batch = all.subList(from, Math.min(from + ID_BATCH, all.size()));
+            existing.addAll(jdbc.queryForList(EXISTING_BOOKS_SQL, Map.of("ids", batch), Long.class));
+        }
+        return existing;
+    }
+
+    /**
+     * Stages and merges the records; to be called within a transaction. Every record has an id: the id of the book
+     * to update, or a fresh one.
+     */
+    public MergeResult merge(List<ImportRecord> records, String user) {
+        jdbc.getJdbcTemplate().execute(STAGING_SQL);
+        jdbc.getJdbcTemplate().execute((ConnectionCallback<Void>) connection -> {
+            PGConnection pg = connection.unwrap(PGConnection.class);
+            copy(pg, COPY_BOOKS_SQL, records, (out, r) ->
+                row(out, r.id(), r.title(), r.price(), r.quantity(), r.rating()));
+            copy(pg, COPY_BOOK_AUTHORS_SQL, records, (out, r) ->
+                r.authors().forEach(a -> row(out, r.id(), a.firstName(), a.lastName())));
+            copy(pg, COPY_BOOK_GENRES_SQL, records, (out, r) ->
+                r.genres().forEach(name -> row(out, r.id(), name)));
+            return null;
+        });
+
+        Map<String, String> params = Map.of("user", user);
+        List<Long> authorIds = jdbc.queryForList(MERGE_AUTHORS_SQL, params, Long.class);
+        List<Long> genreIds = jdbc.queryForList(MERGE_GENRES_SQL, params, Long.class);
+        Set<Long> bookIds = new HashSet<>(jdbc.queryForList(MERGE_BOOKS_SQL, params, Long.class));
+        bookIds.addAll(jdbc.getJdbcTemplate().queryForList(DELETE_AUTHOR_LINKS_SQL, Long.class));
+        bookIds.addAll(jdbc.getJdbcTemplate().queryForList(INSERT_AUTHOR_LINKS_SQL, Long.class));
+        bookIds.addAll(jdbc.getJdbcTemplate().queryForList(DELETE_GENRE_LINKS_SQL, Long.class));
+        bookIds.addAll(jdbc.getJdbcTemplate().queryForList(INSERT_GENRE_LINKS_SQL, Long.class));
+        return new MergeResult(List.copyOf(bookIds), authorIds, genreIds);
+    }
+
+    public long createJob(ImportFormat format, String fileName, String user) {
+        KeyHolder key = new GeneratedKeyHolder();
+        jdbc.update(INSERT_JOB_SQL, new MapSqlParameterSource()
+            .addValue("format", format.name())
+            .addValue("fileName", fileName)
+            .addValue("user", user), key, new String[] {"id"});
+        return key.getKey().longValue();
+    }
+
+    public Optional<ImportJobDto> findJob(long id) {
+        return jdbc.query(FIND_JOB_SQL, Map.of("id", id), (rs, rowNum) -> mapJob(rs)).stream().findFirst();
+    }
+
+    /**
+     * Marks the job running, if it is pending, failed, or running without a checkpoint for {@code staleAfter}.
+     *
+     * @return the claimed job, empty if it can not be run now
+     */
+    public Optional<ClaimedJob> claim(long id, Duration staleAfter) {
+        return jdbc.query(CLAIM_JOB_SQL, Map.of("id", id, "staleSeconds", staleAfter.toSeconds()),
+            (rs, rowNum) -> new ClaimedJob(rs.getString("file_name"), rs.getString("created_by"))).stream().findFirst();
+    }
+
+    /**
+     * Records the progress of a merged chunk; in the transaction of the chunk, so checkpoint and data agree.
+     */
+    public void checkpoint(long id, long recordsRead, MergeResult merged, long rejected) {
+        jdbc.update(CHECKPOINT_SQL, new MapSqlParameterSource()
+            .addValue("id", id)
+            .addValue("recordsRead", recordsRead)
+            .addValue("books", merged.bookIds().size())
+            .addValue("authors", merged.authorIds().size())
+            .addValue("genres", merged.genreIds().size())
+            .addValue("rejected", rejected));
+    }
+
+    public void finish(long id, ImportJobStatus status, String error) {
+        jdbc.update(FINISH_JOB_SQL, new MapSqlParameterSource()
+            .addValue("id", id)
+            .addValue("status", status.name())
+            .addValue("error", error));
+    }
+
+    private interface RowWriter {
+        void write(Writer out, ImportRecord record);
+    }
+
+    private static void copy(PGConnection pg, String sql, List<ImportRecord> records, RowWriter rows)
+        throws SQLException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new PGCopyOutputStream(pg, sql),
+            StandardCharsets.UTF_8), 1 << 16)) {
+            for (ImportRecord record : records) {
+                rows.write(out, record);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new SQLException("COPY failed: " + sql, e);
+        }
+    }
+
+    /**
+     * Writes one row in COPY's CSV format: {@code null} as an empty unquoted field, text always quoted.
+     */
+    private static void row(Writer out, Object... values) {
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                Object value = values[i];
+                if (value instanceof String text) {
+                    out.write('"');
+                    out.write(text.replace("\"", "\"\""));
+                    out.write('"');
+                } else if (value instanceof BigDecimal decimal) {
+                    out.write(decimal.toPlainString());
+                } else if (value != null) {
+                    out.write(value.toString());
+                }
+            }
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ImportJobDto mapJob(ResultSet rs) throws SQLException {
+        return new ImportJobDto(
+            rs.getLong("id"),
+            ImportFormat.valueOf(rs.getString("format")),
+            ImportJobStatus.valueOf(rs.getString("status")),
+            rs.getLong("records_read"),
+            rs.getLong("books_merged"),
+            rs.getLong("authors_created"),
+            rs.getLong("genres_created"),
+            rs.getLong("rejected"),
+            rs.getString("error"),
+            toZoned(rs, "created_at"),
+            toZoned(rs, "updated_at"));
+    }
+
+    private static ZonedDateTime toZoned(ResultSet rs, String column) throws SQLException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        return value == null ? null : value.atZoneSameInstant(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,177 @@
+package org.example.bookstore.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import lombok.RequiredArgsConstructor;
+import org.example.bookstore.dto.author.AuthorDto;
+import org.example.bookstore.dto.genre.GenreDto;
+import org.example.bookstore.search.BookDocument;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Source of the in-memory search index: reads books with their author and genre ids, authors and genres as plain
+ * rows, without hydrating managed entities.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SearchDocumentRepository {
+
+    private static final String BOOKS_SQL = """
+        SELECT b.id, b.title, b.price, b.quantity, b.rating, b.created_at, b.updated_at
+        FROM book b
+        %s
+        """;
+    private static final String BOOK_AUTHORS_SQL = """
+        SELECT ba.book_id, ba.author_id AS related_id
+        FROM book_author ba
+        %s
+        ORDER BY ba.book_id, ba.author_id
+        """;
+    private static final String BOOK_GENRES_SQL = """
+        SELECT bg.book_id, bg.genre_id AS related_id
+        FROM book_genre bg
+        %s
+        ORDER BY bg.book_id, bg.genre_id
+        """;
+    private static final String AUTHORS_SQL = "SELECT a.id, a.first_name, a.last_name FROM author a %s";
+    private static final String GENRES_SQL = "SELECT g.id, g.name FROM genre g %s";
+    private static final String BOOK_IDS_SQL = "SELECT b.id FROM book b";
+    private static final String UPDATED_SINCE = "IN (SELECT u.id FROM book u WHERE u.updated_at >= :since)";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public List<BookDocument> findAllBooks() {
+        return findBooks("", "", "", Map.of());
+    }
+
+    public List<BookDocument> findBooksByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return findBooks("WHERE b.id IN (:ids)", "WHERE ba.book_id IN (:ids)", "WHERE bg.book_id IN (:ids)",
+            Map.of("ids", ids));
+    }
+
+    /**
+     * Books whose row was written at or after {@code since}, with their current author and genre ids.
+     */
+    public List<BookDocument> findBooksUpdatedSince(OffsetDateTime since) {
+        return findBooks("WHERE b.updated_at >= :since", "WHERE ba.book_id " + UPDATED_SINCE,
+            "WHERE bg.book_id " + UPDATED_SINCE, Map.of("since", since));
+    }
+
+    public long[] findAllBookIds() {
+        LongStream.Builder ids = LongStream.builder();
+        jdbc.query(BOOK_IDS_SQL, rs -> {
+            ids.add(rs.getLong("id"));
+        });
+        return ids.build().toArray();
+    }
+
+    /**
+     * Clock of the database, the one {@code updated_at} is compared with.
+     */
+    public OffsetDateTime currentTime() {
+        return jdbc.queryForObject("SELECT now()", Map.of(), OffsetDateTime.class);
+    }
+
+    public List<AuthorDto> findAllAuthors() {
+        return jdbc.query(AUTHORS_SQL.formatted(""), (rs, rowNum) -> mapAuthor(rs));
+    }
+
+    public Optional<AuthorDto> findAuthor(long id) {
+        return jdbc.query(AUTHORS_SQL.formatted("WHERE a.id = :id"), Map.of("id", id), (rs, rowNum) -> mapAuthor(rs))
+            .stream().findFirst();
+    }
+
+    public List<AuthorDto> findAuthorsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbc.query(AUTHORS_SQL.formatted("WHERE a.id IN (:ids)"), Map.of("ids", ids),
+            (rs, rowNum) -> mapAuthor(rs));
+    }
+
+    public List<GenreDto> findAllGenres() {
+        return jdbc.query(GENRES_SQL.formatted(""), (rs, rowNum) -> mapGenre(rs));
+    }
+
+    public Optional<GenreDto> findGenre(long id) {
+        return jdbc.query(GENRES_SQL.formatted("WHERE g.id = :id"), Map.of("id", id), (rs, rowNum) -> mapGenre(rs))
+            .stream().findFirst();
+    }
+
+    public List<GenreDto> findGenresByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbc.query(GENRES_SQL.formatted("WHERE g.id IN (:ids)"), Map.of("ids", ids),
+            (rs, rowNum) -> mapGenre(rs));
+    }
+
+    private List<BookDocument> findBooks(String bookWhere, String authorWhere, String genreWhere,
+                                         Map<String, ?> params) {
+        Map<Long, long[]> authorIds = findRelated(BOOK_AUTHORS_SQL.formatted(authorWhere), params);
+        Map<Long, long[]> genreIds = findRelated(BOOK_GENRES_SQL.formatted(genreWhere), params);
+        List<BookDocument> books = new ArrayList<>();
+        jdbc.query(BOOKS_SQL.formatted(bookWhere), params, rs -> {
+            long id = rs.getLong("id");
+            books.add(new BookDocument(
+                id,
+                rs.getString("title"),
+                rs.getBigDecimal("price"),
+                rs.getObject("quantity", Integer.class),
+                rs.getBigDecimal("rating"),
+                toZoned(rs, "created_at"),
+                toZoned(rs, "updated_at"),
+                authorIds.getOrDefault(id, new long[0]),
+                genreIds.getOrDefault(id, new long[0])
+            ));
+        });
+        return books;
+    }
+
+    /**
+     * Reads (book_id, related_id) rows ordered by both columns into ascending id arrays per book.
+     */
+    private Map<Long, long[]> findRelated(String sql, Map<String, ?> params) {
+        Map<Long, LongStream.Builder> related = new HashMap<>();
+        jdbc.query(sql, params, rs -> {
+            related.computeIfAbsent(rs.getLong("book_id"), id -> LongStream.builder()).add(rs.getLong("related_id"));
+        });
+        Map<Long, long[]> result = new HashMap<>(related.size() * 2);
+        related.forEach((bookId, ids) -> result.put(bookId, ids.build().toArray()));
+        return result;
+    }
+
+    private static ZonedDateTime toZoned(ResultSet rs, String column) throws SQLException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        return value == null ? null : value.atZoneSameInstant(ZoneOffset.UTC);
+    }
+
+    private static AuthorDto mapAuthor(ResultSet rs) throws SQLException {
+        AuthorDto author = new AuthorDto();
+        author.setId(rs.getLong("id"));
+        author.setFirstName(rs.getString("first_name"));
+        author.setLastName(rs.getString("last_name"));
+        return author;
+    }
+
+    private static GenreDto mapGenre(ResultSet rs) throws SQLException {
+        GenreDto genre = new GenreDto();
+        genre.setId(rs.getLong("id"));
+        genre.setName(rs.getString("name"));
+        return genre;
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.bookstore.search;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+/**
+ * Indexed copy of a book: its sortable and filterable attributes plus the ids of its authors and genres.
+ *
+ * @param authorIds ascending author ids
+ * @param genreIds  ascending genre ids
+ */
+public record BookDocument(
+    long id,
+    String title,
+    BigDecimal price,
+    Integer quantity,
+    BigDecimal rating,
+    ZonedDateTime createdAt,
+    ZonedDateTime updatedAt,
+    long[] authorIds,
+    long[] genreIds
+) {
+}
@@ -0,0 +1,15 @@
+package org.example.bookstore.search;
+
+/**
+ * Facets of a book search; each one is computed without the filters it stands for.
+ */
+public enum BookFacet {
+    // genreIds, genreNames
+    GENRE,
+    // authorIds, authorNames
+    AUTHOR,
+    // minPrice, maxPrice
+    PRICE,
+    // minRating, maxRating
+    RATING
+}
@@ -0,0 +1,526 @@
+package org.example.bookstore.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.example.bookstore.dto.SearchRequestDto;
+import org.example.bookstore.dto.author.AuthorDto;
+import org.example.bookstore.dto.book.BookFacetsDto;
+import org.example.bookstore.dto.book.BookResponseDto;
+import org.example.bookstore.dto.book.BookSearchRequestDto;
+import org.example.bookstore.dto.genre.GenreDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory inverted index of the catalog that answers {@link BookSearchRequestDto} queries without a database
+ * round trip.
+ *
+ * <p>Titles are indexed by character trigrams: the term dictionary maps every trigram of a lower-cased title to a
+ * compressed bitmap of book ids. A substring query is answered by intersecting the bitmaps of its own
+ * trigrams and verifying the candidates, which keeps the semantics of {@code BookSpecs.titleContains}. Author, genre
+ * and range filters are evaluated on {@link FacetBitmaps} before any document is looked at.
+ *
+ * <p>The index is empty and not {@link #isReady() ready} until {@link #load} is called. It is local to the instance
+ * and eventually consistent: writes reach it after their transaction commits.
+ */
+@Slf4j
+@Component
+public class BookSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final Roaring64Bitmap EMPTY = new Roaring64Bitmap();
+
+    private static final Map<String, Function<BookDocument, Comparable<?>>> SORT_KEYS = Map.of(
+        "id", BookDocument::id,
+        "price", BookDocument::price,
+        "quantity", BookDocument::quantity,
+        "rating", BookDocument::rating,
+        "createdAt", BookDocument::createdAt,
+        "updatedAt", BookDocument::updatedAt
+    );
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, BookDocument> books = new HashMap<>();
+    private Map<String, Roaring64Bitmap> titleTerms = new HashMap<>();
+    private FacetBitmaps facets = new FacetBitmaps();
+    private Map<Long, AuthorDto> authors = new HashMap<>();
+    private Map<Long, GenreDto> genres = new HashMap<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Tells whether the index can answer the request; keyset paging, fuzzy matching and unknown sort properties are
+     * left to the database. So are title sorts: the database orders titles by its collation, which the index does not
+     * reproduce.
+     */
+    public boolean supports(BookSearchRequestDto requestDto, Sort sort) {
+        return !requestDto.isFuzzy()
+            && requestDto.getPaging() != SearchRequestDto.PagingMode.KEYSET
+            && requestDto.getCursor() == null
+            && sort.stream().allMatch(order -> SORT_KEYS.containsKey(order.getProperty()));
+    }
+
+    /**
+     * Replaces the whole content of the index.
+     */
+    public void load(Collection<BookDocument> documents, Collection<AuthorDto> authorList,
+                     Collection<GenreDto> genreList) {
+        install(build(documents, authorList, genreList));
+    }
+
+    /**
+     * Builds the content of the index without making it visible, see {@link #install}.
+     */
+    Content build(Collection<BookDocument> documents, Collection<AuthorDto> authorList,
+                  Collection<GenreDto> genreList) {
+        List<BookDocument> sorted = documents.stream().sorted(Comparator.comparingLong(BookDocument::id)).toList();
+        Map<String, Roaring64Bitmap> terms = new HashMap<>();
+        FacetBitmaps newFacets = new FacetBitmaps();
+        Map<Long, BookDocument> docs = new HashMap<>(sorted.size() * 2);
+        for (BookDocument doc : sorted) {
+            docs.put(doc.id(), doc);
+            for (String term : trigrams(normalize(doc.title()))) {
+                terms.computeIfAbsent(term, t -> new Roaring64Bitmap()).addLong(doc.id());
+            }
+            newFacets.add(doc);
+        }
+        newFacets.optimize();
+        terms.values().forEach(Roaring64Bitmap::runOptimize);
+        Map<Long, AuthorDto> newAuthors = new HashMap<>();
+        authorList.forEach(author -> newAuthors.put(author.getId(), author));
+        Map<Long, GenreDto> newGenres = new HashMap<>();
+        genreList.forEach(genre -> newGenres.put(genre.getId(), genre));
+        return new Content(docs, terms, newFacets, newAuthors, newGenres);
+    }
+
+    /**
+     * Replaces the whole content of the index with a {@linkplain #build built} one.
+     */
+    void install(Content content) {
+        lock.writeLock().lock();
+        try {
+            books = content.books();
+            titleTerms = content.titleTerms();
+            facets = content.facets();
+            authors = content.authors();
+            genres = content.genres();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index loaded: {} books, {} title terms, {} bytes of title postings",
+            content.books().size(), content.titleTerms().size(),
+            content.titleTerms().values().stream().mapToLong(Roaring64Bitmap::getLongSizeInBytes).sum());
+    }
+
+    public void putBook(BookDocument doc) {
+        lock.writeLock().lock();
+        try {
+            putInternal(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeBook(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putAuthor(AuthorDto author) {
+        lock.writeLock().lock();
+        try {
+            authors.put(author.getId(), author);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAuthor(long id) {
+        lock.writeLock().lock();
+        try {
+            authors.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putGenre(GenreDto genre) {
+        lock.writeLock().lock();
+        try {
+            genres.put(genre.getId(), genre);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeGenre(long id) {
+        lock.writeLock().lock();
+        try {
+            genres.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Catches up with changes that reached the database without an event: puts the changed books, removes the books
+     * that no longer exist and replaces all authors and genres.
+     *
+     * @param changed  books as they are now
+     * @param existing ids of all books in the database
+     */
+    public void refresh(Collection<BookDocument> changed, Roaring64Bitmap existing, Collection<AuthorDto> authorList,
+                        Collection<GenreDto> genreList) {
+        Map<Long, AuthorDto> newAuthors = new HashMap<>();
+        authorList.forEach(author -> newAuthors.put(author.getId(), author));
+        Map<Long, GenreDto> newGenres = new HashMap<>();
+        genreList.forEach(genre -> newGenres.put(genre.getId(), genre));
+        lock.writeLock().lock();
+        try {
+            List<Long> removed = books.keySet().stream().filter(id -> !existing.contains(id)).toList();
+            removed.forEach(this::removeInternal);
+            changed.forEach(this::putInternal);
+            authors = newAuthors;
+            genres = newGenres;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs the search with the same filter semantics as {@code BookSpecs}.
+     *
+     * <p>Nulls sort as the largest value, like in PostgreSQL. Ties are broken by id.
+     */
+    public Page<BookResponseDto> search(BookSearchRequestDto requestDto, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            List<BookDocument> matches = matches(requestDto, null);
+            int from = (int) Math.min(pageable.getOffset(), matches.size());
+            int to = Math.min(from + pageable.getPageSize(), matches.size());
+            List<BookDocument> top = first(matches, to, comparator(pageable.getSort()));
+
+            List<BookResponseDto> content = top.subList(from, to).stream().map(this::toResponse).toList();
+            return new PageImpl<>(content, pageable, matches.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The first {@code n} documents in sort order, without sorting all of them: a bounded heap keeps the best
+     * {@code n} seen so far.
+     */
+    private static List<BookDocument> first(List<BookDocument> docs, int n, Comparator<BookDocument> comparator) {
+        if (n >= docs.size()) {
+            docs.sort(comparator);
+            return docs;
+        }
+        if (n == 0) {
+            return List.of();
+        }
+        // the head is the worst of the kept documents
+        PriorityQueue<BookDocument> heap = new PriorityQueue<>(n, comparator.reversed());
+        for (BookDocument doc : docs) {
+            if (heap.size() < n) {
+                heap.add(doc);
+            } else if (comparator.compare(doc, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(doc);
+            }
+        }
+        List<BookDocument> first = new ArrayList<>(heap);
+        first.sort(comparator);
+        return first;
+    }
+
+    /**
+     * Counts the facets of the search in one pass over the matches of each facet.
+     *
+     * @param limit maximum number of genres and authors
+     */
+    public BookFacetsDto facets(BookSearchRequestDto requestDto, int limit) {
+        lock.readLock().lock();
+        try {
+            return new BookFacetsDto(
+                valueCounts(matches(requestDto, BookFacet.GENRE), BookDocument::genreIds,
+                    id -> genres.containsKey(id) ? genres.get(id).getName() : null, limit),
+                valueCounts(matches(requestDto, BookFacet.AUTHOR), BookDocument::authorIds,
+                    id -> authors.containsKey(id) ? fullName(authors.get(id)) : null, limit),
+                rangeCounts(matches(requestDto, BookFacet.PRICE), BookDocument::price, facets.price()),
+                rangeCounts(matches(requestDto, BookFacet.RATING), BookDocument::rating, facets.rating())
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documents passing every filter of the request except the ones of the excluded facet.
+     */
+    private List<BookDocument> matches(BookSearchRequestDto requestDto, BookFacet excluded) {
+        Roaring64Bitmap candidates = candidates(requestDto, excluded);
+        Predicate<BookDocument> filter = filter(requestDto, excluded);
+        List<BookDocument> matches = new ArrayList<>();
+        for (LongIterator it = candidates.getLongIterator(); it.hasNext(); ) {
+            BookDocument doc = books.get(it.next());
+            if (doc != null && filter.test(doc)) {
+                matches.add(doc);
+            }
+        }
+        return matches;
+    }
+
+    private static List<BookFacetsDto.ValueCount> valueCounts(List<BookDocument> matches,
+                                                              Function<BookDocument, long[]> values,
+                                                              LongFunction<String> names, int limit) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (BookDocument doc : matches) {
+            for (long value : values.apply(doc)) {
+                counts.merge(value, 1L, Long::sum);
+            }
+        }
+        return counts.entrySet().stream()
+            .sorted(Map.Entry.<Long, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(limit)
+            .map(e -> new BookFacetsDto.ValueCount(e.getKey(), names.apply(e.getKey()), e.getValue()))
+            .toList();
+    }
+
+    private static List<BookFacetsDto.RangeCount> rangeCounts(List<BookDocument> matches,
+                                                              Function<BookDocument, BigDecimal> value,
+                                                              RangeBuckets<BigDecimal> buckets) {
+        long[] counts = new long[buckets.bucketCount()];
+        for (BookDocument doc : matches) {
+            BigDecimal v = value.apply(doc);
+            if (v != null) {
+                counts[buckets.bucketOf(v)]++;
+            }
+        }
+        List<BigDecimal> edges = buckets.edges();
+        List<BookFacetsDto.RangeCount> result = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            result.add(new BookFacetsDto.RangeCount(i == 0 ? null : edges.get(i - 1),
+                i == edges.size() ? null : edges.get(i), counts[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Narrows the search down with bitmap intersections of the title trigram postings, the author and genre bitmaps
+     * and the range buckets; the result still has to pass {@link #filter}.
+     */
+    private Roaring64Bitmap candidates(BookSearchRequestDto requestDto, BookFacet excluded) {
+        List<Roaring64Bitmap> bitmaps = new ArrayList<>();
+        String title = requestDto.getTitle();
+        if (!isBlank(title) && normalize(title).length() >= GRAM) {
+            for (String term : trigrams(normalize(title))) {
+                bitmaps.add(titleTerms.getOrDefault(term, EMPTY));
+            }
+        }
+        if (excluded != BookFacet.AUTHOR) {
+            if (requestDto.getAuthorIds() != null && !requestDto.getAuthorIds().isEmpty()) {
+                bitmaps.add(facets.anyAuthor(requestDto.getAuthorIds()));
+            }
+            if (requestDto.getAuthorNames() != null && !requestDto.getAuthorNames().isEmpty()) {
+                bitmaps.add(facets.anyAuthor(matchingAuthors(requestDto.getAuthorNames())));
+            }
+        }
+        if (excluded != BookFacet.GENRE) {
+            if (requestDto.getGenreIds() != null && !requestDto.getGenreIds().isEmpty()) {
+                bitmaps.add(facets.anyGenre(requestDto.getGenreIds()));
+            }
+            if (requestDto.getGenreNames() != null && !requestDto.getGenreNames().isEmpty()) {
+                bitmaps.add(facets.anyGenre(matchingGenres(requestDto.getGenreNames())));
+            }
+        }
+        if (excluded != BookFacet.PRICE && (requestDto.getMinPrice() != null || requestDto.getMaxPrice() != null)) {
+            bitmaps.add(facets.price().range(requestDto.getMinPrice(), requestDto.getMaxPrice()));
+        }
+        if (requestDto.getMinQuantity() != null || requestDto.getMaxQuantity() != null) {
+            bitmaps.add(facets.quantity().range(requestDto.getMinQuantity(), requestDto.getMaxQuantity()));
+        }
+        if (excluded != BookFacet.RATING
+            && (requestDto.getMinRating() != null || requestDto.getMaxRating() != null)) {
+            bitmaps.add(facets.rating().range(requestDto.getMinRating(), requestDto.getMaxRating()));
+        }
+        if (bitmaps.isEmpty()) {
+            return facets.all();
+        }
+        // smallest first keeps the intermediate results small
+        bitmaps.sort(Comparator.comparingLong(Roaring64Bitmap::getLongCardinality));
+        Roaring64Bitmap result = bitmaps.get(0).clone();
+        for (int i = 1; i < bitmaps.size() && !result.isEmpty(); i++) {
+            result.and(bitmaps.get(i));
+        }
+        return result;
+    }
+
+    private Predicate<BookDocument> filter(BookSearchRequestDto requestDto, BookFacet excluded) {
+        Predicate<BookDocument> filter = doc -> true;
+        if (!isBlank(requestDto.getTitle())) {
+            String q = normalize(requestDto.getTitle());
+            filter = filter.and(doc -> normalize(doc.title()).contains(q));
+        }
+        if (excluded != BookFacet.PRICE) {
+            filter = filter.and(between(BookDocument::price, requestDto.getMinPrice(), requestDto.getMaxPrice()));
+        }
+        filter = filter.and(between(BookDocument::quantity, requestDto.getMinQuantity(),
+            requestDto.getMaxQuantity()));
+        if (excluded != BookFacet.RATING) {
+            filter = filter.and(between(BookDocument::rating, requestDto.getMinRating(), requestDto.getMaxRating()));
+        }
+        return filter;
+    }
+
+    private static <T extends Comparable<T>> Predicate<BookDocument> between(Function<BookDocument, T> key,
+                                                                           T min, T max) {
+        if (min == null && max == null) {
+            return doc -> true;
+        }
+        return doc -> {
+            T value = key.apply(doc);
+            return value != null
+                && (min == null || value.compareTo(min) >= 0)
+                && (max == null || value.compareTo(max) <= 0);
+        };
+    }
+
+    private Set<Long> matchingAuthors(Collection<String> names) {
+        Set<Long> ids = new HashSet<>();
+        for (String name : names) {
+            if (isBlank(name)) {
+                continue;
+            }
+            String q = normalize(name);
+            for (AuthorDto author : authors.values()) {
+                if (normalize(author.getFirstName()).contains(q) || normalize(author.getLastName()).contains(q)
+                    || normalize(fullName(author)).contains(q)) {
+                    ids.add(author.getId());
+                }
+            }
+        }
+        return ids;
+    }
+
+    private Set<Long> matchingGenres(Collection<String> names) {
+        Set<Long> ids = new HashSet<>();
+        for (String name : names) {
+            if (isBlank(name)) {
+                continue;
+            }
+            String q = normalize(name);
+            for (GenreDto genre : genres.values()) {
+                if (normalize(genre.getName()).contains(q)) {
+                    ids.add(genre.getId());
+                }
+            }
+        }
+        return ids;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<BookDocument> comparator(Sort sort) {
+        Comparator<BookDocument> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Function<BookDocument, Comparable> key = (Function) SORT_KEYS.get(order.getProperty());
+            Comparator<BookDocument> byKey = Comparator.comparing(key, Comparator.nullsLast(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? byKey : byKey.reversed());
+        }
+        return comparator.thenComparingLong(BookDocument::id);
+    }
+
+    private BookResponseDto toResponse(BookDocument doc) {
+        return new BookResponseDto(
+            doc.id(),
+            doc.title(),
+            Arrays.stream(doc.authorIds()).mapToObj(authors::get).filter(Objects::nonNull).toList(),
+            Arrays.stream(doc.genreIds()).mapToObj(genres::get).filter(Objects::nonNull).toList(),
+            doc.price(),
+            doc.quantity(),
+            doc.rating()
+        );
+    }
+
+    private void putInternal(BookDocument doc) {
+        removeInternal(doc.id());
+        books.put(doc.id(), doc);
+        for (String term : trigrams(normalize(doc.title()))) {
+            titleTerms.computeIfAbsent(term, t -> new Roaring64Bitmap()).addLong(doc.id());
+        }
+        facets.add(doc);
+    }
+
+    private void removeInternal(long id) {
+        BookDocument old = books.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String term : trigrams(normalize(old.title()))) {
+            Roaring64Bitmap posting = titleTerms.get(term);
+            if (posting != null) {
+                posting.removeLong(id);
+                if (posting.isEmpty()) {
+                    titleTerms.remove(term);
+                }
+            }
+        }
+        facets.remove(old);
+    }
+
+    /**
+     * Content of the index as {@linkplain #build built} for {@link #install}.
+     */
+    record Content(Map<Long, BookDocument> books, Map<String, Roaring64Bitmap> titleTerms, FacetBitmaps facets,
+                   Map<Long, AuthorDto> authors, Map<Long, GenreDto> genres) {
+    }
+
+    private static String fullName(AuthorDto author) {
+        return author.getFirstName() + " " + author.getLastName();
+    }
+
+    static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+}
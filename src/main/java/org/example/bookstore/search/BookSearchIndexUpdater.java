@@ -0,0 +1,195 @@
+package org.example.bookstore.search;
+
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookstore.config.properties.SearchRefreshProperties;
+import org.example.bookstore.dto.author.AuthorDto;
+import org.example.bookstore.dto.genre.GenreDto;
+import org.example.bookstore.event.AuthorChangedEvent;
+import org.example.bookstore.event.BookChangedEvent;
+import org.example.bookstore.event.BooksChangedEvent;
+import org.example.bookstore.event.GenreChangedEvent;
+import org.example.bookstore.event.ReferencesChangedEvent;
+import org.example.bookstore.repository.SearchDocumentRepository;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Loads the {@link BookSearchIndex} once the application is ready and keeps it current from the change events
+ * published by the services. Changes are applied after their transaction commits, by re-reading the changed rows.
+ * Books only refer to authors and genres by id, so renaming one does not touch the indexed books.
+ *
+ * <p>Like {@code ReferenceData}, a load that overlapped a change is read again: the change may be missing from what
+ * was read, and applying it to the old content would be lost with the swap.
+ *
+ * <p>Events only reach the instance that made the change. Every {@code app.search.refresh.interval} the index
+ * therefore re-reads the books whose {@code updated_at} is past the previous refresh, less
+ * {@code app.search.refresh.overlap}, drops the books that no longer exist and re-reads all authors and genres.
+ * Changes of other instances show up within that interval.
+ *
+ * <p>Enabled with {@code app.search.index.enabled=true}; without it the index stays empty and search goes to the
+ * database.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.search.index", name = "enabled", havingValue = "true")
+public class BookSearchIndexUpdater implements DisposableBean {
+
+    private final BookSearchIndex index;
+    private final SearchDocumentRepository repository;
+    private final SearchRefreshProperties properties;
+    private final AtomicLong changes = new AtomicLong();
+    private final ScheduledExecutorService scheduler;
+    private volatile OffsetDateTime readAt;
+
+    public BookSearchIndexUpdater(BookSearchIndex index, SearchDocumentRepository repository,
+                                  SearchRefreshProperties properties) {
+        this.index = index;
+        this.repository = repository;
+        this.properties = properties;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("search-refresh-"));
+        long interval = properties.interval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        long start = System.nanoTime();
+        while (true) {
+            long seen = changes.get();
+            OffsetDateTime now = repository.currentTime();
+            BookSearchIndex.Content content = index.build(repository.findAllBooks(), repository.findAllAuthors(),
+                repository.findAllGenres());
+            synchronized (changes) {
+                if (changes.get() == seen) {
+                    index.install(content);
+                    readAt = now;
+                    break;
+                }
+            }
+            log.debug("Catalog changed while building the search index, building again");
+        }
+        log.info("Search index built in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Applies the changes committed since the previous load or refresh, wherever they were made. Like
+     * {@link #reload()}, a read that overlapped a change is read again.
+     */
+    public void refresh() {
+        if (readAt == null) {
+            return;
+        }
+        try {
+            while (true) {
+                long seen = changes.get();
+                OffsetDateTime now = repository.currentTime();
+                List<BookDocument> books = repository.findBooksUpdatedSince(readAt.minus(properties.overlap()));
+                Roaring64Bitmap existing = Roaring64Bitmap.bitmapOf(repository.findAllBookIds());
+                List<AuthorDto> authors = repository.findAllAuthors();
+                List<GenreDto> genres = repository.findAllGenres();
+                synchronized (changes) {
+                    if (changes.get() == seen) {
+                        changes.incrementAndGet();
+                        index.refresh(books, existing, authors, genres);
+                        readAt = now;
+                        break;
+                    }
+                }
+                log.debug("Catalog changed while refreshing the search index, reading again");
+            }
+        } catch (RuntimeException e) {
+            log.warn("Search index refresh failed, retrying in {}: {}", properties.interval(), e.getMessage());
+        }
+    }
+
+    // before the search cache is cleared, see BookSearchCacheEvictor
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        apply(() -> {
+            List<BookDocument> documents = repository.findBooksByIds(List.of(event.bookId()));
+            if (documents.isEmpty()) {
+                index.removeBook(event.bookId());
+            } else {
+                index.putBook(documents.get(0));
+            }
+        });
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksChanged(BooksChangedEvent event) {
+        apply(() -> {
+            Set<Long> removed = new HashSet<>(event.bookIds());
+            for (BookDocument document : repository.findBooksByIds(event.bookIds())) {
+                index.putBook(document);
+                removed.remove(document.id());
+            }
+            removed.forEach(index::removeBook);
+        });
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        apply(() -> repository.findAuthor(event.authorId())
+            .ifPresentOrElse(index::putAuthor, () -> index.removeAuthor(event.authorId())));
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGenreChanged(GenreChangedEvent event) {
+        apply(() -> repository.findGenre(event.genreId())
+            .ifPresentOrElse(index::putGenre, () -> index.removeGenre(event.genreId())));
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferencesChanged(ReferencesChangedEvent event) {
+        apply(() -> {
+            Set<Long> removedAuthors = new HashSet<>(event.authorIds());
+            for (AuthorDto author : repository.findAuthorsByIds(event.authorIds())) {
+                index.putAuthor(author);
+                removedAuthors.remove(author.getId());
+            }
+            removedAuthors.forEach(index::removeAuthor);
+            Set<Long> removedGenres = new HashSet<>(event.genreIds());
+            for (GenreDto genre : repository.findGenresByIds(event.genreIds())) {
+                index.putGenre(genre);
+                removedGenres.remove(genre.getId());
+            }
+            removedGenres.forEach(index::removeGenre);
+        });
+    }
+
+    /**
+     * Reads and applies a change; serialized, so that of two changes of one row the later read is applied last.
+     */
+    private void apply(Runnable change) {
+        synchronized (changes) {
+            changes.incrementAndGet();
+            change.run();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
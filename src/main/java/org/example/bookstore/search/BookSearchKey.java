@@ -0,0 +1,90 @@
+package org.example.bookstore.search;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import org.example.bookstore.dto.SearchRequestDto;
+import org.example.bookstore.dto.book.BookSearchRequestDto;
+
+/**
+ * Canonical form of a {@link BookSearchRequestDto}, used as the search cache key. Requests that only differ in
+ * the order of list filters, in the case of case-insensitive terms or in the scale of decimals map to the same key.
+ *
+ * @param sort property and direction of every order, in order
+ */
+public record BookSearchKey(
+    String title,
+    List<Long> authorIds,
+    List<String> authorNames,
+    List<Long> genreIds,
+    List<String> genreNames,
+    BigDecimal minPrice,
+    BigDecimal maxPrice,
+    Integer minQuantity,
+    Integer maxQuantity,
+    BigDecimal minRating,
+    BigDecimal maxRating,
+    boolean facets,
+    boolean fuzzy,
+    int page,
+    int size,
+    List<String> sort,
+    SearchRequestDto.PagingMode paging,
+    String cursor,
+    SearchRequestDto.CountMode countMode
+) {
+
+    public static BookSearchKey of(BookSearchRequestDto requestDto) {
+        return new BookSearchKey(
+            isBlank(requestDto.getTitle()) ? null : requestDto.getTitle().toLowerCase(Locale.ROOT),
+            ids(requestDto.getAuthorIds()),
+            names(requestDto.getAuthorNames()),
+            ids(requestDto.getGenreIds()),
+            names(requestDto.getGenreNames()),
+            decimal(requestDto.getMinPrice()),
+            decimal(requestDto.getMaxPrice()),
+            requestDto.getMinQuantity(),
+            requestDto.getMaxQuantity(),
+            decimal(requestDto.getMinRating()),
+            decimal(requestDto.getMaxRating()),
+            requestDto.isFacets(),
+            requestDto.isFuzzy(),
+            requestDto.getPage(),
+            requestDto.getSize(),
+            sort(requestDto.getSort()),
+            requestDto.getPaging(),
+            requestDto.getCursor(),
+            requestDto.getCountMode()
+        );
+    }
+
+    private static List<Long> ids(Collection<Long> ids) {
+        return ids == null ? List.of() : ids.stream().filter(Objects::nonNull).distinct().sorted().toList();
+    }
+
+    // blank names are ignored by the filters
+    private static List<String> names(Collection<String> names) {
+        return names == null ? List.of() : names.stream()
+            .filter(n -> !isBlank(n))
+            .map(n -> n.toLowerCase(Locale.ROOT))
+            .distinct()
+            .sorted()
+            .toList();
+    }
+
+    private static BigDecimal decimal(BigDecimal value) {
+        return value == null ? null : value.stripTrailingZeros();
+    }
+
+    private static List<String> sort(SearchRequestDto.SortDto sort) {
+        return sort == null || sort.getOrders() == null ? List.of() : sort.getOrders().stream()
+            .map(order -> order.getProperty() + ":" + order.getDirection())
+            .toList();
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+}
@@ -0,0 +1,235 @@
+package org.example.bookstore.search;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.example.bookstore.dto.author.AuthorDto;
+import org.example.bookstore.dto.book.BookSuggestionsDto;
+import org.example.bookstore.dto.genre.GenreDto;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Autocomplete over book titles, author full names and genre names, one {@link PrefixIndex} each. Titles rank by
+ * rating, authors and genres by their number of books.
+ *
+ * <p>Only the completions themselves are held, plus the author and genre ids of every book to keep the book counts
+ * current. Writes are serialized and only touch the changed entries, once per batch; reads do not lock. Empty until
+ * {@link #load} is called, see {@link BookSuggestIndexUpdater}.
+ */
+@Component
+public class BookSuggestIndex {
+
+    private final ThreadPoolExecutor rebuilds = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), new CustomizableThreadFactory("suggest-rebuild-"));
+    private final PrefixIndex titles = new PrefixIndex(rebuilds);
+    private final PrefixIndex authors = new PrefixIndex(rebuilds);
+    private final PrefixIndex genres = new PrefixIndex(rebuilds);
+
+    private final Map<Long, Relations> books = new HashMap<>();
+    private final Map<Long, String> authorNames = new HashMap<>();
+    private final Map<Long, String> genreNames = new HashMap<>();
+    private final Map<Long, Integer> booksByAuthor = new HashMap<>();
+    private final Map<Long, Integer> booksByGenre = new HashMap<>();
+
+    public BookSuggestIndex() {
+        rebuilds.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilds.shutdownNow();
+    }
+
+    public synchronized void load(Collection<BookDocument> books, Collection<AuthorDto> authors,
+                                  Collection<GenreDto> genres) {
+        this.books.clear();
+        authorNames.clear();
+        genreNames.clear();
+        booksByAuthor.clear();
+        booksByGenre.clear();
+        Set<Long> authorIds = new HashSet<>();
+        Set<Long> genreIds = new HashSet<>();
+        books.forEach(book -> {
+            Relations relations = Relations.of(book);
+            this.books.put(book.id(), relations);
+            count(relations, 1, authorIds, genreIds);
+        });
+        authors.forEach(author -> authorNames.put(author.getId(), fullName(author)));
+        genres.forEach(genre -> genreNames.put(genre.getId(), genre.getName()));
+
+        titles.load(books.stream().map(BookSuggestIndex::title).toList());
+        this.authors.load(authorNames.keySet().stream().map(this::author).toList());
+        this.genres.load(genreNames.keySet().stream().map(this::genre).toList());
+    }
+
+    /**
+     * Applies a batch of book changes; the authors and genres of the books are re-ranked once.
+     *
+     * @param changed books as they are now
+     * @param removed ids of deleted books
+     */
+    public synchronized void updateBooks(Collection<BookDocument> changed, Collection<Long> removed) {
+        Set<Long> authorIds = new HashSet<>();
+        Set<Long> genreIds = new HashSet<>();
+        List<PrefixIndex.Completion> changedTitles = new ArrayList<>(changed.size());
+        for (BookDocument book : changed) {
+            Relations relations = Relations.of(book);
+            Relations old = books.put(book.id(), relations);
+            if (old != null) {
+                count(old, -1, authorIds, genreIds);
+            }
+            count(relations, 1, authorIds, genreIds);
+            changedTitles.add(title(book));
+        }
+        for (Long bookId : removed) {
+            Relations old = books.remove(bookId);
+            if (old != null) {
+                count(old, -1, authorIds, genreIds);
+            }
+        }
+        titles.putAll(changedTitles);
+        titles.removeAll(removed);
+        authors.putAll(authorIds.stream().filter(authorNames::containsKey).map(this::author).toList());
+        genres.putAll(genreIds.stream().filter(genreNames::containsKey).map(this::genre).toList());
+    }
+
+    public synchronized void putAuthor(AuthorDto author) {
+        authorNames.put(author.getId(), fullName(author));
+        authors.put(author(author.getId()));
+    }
+
+    public synchronized void removeAuthor(long authorId) {
+        authorNames.remove(authorId);
+        authors.remove(authorId);
+    }
+
+    /**
+     * Applies a batch of author changes with one rebuild of the delta.
+     *
+     * @param changed authors as they are now
+     * @param removed ids of deleted authors
+     */
+    public synchronized void updateAuthors(Collection<AuthorDto> changed, Collection<Long> removed) {
+        changed.forEach(author -> authorNames.put(author.getId(), fullName(author)));
+        removed.forEach(authorNames::remove);
+        authors.putAll(changed.stream().map(author -> author(author.getId())).toList());
+        authors.removeAll(removed);
+    }
+
+    public synchronized void putGenre(GenreDto genre) {
+        genreNames.put(genre.getId(), genre.getName());
+        genres.put(genre(genre.getId()));
+    }
+
+    public synchronized void removeGenre(long genreId) {
+        genreNames.remove(genreId);
+        genres.remove(genreId);
+    }
+
+    /**
+     * Applies a batch of genre changes with one rebuild of the delta.
+     *
+     * @param changed genres as they are now
+     * @param removed ids of deleted genres
+     */
+    public synchronized void updateGenres(Collection<GenreDto> changed, Collection<Long> removed) {
+        changed.forEach(genre -> genreNames.put(genre.getId(), genre.getName()));
+        removed.forEach(genreNames::remove);
+        genres.putAll(changed.stream().map(genre -> genre(genre.getId())).toList());
+        genres.removeAll(removed);
+    }
+
+    /**
+     * Catches up with changes that reached the database without an event, see {@link BookSuggestIndexUpdater}: puts
+     * the changed books and removes the books that no longer exist. Authors and genres are compared by name, and only
+     * the added, renamed and removed ones are rebuilt.
+     *
+     * @param changed  books as they are now
+     * @param existing ids of all books in the database
+     */
+    public synchronized void refresh(Collection<BookDocument> changed, Roaring64Bitmap existing,
+                                     Collection<AuthorDto> authorList, Collection<GenreDto> genreList) {
+        updateBooks(changed, books.keySet().stream().filter(id -> !existing.contains(id)).toList());
+        Set<Long> removedAuthors = new HashSet<>(authorNames.keySet());
+        List<AuthorDto> changedAuthors = new ArrayList<>();
+        for (AuthorDto author : authorList) {
+            removedAuthors.remove(author.getId());
+            if (!fullName(author).equals(authorNames.get(author.getId()))) {
+                changedAuthors.add(author);
+            }
+        }
+        updateAuthors(changedAuthors, removedAuthors);
+        Set<Long> removedGenres = new HashSet<>(genreNames.keySet());
+        List<GenreDto> changedGenres = new ArrayList<>();
+        for (GenreDto genre : genreList) {
+            removedGenres.remove(genre.getId());
+            if (!genre.getName().equals(genreNames.get(genre.getId()))) {
+                changedGenres.add(genre);
+            }
+        }
+        updateGenres(changedGenres, removedGenres);
+    }
+
+    /**
+     * @param limit completions per list, at most {@link PrefixIndex#MAX_LIMIT}
+     */
+    public BookSuggestionsDto suggest(String prefix, int limit) {
+        return new BookSuggestionsDto(
+            suggestions(titles.top(prefix, limit)),
+            suggestions(authors.top(prefix, limit)),
+            suggestions(genres.top(prefix, limit))
+        );
+    }
+
+    private void count(Relations book, int delta, Set<Long> authorIds, Set<Long> genreIds) {
+        for (long authorId : book.authorIds()) {
+            booksByAuthor.merge(authorId, delta, Integer::sum);
+            authorIds.add(authorId);
+        }
+        for (long genreId : book.genreIds()) {
+            booksByGenre.merge(genreId, delta, Integer::sum);
+            genreIds.add(genreId);
+        }
+    }
+
+    private PrefixIndex.Completion author(long authorId) {
+        return new PrefixIndex.Completion(authorId, authorNames.get(authorId), booksByAuthor.getOrDefault(authorId, 0));
+    }
+
+    private PrefixIndex.Completion genre(long genreId) {
+        return new PrefixIndex.Completion(genreId, genreNames.get(genreId), booksByGenre.getOrDefault(genreId, 0));
+    }
+
+    private static PrefixIndex.Completion title(BookDocument book) {
+        return new PrefixIndex.Completion(book.id(), book.title(),
+            book.rating() == null ? 0 : book.rating().doubleValue());
+    }
+
+    private static String fullName(AuthorDto author) {
+        return author.getFirstName() + " " + author.getLastName();
+    }
+
+    private static List<BookSuggestionsDto.Suggestion> suggestions(List<PrefixIndex.Completion> completions) {
+        return completions.stream().map(c -> new BookSuggestionsDto.Suggestion(c.id(), c.text())).toList();
+    }
+
+    /**
+     * Author and genre ids of a book, the part of it that is needed to keep the book counts current.
+     */
+    private record Relations(long[] authorIds, long[] genreIds) {
+
+        static Relations of(BookDocument book) {
+            return new Relations(book.authorIds(), book.genreIds());
+        }
+    }
+}
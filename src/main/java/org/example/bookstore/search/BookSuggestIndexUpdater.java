@@ -0,0 +1,170 @@
+package org.example.bookstore.search;
+
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookstore.config.properties.SearchRefreshProperties;
+import org.example.bookstore.dto.author.AuthorDto;
+import org.example.bookstore.dto.genre.GenreDto;
+import org.example.bookstore.event.AuthorChangedEvent;
+import org.example.bookstore.event.BookChangedEvent;
+import org.example.bookstore.event.BooksChangedEvent;
+import org.example.bookstore.event.GenreChangedEvent;
+import org.example.bookstore.event.ReferencesChangedEvent;
+import org.example.bookstore.repository.SearchDocumentRepository;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Loads the {@link BookSuggestIndex} once the application is ready and applies the change events published by the
+ * services after their transaction commits, the same way {@link BookSearchIndexUpdater} does for search: a load that
+ * overlapped a change is read again, a batch of book changes is applied at once, and changes of other instances are
+ * read every {@code app.search.refresh.interval}.
+ *
+ * <p>Enabled with {@code app.search.suggest.enabled=true}; without it the index stays empty and suggests nothing.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.search.suggest", name = "enabled", havingValue = "true")
+public class BookSuggestIndexUpdater implements DisposableBean {
+
+    private final BookSuggestIndex index;
+    private final SearchDocumentRepository repository;
+    private final SearchRefreshProperties properties;
+    private final AtomicLong changes = new AtomicLong();
+    private final ScheduledExecutorService scheduler;
+    private volatile OffsetDateTime readAt;
+
+    public BookSuggestIndexUpdater(BookSuggestIndex index, SearchDocumentRepository repository,
+                                   SearchRefreshProperties properties) {
+        this.index = index;
+        this.repository = repository;
+        this.properties = properties;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("suggest-refresh-"));
+        long interval = properties.interval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        long start = System.nanoTime();
+        while (true) {
+            long seen = changes.get();
+            OffsetDateTime now = repository.currentTime();
+            List<BookDocument> books = repository.findAllBooks();
+            List<AuthorDto> authors = repository.findAllAuthors();
+            List<GenreDto> genres = repository.findAllGenres();
+            synchronized (changes) {
+                if (changes.get() == seen) {
+                    index.load(books, authors, genres);
+                    readAt = now;
+                    break;
+                }
+            }
+            log.debug("Catalog changed while reading the suggest index, reading again");
+        }
+        log.info("Suggest index built in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Applies the changes committed since the previous load or refresh, wherever they were made, the same way
+     * {@link BookSearchIndexUpdater#refresh()} does.
+     */
+    public void refresh() {
+        if (readAt == null) {
+            return;
+        }
+        try {
+            while (true) {
+                long seen = changes.get();
+                OffsetDateTime now = repository.currentTime();
+                List<BookDocument> books = repository.findBooksUpdatedSince(readAt.minus(properties.overlap()));
+                Roaring64Bitmap existing = Roaring64Bitmap.bitmapOf(repository.findAllBookIds());
+                List<AuthorDto> authors = repository.findAllAuthors();
+                List<GenreDto> genres = repository.findAllGenres();
+                synchronized (changes) {
+                    if (changes.get() == seen) {
+                        changes.incrementAndGet();
+                        index.refresh(books, existing, authors, genres);
+                        readAt = now;
+                        break;
+                    }
+                }
+                log.debug("Catalog changed while refreshing the suggest index, reading again");
+            }
+        } catch (RuntimeException e) {
+            log.warn("Suggest index refresh failed, retrying in {}: {}", properties.interval(), e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        apply(() -> {
+            List<BookDocument> documents = repository.findBooksByIds(List.of(event.bookId()));
+            index.updateBooks(documents, documents.isEmpty() ? List.of(event.bookId()) : List.of());
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksChanged(BooksChangedEvent event) {
+        apply(() -> {
+            List<BookDocument> documents = repository.findBooksByIds(event.bookIds());
+            Set<Long> removed = new HashSet<>(event.bookIds());
+            documents.forEach(document -> removed.remove(document.id()));
+            index.updateBooks(documents, removed);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        apply(() -> repository.findAuthor(event.authorId())
+            .ifPresentOrElse(index::putAuthor, () -> index.removeAuthor(event.authorId())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGenreChanged(GenreChangedEvent event) {
+        apply(() -> repository.findGenre(event.genreId())
+            .ifPresentOrElse(index::putGenre, () -> index.removeGenre(event.genreId())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferencesChanged(ReferencesChangedEvent event) {
+        apply(() -> {
+            List<AuthorDto> authors = repository.findAuthorsByIds(event.authorIds());
+            Set<Long> removedAuthors = new HashSet<>(event.authorIds());
+            authors.forEach(author -> removedAuthors.remove(author.getId()));
+            index.updateAuthors(authors, removedAuthors);
+            List<GenreDto> genres = repository.findGenresByIds(event.genreIds());
+            Set<Long> removedGenres = new HashSet<>(event.genreIds());
+            genres.forEach(genre -> removedGenres.remove(genre.getId()));
+            index.updateGenres(genres, removedGenres);
+        });
+    }
+
+    /**
+     * Reads and applies a change; serialized, so that of two changes of one row the later read is applied last.
+     */
+    private void apply(Runnable change) {
+        synchronized (changes) {
+            changes.incrementAndGet();
+            change.run();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
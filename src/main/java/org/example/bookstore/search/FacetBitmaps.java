@@ -0,0 +1,113 @@
+package org.example.bookstore.search;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+/**
+ * Compressed bitmaps of book ids per author, per genre and per price, quantity and rating bucket.
+ *
+ * <p>Relation and range filters become bitmap unions and intersections, so their cost depends on the number of
+ * matching books rather than on the size of the {@code book_author} and {@code book_genre} tables. Not thread-safe;
+ * {@link BookSearchIndex} guards it with its lock.
+ */
+public final class FacetBitmaps {
+
+    public static final List<BigDecimal> PRICE_EDGES = decimals("5", "10", "15", "20", "30", "50", "100");
+    public static final List<Integer> QUANTITY_EDGES = List.of(1, 5, 10, 50);
+    public static final List<BigDecimal> RATING_EDGES = decimals("1", "2", "3", "4", "4.5");
+
+    private final Roaring64Bitmap all = new Roaring64Bitmap();
+    private final Map<Long, Roaring64Bitmap> byAuthor = new HashMap<>();
+    private final Map<Long, Roaring64Bitmap> byGenre = new HashMap<>();
+    private final RangeBuckets<BigDecimal> price = new RangeBuckets<>(PRICE_EDGES);
+    private final RangeBuckets<Integer> quantity = new RangeBuckets<>(QUANTITY_EDGES);
+    private final RangeBuckets<BigDecimal> rating = new RangeBuckets<>(RATING_EDGES);
+
+    public void add(BookDocument doc) {
+        all.addLong(doc.id());
+        for (long authorId : doc.authorIds()) {
+            byAuthor.computeIfAbsent(authorId, id -> new Roaring64Bitmap()).addLong(doc.id());
+        }
+        for (long genreId : doc.genreIds()) {
+            byGenre.computeIfAbsent(genreId, id -> new Roaring64Bitmap()).addLong(doc.id());
+        }
+        price.add(doc.id(), doc.price());
+        quantity.add(doc.id(), doc.quantity());
+        rating.add(doc.id(), doc.rating());
+    }
+
+    public void remove(BookDocument doc) {
+        all.removeLong(doc.id());
+        for (long authorId : doc.authorIds()) {
+            removeFrom(byAuthor, authorId, doc.id());
+        }
+        for (long genreId : doc.genreIds()) {
+            removeFrom(byGenre, genreId, doc.id());
+        }
+        price.remove(doc.id(), doc.price());
+        quantity.remove(doc.id(), doc.quantity());
+        rating.remove(doc.id(), doc.rating());
+    }
+
+    /**
+     * Compacts runs of consecutive ids; worth calling after a bulk load.
+     */
+    public void optimize() {
+        all.runOptimize();
+        Stream.concat(byAuthor.values().stream(), byGenre.values().stream()).forEach(Roaring64Bitmap::runOptimize);
+    }
+
+    public Roaring64Bitmap all() {
+        return all;
+    }
+
+    public Roaring64Bitmap anyAuthor(Collection<Long> authorIds) {
+        return union(byAuthor, authorIds);
+    }
+
+    public Roaring64Bitmap anyGenre(Collection<Long> genreIds) {
+        return union(byGenre, genreIds);
+    }
+
+    public RangeBuckets<BigDecimal> price() {
+        return price;
+    }
+
+    public RangeBuckets<Integer> quantity() {
+        return quantity;
+    }
+
+    public RangeBuckets<BigDecimal> rating() {
+        return rating;
+    }
+
+    private static Roaring64Bitmap union(Map<Long, Roaring64Bitmap> bitmaps, Collection<Long> keys) {
+        Roaring64Bitmap result = new Roaring64Bitmap();
+        for (Long key : keys) {
+            Roaring64Bitmap bitmap = key == null ? null : bitmaps.get(key);
+            if (bitmap != null) {
+                result.or(bitmap);
+            }
+        }
+        return result;
+    }
+
+    private static void removeFrom(Map<Long, Roaring64Bitmap> bitmaps, long key, long id) {
+        Roaring64Bitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.removeLong(id);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    private static List<BigDecimal> decimals(String... values) {
+        return Stream.of(values).map(BigDecimal::new).toList();
+    }
+}
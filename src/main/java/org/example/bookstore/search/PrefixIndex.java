@@ -0,0 +1,297 @@
+package org.example.bookstore.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.LongPredicate;
+
+/**
+ * Top-k completions of a prefix over weighted texts. A text is found by a prefix of any of its words.
+ *
+ * <p>Completions live in immutable segments: the word starts of all texts, as offsets into the texts, sorted by the
+ * case-folded text from there on, so that a prefix is a contiguous range. Every prefix of up to
+ * {@value #PRECOMPUTED_DEPTH} characters, whose range is too wide to scan, has its top completions precomputed. Writes
+ * go to a small delta segment that shadows the base by id. Once the delta exceeds {@value #MAX_DELTA} ids the base is
+ * rebuilt on the given executor, off the write path; changes made meanwhile stay in the delta. Reads are lock-free on
+ * a volatile snapshot, writes are serialized.
+ */
+public final class PrefixIndex {
+
+    public static final int MAX_LIMIT = 20;
+
+    private static final int PRECOMPUTED_DEPTH = 3;
+    // headroom for completions shadowed by the delta; a prefix that loses more falls back to a scan
+    private static final int PRECOMPUTED_SIZE = 2 * MAX_LIMIT;
+    private static final int MAX_DELTA = 4_096;
+    private static final Completion[] NONE = new Completion[0];
+    private static final Comparator<Completion> RANK = Comparator.comparingDouble(Completion::score).reversed()
+        .thenComparing(Completion::text)
+        .thenComparingLong(Completion::id);
+
+    /**
+     * @param score popularity, higher ranks first
+     */
+    public record Completion(long id, String text, double score) {
+    }
+
+    private record Snapshot(Segment base, Segment delta, Set<Long> shadowed) {
+    }
+
+    private final Executor rebuilds;
+    private final Map<Long, Completion> completions = new HashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(Segment.EMPTY, Segment.EMPTY, Set.of());
+    // ids changed while the base is rebuilt, null when no rebuild is running
+    private Set<Long> changedDuringRebuild;
+    // bumped by load, so that a rebuild of the replaced content is dropped
+    private long generation;
+
+    /**
+     * @param rebuilds runs the rebuilds of the base segment
+     */
+    public PrefixIndex(Executor rebuilds) {
+        this.rebuilds = rebuilds;
+    }
+
+    public synchronized void load(Collection<Completion> all) {
+        completions.clear();
+        all.forEach(c -> completions.put(c.id(), c));
+        snapshot = new Snapshot(Segment.of(completions.values()), Segment.EMPTY, Set.of());
+        generation++;
+        changedDuringRebuild = null;
+    }
+
+    public void put(Completion completion) {
+        putAll(List.of(completion));
+    }
+
+    public void remove(long id) {
+        removeAll(List.of(id));
+    }
+
+    /**
+     * Adds or replaces the completions with one rebuild of the delta.
+     */
+    public synchronized void putAll(Collection<Completion> changed) {
+        List<Long> ids = new ArrayList<>(changed.size());
+        for (Completion completion : changed) {
+            if (!completion.equals(completions.put(completion.id(), completion))) {
+                ids.add(completion.id());
+            }
+        }
+        changed(ids);
+    }
+
+    public synchronized void removeAll(Collection<Long> removed) {
+        List<Long> ids = new ArrayList<>(removed.size());
+        for (Long id : removed) {
+            if (completions.remove(id) != null) {
+                ids.add(id);
+            }
+        }
+        changed(ids);
+    }
+
+    /**
+     * Best completions of the prefix, by score descending, then text.
+     *
+     * @param limit at most {@link #MAX_LIMIT}
+     */
+    public List<Completion> top(String prefix, int limit) {
+        Snapshot s = snapshot;
+        String key = normalize(prefix);
+        List<Completion> result = new ArrayList<>(s.base().top(key, limit, id -> !s.shadowed().contains(id)));
+        result.addAll(s.delta().top(key, limit, id -> true));
+        result.sort(RANK);
+        return result.size() > limit ? List.copyOf(result.subList(0, limit)) : result;
+    }
+
+    private void changed(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Set<Long> shadowed = new HashSet<>(snapshot.shadowed());
+        shadowed.addAll(ids);
+        snapshot = new Snapshot(snapshot.base(), delta(shadowed), Set.copyOf(shadowed));
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.addAll(ids);
+        } else if (shadowed.size() > MAX_DELTA) {
+            changedDuringRebuild = new HashSet<>();
+            rebuilds.execute(this::rebuild);
+        }
+    }
+
+    private void rebuild() {
+        long built;
+        List<Completion> all;
+        synchronized (this) {
+            built = generation;
+            all = List.copyOf(completions.values());
+        }
+        Segment base = Segment.of(all);
+        synchronized (this) {
+            if (built != generation) {
+                return;
+            }
+            Set<Long> shadowed = changedDuringRebuild;
+            changedDuringRebuild = null;
+            snapshot = new Snapshot(base, delta(shadowed), Set.copyOf(shadowed));
+        }
+    }
+
+    private Segment delta(Set<Long> shadowed) {
+        return Segment.of(shadowed.stream().map(completions::get).filter(Objects::nonNull).toList());
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : fold(text.trim());
+    }
+
+    /**
+     * Folds the case of the text char by char, the same way the segments compare texts.
+     */
+    private static String fold(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static final class Segment {
+
+        static final Segment EMPTY = of(List.of());
+
+        // entry i is the word of values[i].text() starting at offsets[i]
+        private final Completion[] values;
+        private final int[] offsets;
+        private final Map<String, Completion[]> tops;
+
+        private Segment(Completion[] values, int[] offsets, Map<String, Completion[]> tops) {
+            this.values = values;
+            this.offsets = offsets;
+            this.tops = tops;
+        }
+
+        static Segment of(Collection<Completion> completions) {
+            List<Completion> entryValues = new ArrayList<>();
+            List<Integer> entryOffsets = new ArrayList<>();
+            for (Completion completion : completions) {
+                String text = completion.text();
+                for (int i = 0; i < text.length(); i++) {
+                    if (Character.isLetterOrDigit(text.charAt(i))
+                        && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))) {
+                        entryValues.add(completion);
+                        entryOffsets.add(i);
+                    }
+                }
+            }
+            Integer[] order = new Integer[entryValues.size()];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, (a, b) -> compare(entryValues.get(a).text(), entryOffsets.get(a),
+                entryValues.get(b).text(), entryOffsets.get(b)));
+
+            Completion[] values = new Completion[order.length];
+            int[] offsets = new int[order.length];
+            Map<String, Map<Long, Completion>> byPrefix = new HashMap<>();
+            for (int i = 0; i < order.length; i++) {
+                values[i] = entryValues.get(order[i]);
+                offsets[i] = entryOffsets.get(order[i]);
+                String text = values[i].text();
+                int depth = Math.min(PRECOMPUTED_DEPTH, text.length() - offsets[i]);
+                for (int d = 1; d <= depth; d++) {
+                    byPrefix.computeIfAbsent(fold(text.substring(offsets[i], offsets[i] + d)),
+                        p -> new LinkedHashMap<>()).putIfAbsent(values[i].id(), values[i]);
+                }
+            }
+            Map<String, Completion[]> tops = new HashMap<>(byPrefix.size() * 2);
+            byPrefix.forEach((prefix, matches) -> tops.put(prefix,
+                matches.values().stream().sorted(RANK).limit(PRECOMPUTED_SIZE).toArray(Completion[]::new)));
+            return new Segment(values, offsets, tops);
+        }
+
+        List<Completion> top(String prefix, int limit, LongPredicate visible) {
+            if (prefix.isEmpty()) {
+                return List.of();
+            }
+            if (prefix.length() <= PRECOMPUTED_DEPTH) {
+                Completion[] top = tops.getOrDefault(prefix, NONE);
+                List<Completion> result = Arrays.stream(top)
+                    .filter(c -> visible.test(c.id()))
+                    .limit(limit)
+                    .toList();
+                // a cut-off list that lost too many completions to the delta may miss visible ones behind the cut
+                if (result.size() == limit || top.length < PRECOMPUTED_SIZE) {
+                    return result;
+                }
+            }
+            // bounded selection over the prefix range; the worst of the current top is at the head
+            PriorityQueue<Completion> best = new PriorityQueue<>(limit + 1, RANK.reversed());
+            Set<Long> seen = new HashSet<>();
+            for (int i = lowerBound(prefix); i < values.length && startsWith(i, prefix); i++) {
+                Completion c = values[i];
+                if (visible.test(c.id()) && seen.add(c.id())) {
+                    best.add(c);
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+            List<Completion> result = new ArrayList<>(best);
+            result.sort(RANK);
+            return result;
+        }
+
+        private boolean startsWith(int entry, String prefix) {
+            String text = values[entry].text();
+            int offset = offsets[entry];
+            if (text.length() - offset < prefix.length()) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length(); i++) {
+                if (Character.toLowerCase(text.charAt(offset + i)) != prefix.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int lowerBound(String prefix) {
+            int lo = 0;
+            int hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (compare(values[mid].text(), offsets[mid], prefix, 0) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /**
+         * Compares the case-folded suffixes of two texts.
+         */
+        private static int compare(String a, int fromA, String b, int fromB) {
+            int n = Math.min(a.length() - fromA, b.length() - fromB);
+            for (int i = 0; i < n; i++) {
+                int diff = Character.compare(Character.toLowerCase(a.charAt(fromA + i)),
+                    Character.toLowerCase(b.charAt(fromB + i)));
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return (a.length() - fromA) - (b.length() - fromB);
+        }
+    }
+}
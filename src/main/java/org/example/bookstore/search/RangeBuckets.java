@@ -0,0 +1,74 @@
+package org.example.bookstore.search;
+
+import java.util.List;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+/**
+ * Book ids bucketed by a numeric attribute: one bitmap per {@code [edge[i], edge[i + 1])} interval, plus one for
+ * values below the first edge and one for values at or above the last edge. Books without a value are in no bucket.
+ *
+ * <p>A range filter is answered with the union of the buckets it overlaps. Boundary buckets may hold values outside
+ * the range, so the result is a superset that the caller still checks value by value.
+ *
+ * @param <T> attribute type
+ */
+public final class RangeBuckets<T extends Comparable<T>> {
+
+    private final List<T> edges;
+    private final Roaring64Bitmap[] buckets;
+
+    /**
+     * @param edges ascending bucket boundaries
+     */
+    public RangeBuckets(List<T> edges) {
+        this.edges = List.copyOf(edges);
+        this.buckets = new Roaring64Bitmap[edges.size() + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Roaring64Bitmap();
+        }
+    }
+
+    public List<T> edges() {
+        return edges;
+    }
+
+    public int bucketCount() {
+        return buckets.length;
+    }
+
+    public void add(long id, T value) {
+        if (value != null) {
+            buckets[bucketOf(value)].addLong(id);
+        }
+    }
+
+    public void remove(long id, T value) {
+        if (value != null) {
+            buckets[bucketOf(value)].removeLong(id);
+        }
+    }
+
+    /**
+     * Superset of the books whose value lies within {@code [min, max]}; either bound may be {@code null}.
+     */
+    public Roaring64Bitmap range(T min, T max) {
+        int from = min == null ? 0 : bucketOf(min);
+        int to = max == null ? buckets.length - 1 : bucketOf(max);
+        Roaring64Bitmap result = new Roaring64Bitmap();
+        for (int i = from; i <= to; i++) {
+            result.or(buckets[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Index of the bucket holding the value.
+     */
+    public int bucketOf(T value) {
+        int bucket = 0;
+        while (bucket < edges.size() && value.compareTo(edges.get(bucket)) >= 0) {
+            bucket++;
+        }
+        return bucket;
+    }
+}
@@ -3,10 +3,15 @@ package org.example.bookstore.service;
 import jakarta.transaction.Transactional;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import lombok.RequiredArgsConstructor;
+import org.example.bookstore.config.database.ReadOnlyTransactional;
 import org.example.bookstore.entity.Author;
+import org.example.bookstore.event.AuthorChangedEvent;
+import org.example.bookstore.exception.BookstoreConflictException;
 import org.example.bookstore.exception.BookstoreEntityNotFoundException;
 import org.example.bookstore.repository.AuthorRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -16,28 +21,50 @@ import org.springframework.stereotype.Service;
 public class AuthorService {
 
     private final AuthorRepository authorRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Author create(String firstName, String lastName) {
         String fn = normalize(firstName);
         String ln = normalize(lastName);
+        if (authorRepository.existsByFirstNameAndLastName(fn, ln)) {
+            throw duplicate(fn, ln);
+        }
 
         Author author = Author.builder().firstName(fn).lastName(ln).build();
-        return authorRepository.save(author);
+        Author saved = authorRepository.save(author);
+        eventPublisher.publishEvent(new AuthorChangedEvent(saved.getId()));
+        return saved;
     }
 
-    @Transactional
+    @ReadOnlyTransactional
     public Author get(Long id) {
         return authorRepository.findById(id)
             .orElseThrow(() -> new BookstoreEntityNotFoundException(id, Author.class));
     }
 
-    @Transactional
+    /**
+     * The authors that exist, read from the database rather than from the reference data snapshot: another instance
+     * may have created or deleted some since the snapshot was loaded. Meant for setting associations within a
+     * transaction.
+     */
+    @ReadOnlyTransactional
     public List<Author> getAllByIds(Collection<Long> ids) {
-        return authorRepository.findAllById(ids);
+        return authorRepository.findAllById(ids.stream().filter(Objects::nonNull).toList());
     }
 
+    /**
+     * Reference to an existing author, see {@link #getAllByIds}.
+     */
     @Transactional
+    public Author getReference(Long id) {
+        if (!authorRepository.existsById(id)) {
+            throw new BookstoreEntityNotFoundException(id, Author.class);
+        }
+        return authorRepository.getReferenceById(id);
+    }
+
+    @ReadOnlyTransactional
     public Page<Author> list(Pageable pageable) {
         return authorRepository.findAll(pageable);
     }
@@ -48,16 +75,30 @@ public class AuthorService {
 
         String fn = normalize(newFirst);
         String ln = normalize(newLast);
+        if (authorRepository.existsByFirstNameAndLastNameAndIdNot(fn, ln, id)) {
+            throw duplicate(fn, ln);
+        }
 
         existing.setFirstName(fn);
         existing.setLastName(ln);
-        return authorRepository.save(existing);
+        Author saved = authorRepository.save(existing);
+        eventPublisher.publishEvent(new AuthorChangedEvent(id));
+        return saved;
     }
 
     @Transactional
     public void delete(Long id) {
         get(id);
         authorRepository.deleteById(id);
+        eventPublisher.publishEvent(new AuthorChangedEvent(id));
+    }
+
+    /**
+     * Authors are unique by names ({@code uk_author_first_last}); a concurrent duplicate that passes the check fails
+     * on the constraint, which is answered the same way.
+     */
+    private static BookstoreConflictException duplicate(String firstName, String lastName) {
+        return new BookstoreConflictException("Author '" + firstName + " " + lastName + "' already exists");
     }
 
     private String normalize(String s) {
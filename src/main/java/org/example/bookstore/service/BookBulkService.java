@@ -0,0 +1,273 @@
+package org.example.bookstore.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookstore.dto.book.BookBulkCreateItemDto;
+import org.example.bookstore.dto.book.BookBulkCreateResponseDto;
+import org.example.bookstore.dto.book.BookBulkCreateResponseDto.ItemResult;
+import org.example.bookstore.dto.book.BookBulkUpdateItemDto;
+import org.example.bookstore.dto.book.BookBulkUpdateRequestDto;
+import org.example.bookstore.dto.book.BookBulkUpdateResponseDto;
+import org.example.bookstore.dto.book.BookBulkUpdateRuleDto;
+import org.example.bookstore.event.BooksChangedEvent;
+import org.example.bookstore.exception.BookstoreBadRequestException;
+import org.example.bookstore.repository.BookBulkRepository;
+import org.example.bookstore.repository.BookBulkRepository.UpdateResult;
+import org.example.bookstore.util.Constants;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bulk operations on books, written with JDBC batches instead of one entity at a time.
+ *
+ * <p>Work is committed in chunks of {@link #CHUNK_SIZE}: a failing chunk is rolled back alone and reported item by
+ * item, chunks committed before it stay. Each chunk publishes one {@link BooksChangedEvent}.
+ */
+@Slf4j
+@Service
+public class BookBulkService {
+
+    /**
+     * Maximum number of items of a {@link #createAll} or {@link #updateAll} call.
+     */
+    private static final int ITEM_LIMIT = 50_000;
+    /**
+     * Books written per transaction.
+     */
+    private static final int CHUNK_SIZE = 1_000;
+
+    private final BookBulkRepository bookBulkRepository;
+    private final Validator validator;
+    private final AuditorAware<String> auditorAware;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public BookBulkService(BookBulkRepository bookBulkRepository, Validator validator,
+                           AuditorAware<String> auditorAware, ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager) {
+        this.bookBulkRepository = bookBulkRepository;
+        this.validator = validator;
+        this.auditorAware = auditorAware;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Creates the books with their authors and genres. Invalid items, and items referring to authors or genres that
+     * do not exist, are reported and skipped; the others are created.
+     */
+    public BookBulkCreateResponseDto createAll(List<BookBulkCreateItemDto> books) {
+        if (books.size() > ITEM_LIMIT) {
+            throw new BookstoreBadRequestException("At most " + ITEM_LIMIT + " books can be created at once");
+        }
+        log.debug("Creating {} books", books.size());
+
+        // checked against the database, with one query per table for all items
+        Set<Long> authors = bookBulkRepository.findExistingAuthorIds(ids(books, BookBulkCreateItemDto::getAuthorIds));
+        Set<Long> genres = bookBulkRepository.findExistingGenreIds(ids(books, BookBulkCreateItemDto::getGenreIds));
+        ItemResult[] results = new ItemResult[books.size()];
+        List<Integer> accepted = new ArrayList<>(books.size());
+        for (int i = 0; i < books.size(); i++) {
+            String error = validate(books.get(i), authors, genres);
+            if (error != null) {
+                results[i] = new ItemResult(i, null, error);
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        String user = auditorAware.getCurrentAuditor().orElse(Constants.DEFAULT_USER_NAME);
+        for (int from = 0; from < accepted.size(); from += CHUNK_SIZE) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + CHUNK_SIZE, accepted.size()));
+            List<BookBulkCreateItemDto> items = chunk.stream().map(books::get).toList();
+            try {
+                List<Long> ids = transactionTemplate.execute(status -> {
+                    List<Long> inserted = bookBulkRepository.insertAll(items, user);
+                    eventPublisher.publishEvent(new BooksChangedEvent(inserted));
+                    return inserted;
+                });
+                for (int i = 0; i < chunk.size(); i++) {
+                    results[chunk.get(i)] = new ItemResult(chunk.get(i), ids.get(i), null);
+                }
+            } catch (DataAccessException e) {
+                // e.g. an author deleted since the check; the chunk is rolled back as a whole
+                log.warn("Bulk creation of {} books rolled back", chunk.size(), e);
+                String error = "Not created: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                chunk.forEach(index -> results[index] = new ItemResult(index, null, error));
+            }
+        }
+
+        int created = (int) Arrays.stream(results).filter(result -> result.id() != null).count();
+        return new BookBulkCreateResponseDto(created, results.length - created, Arrays.asList(results));
+    }
+
+    /**
+     * Updates the price, quantity and rating of books, either per item or by a rule. Only books whose values change
+     * are written, with their {@code updatedAt} and {@code updatedBy}.
+     */
+    public BookBulkUpdateResponseDto updateAll(BookBulkUpdateRequestDto request) {
+        if ((request.items() == null) == (request.rule() == null)) {
+            throw new BookstoreBadRequestException("Either items or a rule is required");
+        }
+        String user = auditorAware.getCurrentAuditor().orElse(Constants.DEFAULT_USER_NAME);
+        return request.items() != null ? updateItems(request.items(), user) : updateByRule(request.rule(), user);
+    }
+
+    private BookBulkUpdateResponseDto updateItems(List<BookBulkUpdateItemDto> items, String user) {
+        if (items.size() > ITEM_LIMIT) {
+            throw new BookstoreBadRequestException("At most " + ITEM_LIMIT + " books can be updated at once");
+        }
+        log.debug("Updating {} books", items.size());
+
+        // the last item of an id wins, as if the items were applied in order
+        Map<Long, BookBulkUpdateItemDto> byId = new LinkedHashMap<>();
+        int withoutId = 0;
+        for (BookBulkUpdateItemDto item : items) {
+            if (item == null || item.id() == null) {
+                withoutId++;
+            } else {
+                byId.put(item.id(), item);
+            }
+        }
+        List<Long> failedIds = new ArrayList<>();
+        List<BookBulkUpdateItemDto> accepted = new ArrayList<>(byId.size());
+        for (BookBulkUpdateItemDto item : byId.values()) {
+            if (validator.validate(item).isEmpty()) {
+                accepted.add(item);
+            } else {
+                failedIds.add(item.id());
+            }
+        }
+
+        int updated = 0;
+        int unchanged = 0;
+        for (int from = 0; from < accepted.size(); from += CHUNK_SIZE) {
+            List<BookBulkUpdateItemDto> chunk = accepted.subList(from, Math.min(from + CHUNK_SIZE, accepted.size()));
+            try {
+                UpdateResult result = transactionTemplate.execute(status -> {
+                    UpdateResult changed = bookBulkRepository.updateAll(chunk, user);
+                    publishChanged(changed.updatedIds());
+                    return changed;
+                });
+                updated += result.updatedIds().size();
+                unchanged += chunk.size() - result.updatedIds().size() - result.missingIds().size();
+                failedIds.addAll(result.missingIds());
+            } catch (DataAccessException e) {
+                log.warn("Bulk update of {} books rolled back", chunk.size(), e);
+                chunk.forEach(item -> failedIds.add(item.id()));
+            }
+        }
+        return new BookBulkUpdateResponseDto(updated, unchanged, withoutId + failedIds.size(), failedIds);
+    }
+
+    private BookBulkUpdateResponseDto updateByRule(BookBulkUpdateRuleDto rule, String user) {
+        if (rule.pricePercent() == null && rule.quantityDelta() == null) {
+            throw new BookstoreBadRequestException("The rule changes neither price nor quantity");
+        }
+        List<Long> unknownGenres = unknown(rule.genreIds(), bookBulkRepository::findExistingGenreIds);
+        List<Long> unknownAuthors = unknown(rule.authorIds(), bookBulkRepository::findExistingAuthorIds);
+        if (!unknownGenres.isEmpty() || !unknownAuthors.isEmpty()) {
+            throw new BookstoreBadRequestException(
+                "Unknown genreIds " + unknownGenres + ", authorIds " + unknownAuthors);
+        }
+        BigDecimal priceFactor = rule.pricePercent() == null
+            ? null
+            : BigDecimal.ONE.add(rule.pricePercent().movePointLeft(2));
+        log.debug("Updating books of genres {} and authors {}: price {}, quantity {}", rule.genreIds(),
+            rule.authorIds(), priceFactor, rule.quantityDelta());
+
+        int updated = 0;
+        int unchanged = 0;
+        List<Long> failedIds = new ArrayList<>();
+        long after = 0;
+        while (true) {
+            // keyset pages: a chunk starts after the last book of the previous one, committed or not
+            List<Long> ids = bookBulkRepository.findIds(rule.genreIds(), rule.authorIds(), after, CHUNK_SIZE);
+            if (ids.isEmpty()) {
+                break;
+            }
+            after = ids.get(ids.size() - 1);
+            try {
+                List<Long> changed = transactionTemplate.execute(status -> {
+                    List<Long> adjusted = bookBulkRepository.adjustAll(ids, priceFactor, rule.quantityDelta(), user);
+                    publishChanged(adjusted);
+                    return adjusted;
+                });
+                updated += changed.size();
+                unchanged += ids.size() - changed.size();
+            } catch (DataAccessException e) {
+                // e.g. a price overflowing its column; the chunk is rolled back as a whole
+                log.warn("Bulk update of {} books rolled back", ids.size(), e);
+                failedIds.addAll(ids);
+            }
+        }
+        return new BookBulkUpdateResponseDto(updated, unchanged, failedIds.size(), failedIds);
+    }
+
+    private void publishChanged(List<Long> bookIds) {
+        if (!bookIds.isEmpty()) {
+            eventPublisher.publishEvent(new BooksChangedEvent(bookIds));
+        }
+    }
+
+    /**
+     * @return why the item can not be created, {@code null} if it can
+     */
+    private String validate(BookBulkCreateItemDto book, Set<Long> authors, Set<Long> genres) {
+        if (book == null) {
+            return "Item is missing";
+        }
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<BookBulkCreateItemDto> violation : validator.validate(book)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        List<Long> unknownAuthors = unknown(book.getAuthorIds(), ids -> authors);
+        if (!unknownAuthors.isEmpty()) {
+            errors.add("authorIds: unknown " + unknownAuthors);
+        }
+        List<Long> unknownGenres = unknown(book.getGenreIds(), ids -> genres);
+        if (!unknownGenres.isEmpty()) {
+            errors.add("genreIds: unknown " + unknownGenres);
+        }
+        return errors.isEmpty() ? null : errors.stream().sorted().collect(Collectors.joining("; "));
+    }
+
+    /**
+     * @param existing finds the ids that exist among the given ones
+     */
+    private static List<Long> unknown(Collection<Long> ids, Function<Collection<Long>, Set<Long>> existing) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> found = existing.apply(ids.stream().filter(Objects::nonNull).toList());
+        return ids.stream().filter(id -> id == null || !found.contains(id)).toList();
+    }
+
+    private static Set<Long> ids(List<BookBulkCreateItemDto> books,
+                                 Function<BookBulkCreateItemDto, Collection<Long>> ids) {
+        return books.stream()
+            .filter(Objects::nonNull)
+            .map(ids)
+            .filter(Objects::nonNull)
+            .flatMap(Collection::stream)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.bookstore.service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.example.bookstore.dto.Versioned;
+import org.example.bookstore.dto.author.AuthorDto;
+import org.example.bookstore.dto.book.BookResponseDto;
+import org.example.bookstore.dto.genre.GenreDto;
+import org.example.bookstore.event.AuthorChangedEvent;
+import org.example.bookstore.event.BookChangedEvent;
+import org.example.bookstore.event.BooksChangedEvent;
+import org.example.bookstore.event.GenreChangedEvent;
+import org.example.bookstore.event.ReferencesChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts exactly the cached {@link BookService#get} results a change affects: the changed book, or the books that
+ * embed the changed author or genre.
+ *
+ * <p>Runs after the transaction commits, like {@link BookSearchCacheEvictor}; loads that read before the commit
+ * do not store their result afterwards, see {@link GuardedCache}. Author and genre changes are matched against the
+ * embedded authors and genres of the cached entries, so no query is needed to find the affected books.
+ */
+@Component
+public class BookCacheEvictor {
+
+    private final GuardedCache cache;
+
+    public BookCacheEvictor(BookCaches bookCaches) {
+        this.cache = bookCaches.byId();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        cache.invalidate(event.bookId());
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksChanged(BooksChangedEvent event) {
+        cache.invalidateAll(event.bookIds());
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        evictIf(book -> contains(book.authors(), AuthorDto::getId, event.authorId()));
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGenreChanged(GenreChangedEvent event) {
+        evictIf(book -> contains(book.genres(), GenreDto::getId, event.genreId()));
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferencesChanged(ReferencesChangedEvent event) {
+        Set<Long> authorIds = new HashSet<>(event.authorIds());
+        Set<Long> genreIds = new HashSet<>(event.genreIds());
+        evictIf(book -> containsAny(book.authors(), AuthorDto::getId, authorIds)
+            || containsAny(book.genres(), GenreDto::getId, genreIds));
+    }
+
+    private void evictIf(Predicate<BookResponseDto> affected) {
+        cache.invalidateIf(value -> value instanceof Versioned<?> versioned
+            && versioned.body() instanceof BookResponseDto book && affected.test(book));
+    }
+
+    private static <T> boolean contains(List<T> items, Function<T, Long> id, Long expected) {
+        return items != null && items.stream().anyMatch(item -> Objects.equals(id.apply(item), expected));
+    }
+
+    private static <T> boolean containsAny(List<T> items, Function<T, Long> id, Set<Long> expected) {
+        return items != null && !expected.isEmpty()
+            && items.stream().anyMatch(item -> expected.contains(id.apply(item)));
+    }
+}
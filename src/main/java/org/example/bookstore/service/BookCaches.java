@@ -0,0 +1,59 @@
+package org.example.bookstore.service;
+
+import java.time.Duration;
+import java.util.Objects;
+import org.example.bookstore.config.CacheConfig;
+import org.example.bookstore.config.properties.ReplicaProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+/**
+ * The book caches of {@link CacheConfig}, guarded against fills racing with invalidations, see {@link GuardedCache}.
+ * Filled by {@link BookReadCoalescer} and {@link BookService#getAll}, invalidated by {@link BookCacheEvictor} and
+ * {@link BookSearchCacheEvictor}.
+ *
+ * <p>With replica routing, a replica serves reads while it trails the primary by at most the maximum lag, checked
+ * once per lag check interval; entries invalidated within that window are refilled from the primary.
+ */
+@Component
+public class BookCaches {
+
+    private final GuardedCache byId;
+    private final GuardedCache search;
+
+    @Autowired
+    public BookCaches(CacheManager cacheManager, ObjectProvider<ReplicaProperties> replicaProperties) {
+        this(cacheManager, replicaProperties.stream()
+            .filter(ReplicaProperties::enabled)
+            .map(replica -> replica.maxLag().plus(replica.lagCheckInterval()))
+            .findFirst()
+            .orElse(Duration.ZERO));
+    }
+
+    BookCaches(CacheManager cacheManager, Duration replicaLag) {
+        this.byId = guarded(cacheManager, CacheConfig.BOOK_BY_ID, replicaLag);
+        this.search = guarded(cacheManager, CacheConfig.BOOK_SEARCH, replicaLag);
+    }
+
+    /**
+     * {@link BookService#get} results by book id.
+     */
+    public GuardedCache byId() {
+        return byId;
+    }
+
+    /**
+     * {@link BookService#search} results by {@link org.example.bookstore.search.BookSearchKey}.
+     */
+    public GuardedCache search() {
+        return search;
+    }
+
+    private static GuardedCache guarded(CacheManager cacheManager, String name, Duration replicaLag) {
+        return new GuardedCache(((CaffeineCache) Objects.requireNonNull(cacheManager.getCache(name)))
+            .getNativeCache(), replicaLag);
+    }
+}
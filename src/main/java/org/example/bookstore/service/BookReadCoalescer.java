@@ -0,0 +1,139 @@
+package org.example.bookstore.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.function.Supplier;
+import org.example.bookstore.config.database.PrimaryReads;
+import org.example.bookstore.config.properties.SingleFlightProperties;
+import org.example.bookstore.dto.SearchResponseDto;
+import org.example.bookstore.dto.Versioned;
+import org.example.bookstore.dto.book.BookResponseDto;
+import org.example.bookstore.dto.book.BookSearchRequestDto;
+import org.example.bookstore.event.AuthorChangedEvent;
+import org.example.bookstore.event.BookChangedEvent;
+import org.example.bookstore.event.BooksChangedEvent;
+import org.example.bookstore.event.GenreChangedEvent;
+import org.example.bookstore.event.ReferencesChangedEvent;
+import org.example.bookstore.search.BookSearchKey;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Shares one {@link BookService#search} or {@link BookService#get} execution between identical concurrent requests,
+ * see {@link SingleFlight}. Sits in front of the service, so that waiting callers hold neither a transaction nor a
+ * connection. Results are read through {@link BookCaches}; a load stamps the cache before it reads, so that its
+ * result is not stored if the cache was invalidated meanwhile.
+ *
+ * <p>Searches are keyed by {@link BookSearchKey}, lookups by book id. Calls in flight are forgotten by the first
+ * after-commit listener of every change, so requests arriving from then on start a new call. A request arriving
+ * between the commit and that listener may still join a call that read the old state, as it could have read the old
+ * state by itself a moment earlier.
+ */
+@Component
+public class BookReadCoalescer {
+
+    private final BookService bookService;
+    private final BookCaches bookCaches;
+    private final boolean enabled;
+    private final SingleFlight<BookSearchKey, SearchResponseDto<BookResponseDto>> searches;
+    private final SingleFlight<Long, Versioned<BookResponseDto>> gets;
+
+    public BookReadCoalescer(BookService bookService, BookCaches bookCaches, SingleFlightProperties properties,
+                             MeterRegistry registry) {
+        this.bookService = bookService;
+        this.bookCaches = bookCaches;
+        this.enabled = properties.enabled();
+        this.searches = new SingleFlight<>("book_search", properties.searchTimeout(), registry);
+        this.gets = new SingleFlight<>("book_get", properties.getTimeout(), registry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public SearchResponseDto<BookResponseDto> search(BookSearchRequestDto requestDto) {
+        BookSearchKey key = BookSearchKey.of(requestDto);
+        SearchResponseDto<BookResponseDto> cached = bookCaches.search().get(key, SearchResponseDto.class);
+        if (cached != null) {
+            return cached;
+        }
+        if (!enabled) {
+            return load(key, requestDto);
+        }
+        return searches.execute(key, () -> load(key, requestDto));
+    }
+
+    /**
+     * The book with its version, for conditional requests; a cached book comes with the version it was read at.
+     */
+    @SuppressWarnings("unchecked")
+    public Versioned<BookResponseDto> get(Long id) {
+        Versioned<BookResponseDto> cached = bookCaches.byId().get(id, Versioned.class);
+        if (cached != null) {
+            return cached;
+        }
+        if (!enabled) {
+            return load(id);
+        }
+        return gets.execute(id, () -> load(id));
+    }
+
+    private SearchResponseDto<BookResponseDto> load(BookSearchKey key, BookSearchRequestDto requestDto) {
+        GuardedCache cache = bookCaches.search();
+        GuardedCache.Stamp stamp = cache.stamp(key);
+        SearchResponseDto<BookResponseDto> response = read(cache, stamp, () -> bookService.search(requestDto));
+        if (!BookService.isDegraded(requestDto, response)) {
+            cache.put(stamp, key, response);
+        }
+        return response;
+    }
+
+    private Versioned<BookResponseDto> load(Long id) {
+        GuardedCache cache = bookCaches.byId();
+        GuardedCache.Stamp stamp = cache.stamp(id);
+        Versioned<BookResponseDto> book = read(cache, stamp, () -> bookService.get(id));
+        cache.put(stamp, id, book);
+        return book;
+    }
+
+    /**
+     * A replica may not have replayed the change behind a recent invalidation; such a read would refill the cache
+     * with the old state, so it goes to the primary.
+     */
+    private static <V> V read(GuardedCache cache, GuardedCache.Stamp stamp, Supplier<V> read) {
+        return cache.isRecentlyInvalidated(stamp) ? PrimaryReads.call(read) : read.get();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        searches.forget();
+        gets.forget();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksChanged(BooksChangedEvent event) {
+        searches.forget();
+        gets.forget();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        searches.forget();
+        gets.forget();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGenreChanged(GenreChangedEvent event) {
+        searches.forget();
+        gets.forget();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferencesChanged(ReferencesChangedEvent event) {
+        searches.forget();
+        gets.forget();
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.bookstore.service;
+
+import org.example.bookstore.event.AuthorChangedEvent;
+import org.example.bookstore.event.BookChangedEvent;
+import org.example.bookstore.event.BooksChangedEvent;
+import org.example.bookstore.event.GenreChangedEvent;
+import org.example.bookstore.event.ReferencesChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Clears the cached {@link BookService#search} results on every book, author or genre change.
+ *
+ * <p>Runs after the transaction commits and after the search index has applied the change. A search that read the
+ * old rows before the commit may finish after the eviction; its result is then not stored, see {@link GuardedCache}.
+ * A change may affect any cached page (counts, facets, author and genre names), so all entries are dropped.
+ */
+@Component
+public class BookSearchCacheEvictor {
+
+    private final GuardedCache cache;
+
+    public BookSearchCacheEvictor(BookCaches bookCaches) {
+        this.cache = bookCaches.search();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksChanged(BooksChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGenreChanged(GenreChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferencesChanged(ReferencesChangedEvent event) {
+        cache.invalidateAll();
+    }
+}
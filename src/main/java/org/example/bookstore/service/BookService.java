@@ -1,40 +1,104 @@
 package org.example.bookstore.service;
 
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.Tuple;
 import jakarta.transaction.Transactional;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.bookstore.config.CacheConfig;
+import org.example.bookstore.config.database.PrimaryReads;
+import org.example.bookstore.config.database.ReadOnlyTransactional;
+import org.example.bookstore.dto.SearchRequestDto;
 import org.example.bookstore.dto.SearchResponseDto;
+import org.example.bookstore.dto.Versioned;
+import org.example.bookstore.dto.book.BookBatchResponseDto;
 import org.example.bookstore.dto.book.BookCreateRequestDto;
+import org.example.bookstore.dto.book.BookFacetsDto;
+import org.example.bookstore.dto.book.BookFullTextSearchRequestDto;
 import org.example.bookstore.dto.book.BookPatchRequestDto;
 import org.example.bookstore.dto.book.BookResponseDto;
 import org.example.bookstore.dto.book.BookSearchRequestDto;
+import org.example.bookstore.dto.book.BookSuggestionsDto;
 import org.example.bookstore.entity.Author;
 import org.example.bookstore.entity.Book;
 import org.example.bookstore.entity.Genre;
+import org.example.bookstore.event.BookChangedEvent;
+import org.example.bookstore.exception.BookstoreBadRequestException;
 import org.example.bookstore.exception.BookstoreEntityNotFoundException;
 import org.example.bookstore.mapper.BookMapper;
 import org.example.bookstore.mapper.CommonMapper;
+import org.example.bookstore.mapper.CursorMapper;
+import org.example.bookstore.repository.BookFullTextRepository;
+import org.example.bookstore.repository.BookFullTextRepository.Match;
+import org.example.bookstore.repository.BookReadRepository;
 import org.example.bookstore.repository.BookRepository;
+import org.example.bookstore.search.BookFacet;
+import org.example.bookstore.search.BookSearchIndex;
+import org.example.bookstore.search.BookSearchKey;
+import org.example.bookstore.search.BookSuggestIndex;
+import org.example.bookstore.search.FacetBitmaps;
+import org.example.bookstore.search.PrefixIndex;
 import org.example.bookstore.specification.BookSpecs;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookService {
 
+    /**
+     * Maximum number of genres and authors returned as facets.
+     */
+    private static final int FACET_LIMIT = 20;
+    /**
+     * Number of matches counted for {@link SearchRequestDto.CountMode#ESTIMATED}.
+     */
+    private static final int COUNT_CAP = 10_000;
+    /**
+     * Rows per round trip of the export cursor, and books resolved per batch.
+     */
+    private static final int EXPORT_FETCH_SIZE = 1_000;
+    private static final int EXPORT_BATCH_SIZE = 500;
+    /**
+     * Maximum number of distinct ids of a {@link #getAll} call.
+     */
+    private static final int BATCH_GET_LIMIT = 500;
+
     private final BookMapper bookMapper;
     private final CommonMapper commonMapper;
+    private final CursorMapper cursorMapper;
     private final BookRepository bookRepository;
+    private final BookReadRepository bookReadRepository;
+    private final BookFullTextRepository bookFullTextRepository;
     private final AuthorService authorService;
     private final GenreService genreService;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookSuggestIndex bookSuggestIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SearchCountExecutor searchCountExecutor;
+    private final CatalogVersion catalogVersion;
+    private final BookCaches bookCaches;
 
     @Transactional
     public BookResponseDto create(BookCreateRequestDto requestDto) {
@@ -42,32 +106,370 @@ public class BookService {
         log.debug("Creating a new book: {}", requestDto);
         Book book = bookMapper.map(requestDto);
         book = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookChangedEvent(book.getId()));
         return bookMapper.toResponse(book);
     }
 
-    @Transactional
+    /**
+     * Searches books. {@link BookReadCoalescer} caches the results by the canonical form of the request until the
+     * next book, author or genre change, see {@link BookSearchCacheEvictor}.
+     */
+    @ReadOnlyTransactional
     public SearchResponseDto<BookResponseDto> search(BookSearchRequestDto requestDto) {
         log.debug("Searching for books: {}", requestDto);
-        Specification<Book> spec = Specification
-            .where(BookSpecs.titleContains(requestDto.getTitle()))
-            .and(BookSpecs.authorIdsAny(requestDto.getAuthorIds()))
-            .and(BookSpecs.authorNamesAny(requestDto.getAuthorNames()))
-            .and(BookSpecs.genreIdsAny(requestDto.getGenreIds()))
-            .and(BookSpecs.genreNamesAny(requestDto.getGenreNames()))
-            .and(BookSpecs.priceBetween(requestDto.getMinPrice(), requestDto.getMaxPrice()))
-            .and(BookSpecs.quantityBetween(requestDto.getMinQuantity(), requestDto.getMaxQuantity()))
-            .and(BookSpecs.ratingBetween(requestDto.getMinRating(), requestDto.getMaxRating()));
+        SearchResponseDto<BookResponseDto> response = findBooks(requestDto);
+        return requestDto.isFacets() ? response.withFacets(facets(requestDto)) : response;
+    }
 
+    private SearchResponseDto<BookResponseDto> findBooks(BookSearchRequestDto requestDto) {
+        Specification<Book> spec = searchSpec(requestDto, null);
+        if (isKeysetPaging(requestDto)) {
+            return searchAfterCursor(spec, requestDto);
+        }
         Pageable pageable = commonMapper.mapPageable(requestDto);
-        Page<Book> books = bookRepository.findAll(spec, pageable);
-        return commonMapper.mapPage(books, bookMapper::toResponse);
+        validateSort(pageable.getSort());
+        if (bookSearchIndex.isReady() && bookSearchIndex.supports(requestDto, pageable.getSort())) {
+            return commonMapper.mapPage(bookSearchIndex.search(requestDto, pageable), Function.identity());
+        }
+
+        SearchRequestDto.CountMode countMode = requestDto.getCountMode();
+        if ((countMode == null || countMode == SearchRequestDto.CountMode.EXACT) && searchCountExecutor.isEnabled()) {
+            return countedConcurrently(spec, pageable);
+        }
+        if (countMode == null || countMode == SearchRequestDto.CountMode.EXACT) {
+            // phase 1: page over the keys only, phase 2: batch-load the page
+            List<Long> ids = ids(bookRepository.findKeys(spec, pageable.getSort(), pageable.getOffset(),
+                pageable.getPageSize()));
+            Page<BookResponseDto> books = PageableExecutionUtils.getPage(bookReadRepository.findAllByIds(ids),
+                pageable, () -> bookRepository.count(spec));
+            return commonMapper.mapPage(books, Function.identity());
+        }
+
+        // one extra key tells whether there is a next page without running a count query
+        int size = pageable.getPageSize();
+        List<Tuple> keys = bookRepository.findKeys(spec, pageable.getSort(), pageable.getOffset(), size + 1);
+        boolean hasNext = keys.size() > size;
+        if (hasNext) {
+            keys = keys.subList(0, size);
+        }
+        List<BookResponseDto> content = bookReadRepository.findAllByIds(ids(keys));
+        if (countMode == SearchRequestDto.CountMode.NONE) {
+            return SearchResponseDto.slice(content, pageable.getPageNumber(), size, hasNext);
+        }
+        return estimatedPage(spec, pageable, content, hasNext);
     }
 
-    @Transactional
-    public BookResponseDto get(Long id) {
+    /**
+     * Whether the response lacks the exact total the request asked for, because the count timed out. Such a response
+     * is not cached, so that the next equal request counts again.
+     */
+    static boolean isDegraded(BookSearchRequestDto requestDto, SearchResponseDto<?> response) {
+        SearchRequestDto.CountMode countMode = requestDto.getCountMode();
+        return (countMode == null || countMode == SearchRequestDto.CountMode.EXACT)
+            && !isKeysetPaging(requestDto)
+            && response.countType() != SearchResponseDto.CountType.EXACT;
+    }
+
+    /**
+     * Page with an exact count that runs next to the page query. If the count is not done within its timeout, the
+     * page is returned without total, as for {@link SearchRequestDto.CountMode#NONE}.
+     */
+    private SearchResponseDto<BookResponseDto> countedConcurrently(Specification<Book> spec, Pageable pageable) {
+        Future<Long> count = searchCountExecutor.start(() -> bookRepository.count(spec));
+        try {
+            int size = pageable.getPageSize();
+            List<Tuple> keys = bookRepository.findKeys(spec, pageable.getSort(), pageable.getOffset(), size + 1);
+            boolean hasNext = keys.size() > size;
+            if (hasNext) {
+                keys = keys.subList(0, size);
+            }
+            List<BookResponseDto> content = bookReadRepository.findAllByIds(ids(keys));
+
+            Long total;
+            if (pageable.getOffset() == 0 && !hasNext) {
+                // a partial first page is the whole result
+                total = (long) content.size();
+            } else {
+                total = count == null ? bookRepository.count(spec) : searchCountExecutor.await(count);
+            }
+            if (total == null) {
+                return SearchResponseDto.slice(content, pageable.getPageNumber(), size, hasNext);
+            }
+            int totalPages = Math.toIntExact((total + size - 1) / size);
+            return new SearchResponseDto<>(content, pageable.getPageNumber(), size, total, totalPages,
+                SearchResponseDto.CountType.EXACT, hasNext, null, null);
+        } finally {
+            // no-op once done; otherwise frees the connection of a count nobody waits for
+            if (count != null) {
+                count.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Page whose total is counted up to {@link #COUNT_CAP} only. The last page already knows the total; past the
+     * cap the total is reported as a lower bound.
+     */
+    private SearchResponseDto<BookResponseDto> estimatedPage(Specification<Book> spec, Pageable pageable,
+                                                             List<BookResponseDto> content, boolean hasNext) {
+        long seen = pageable.getOffset() + content.size();
+        long total = !hasNext && (!content.isEmpty() || pageable.getOffset() == 0) ? seen
+            : bookRepository.countAtMost(spec, COUNT_CAP);
+        SearchResponseDto.CountType countType = SearchResponseDto.CountType.EXACT;
+        if (total > COUNT_CAP) {
+            countType = SearchResponseDto.CountType.ESTIMATED;
+            total = Math.max(total, seen + (hasNext ? 1 : 0));
+        }
+        int size = pageable.getPageSize();
+        int totalPages = Math.toIntExact((total + size - 1) / size);
+        return new SearchResponseDto<>(content, pageable.getPageNumber(), size, total, totalPages, countType, hasNext,
+            null, null);
+    }
+
+    /**
+     * Validated order of an export of the request, for {@link #export}; checked before the response is started.
+     */
+    public Sort exportSort(BookSearchRequestDto requestDto) {
+        return keysetSort(commonMapper.mapSort(requestDto.getSort()));
+    }
+
+    /**
+     * Streams every book matching the filters of the request to the sink, ignoring paging. Ids are read from a
+     * forward-only cursor and resolved to books in batches, so memory use does not depend on the number of books.
+     *
+     * @param sort order from {@link #exportSort}
+     * @param sink receives the books batch by batch, in the requested order (by id if unsorted)
+     */
+    @ReadOnlyTransactional
+    public void export(BookSearchRequestDto requestDto, Sort sort, Consumer<List<BookResponseDto>> sink) {
+        log.debug("Exporting books: {}", requestDto);
+        try (Stream<Long> ids = bookRepository.streamIds(searchSpec(requestDto, null), sort, EXPORT_FETCH_SIZE)) {
+            List<Long> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+            ids.forEach(id -> {
+                batch.add(id);
+                if (batch.size() == EXPORT_BATCH_SIZE) {
+                    sink.accept(bookReadRepository.findAllByIds(batch));
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) {
+                sink.accept(bookReadRepository.findAllByIds(batch));
+            }
+        }
+    }
+
+    /**
+     * Facet counts for the filters of the request; each facet ignores its own filter, so that the counts show what
+     * selecting another value would return.
+     */
+    private BookFacetsDto facets(BookSearchRequestDto requestDto) {
+        if (bookSearchIndex.isReady() && !requestDto.isFuzzy()) {
+            return bookSearchIndex.facets(requestDto, FACET_LIMIT);
+        }
+        return new BookFacetsDto(
+            bookRepository.countByGenre(searchSpec(requestDto, BookFacet.GENRE), FACET_LIMIT),
+            bookRepository.countByAuthor(searchSpec(requestDto, BookFacet.AUTHOR), FACET_LIMIT),
+            rangeCounts(bookRepository.countByRange(searchSpec(requestDto, BookFacet.PRICE), "price",
+                FacetBitmaps.PRICE_EDGES), FacetBitmaps.PRICE_EDGES),
+            rangeCounts(bookRepository.countByRange(searchSpec(requestDto, BookFacet.RATING), "rating",
+                FacetBitmaps.RATING_EDGES), FacetBitmaps.RATING_EDGES)
+        );
+    }
+
+    private static List<BookFacetsDto.RangeCount> rangeCounts(List<Long> counts, List<BigDecimal> edges) {
+        List<BookFacetsDto.RangeCount> result = new ArrayList<>(counts.size());
+        for (int i = 0; i < counts.size(); i++) {
+            result.add(new BookFacetsDto.RangeCount(i == 0 ? null : edges.get(i - 1),
+                i == edges.size() ? null : edges.get(i), counts.get(i)));
+        }
+        return result;
+    }
+
+    /**
+     * Specification of the search filters, leaving out the ones of the excluded facet ({@code null} keeps all).
+     */
+    private static Specification<Book> searchSpec(BookSearchRequestDto requestDto, BookFacet excluded) {
+        boolean fuzzy = requestDto.isFuzzy();
+        Specification<Book> spec = Specification
+            .where(fuzzy ? BookSpecs.titleSimilar(requestDto.getTitle())
+                : BookSpecs.titleContains(requestDto.getTitle()))
+            .and(BookSpecs.quantityBetween(requestDto.getMinQuantity(), requestDto.getMaxQuantity()));
+        if (excluded != BookFacet.AUTHOR) {
+            spec = spec.and(BookSpecs.authorIdsAny(requestDto.getAuthorIds()))
+                .and(fuzzy ? BookSpecs.authorNamesSimilar(requestDto.getAuthorNames())
+                    : BookSpecs.authorNamesAny(requestDto.getAuthorNames()));
+        }
+        if (excluded != BookFacet.GENRE) {
+            spec = spec.and(BookSpecs.genreIdsAny(requestDto.getGenreIds()))
+                .and(BookSpecs.genreNamesAny(requestDto.getGenreNames()));
+        }
+        if (excluded != BookFacet.PRICE) {
+            spec = spec.and(BookSpecs.priceBetween(requestDto.getMinPrice(), requestDto.getMaxPrice()));
+        }
+        if (excluded != BookFacet.RATING) {
+            spec = spec.and(BookSpecs.ratingBetween(requestDto.getMinRating(), requestDto.getMaxRating()));
+        }
+        return spec;
+    }
+
+    private SearchResponseDto<BookResponseDto> searchAfterCursor(Specification<Book> spec,
+                                                                 BookSearchRequestDto requestDto) {
+        int size = requestDto.getSize();
+        if (size < 1) {
+            throw new BookstoreBadRequestException("Page size must be positive");
+        }
+        Sort sort = keysetSort(commonMapper.mapSort(requestDto.getSort()));
+        String signature = sort.toString();
+        List<Object> after = requestDto.getCursor() == null ? null
+            : cursorMapper.decode(requestDto.getCursor(), signature, sort.toList().size());
+
+        // one extra row tells whether there is a next page without running a count query
+        List<Tuple> keys = bookRepository.findKeys(spec.and(BookSpecs.seekAfter(sort, after)), sort, 0, size + 1);
+        boolean hasNext = keys.size() > size;
+        if (hasNext) {
+            keys = keys.subList(0, size);
+        }
+        String nextCursor = hasNext ? cursorMapper.encode(signature, sortKey(sort, keys.get(size - 1))) : null;
+
+        return new SearchResponseDto<>(bookReadRepository.findAllByIds(ids(keys)), 0, size, -1, -1, nextCursor);
+    }
+
+    /**
+     * Completions of a search box prefix from the in-memory suggest index; no database access.
+     */
+    public BookSuggestionsDto suggest(String query, int limit) {
+        if (limit < 1 || limit > PrefixIndex.MAX_LIMIT) {
+            throw new BookstoreBadRequestException("Limit must be between 1 and " + PrefixIndex.MAX_LIMIT);
+        }
+        return bookSuggestIndex.suggest(query, limit);
+    }
+
+    @ReadOnlyTransactional
+    public SearchResponseDto<BookResponseDto> searchFullText(BookFullTextSearchRequestDto requestDto) {
+        log.debug("Full-text searching for books: {}", requestDto);
+        int size = requestDto.getSize();
+        // the cursor is only valid for the query it was produced for
+        String signature = "fulltext:" + requestDto.getQuery();
+        Match after = null;
+        if (requestDto.getCursor() != null) {
+            List<Object> values = cursorMapper.decode(requestDto.getCursor(), signature, 2);
+            if (!(values.get(0) instanceof Number rank)
+                || !(values.get(1) instanceof Long id)) {
+                throw new BookstoreBadRequestException("Malformed cursor");
+            }
+            after = new Match(id, rank.floatValue());
+        }
+
+        List<Match> matches = bookFullTextRepository.findMatches(requestDto.getQuery(), after, size + 1);
+        boolean hasNext = matches.size() > size;
+        if (hasNext) {
+            matches = matches.subList(0, size);
+        }
+        Match last = hasNext ? matches.get(size - 1) : null;
+        String nextCursor = last == null ? null : cursorMapper.encode(signature, List.of(last.rank(), last.id()));
+
+        List<Long> ids = matches.stream().map(Match::id).toList();
+        return new SearchResponseDto<>(bookReadRepository.findAllByIds(ids), 0, size, -1, -1, nextCursor);
+    }
+
+    private static boolean isKeysetPaging(BookSearchRequestDto requestDto) {
+        return requestDto.getPaging() == SearchRequestDto.PagingMode.KEYSET || requestDto.getCursor() != null;
+    }
+
+    private void validateSort(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!BookSpecs.SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new BookstoreBadRequestException("Sorting by '" + order.getProperty() + "' is not supported");
+            }
+        }
+    }
+
+    /**
+     * Validates the requested sort and appends id as a tie-breaker, so that the order is total.
+     */
+    private Sort keysetSort(Sort sort) {
+        validateSort(sort);
+        return sort.getOrderFor("id") != null ? sort : sort.and(Sort.by("id"));
+    }
+
+    private static List<Long> ids(List<Tuple> keys) {
+        return keys.stream().map(key -> key.get("id", Long.class)).toList();
+    }
+
+    private static List<Object> sortKey(Sort sort, Tuple key) {
+        return sort.stream().map(order -> key.get(order.getProperty())).toList();
+    }
+
+    /**
+     * Reads a book and its version with a single statement, without loading entities. {@link BookReadCoalescer}
+     * caches the books by id until they, or one of their authors or genres, change, see {@link BookCacheEvictor}.
+     */
+    @ReadOnlyTransactional
+    public Versioned<BookResponseDto> get(Long id) {
         log.debug("Retrieving a book by id: {}", id);
-        Book book = getBook(id);
-        return bookMapper.toResponse(book);
+        return bookReadRepository.findById(id)
+            .orElseThrow(() -> new BookstoreEntityNotFoundException(id, Book.class));
+    }
+
+    /**
+     * Reads many books at once: books found in the {@link CacheConfig#BOOK_BY_ID} cache are taken from there, the
+     * others are loaded with three statements in total and cached. Duplicate ids are answered once.
+     */
+    @ReadOnlyTransactional
+    public BookBatchResponseDto getAll(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new BookBatchResponseDto(List.of(), List.of());
+        }
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        if (requested.size() > BATCH_GET_LIMIT) {
+            throw new BookstoreBadRequestException("At most " + BATCH_GET_LIMIT + " ids can be requested at once");
+        }
+        log.debug("Retrieving {} books by id", requested.size());
+
+        GuardedCache cache = bookCaches.byId();
+        Map<Long, BookResponseDto> found = new HashMap<>();
+        Map<Long, GuardedCache.Stamp> toLoad = new LinkedHashMap<>();
+        for (Long id : requested) {
+            Versioned<?> cached = cache.get(id, Versioned.class);
+            if (cached != null) {
+                found.put(id, (BookResponseDto) cached.body());
+            } else {
+                toLoad.put(id, cache.stamp(id));
+            }
+        }
+        // first statement of the transaction, so the routing follows the stamps, see BookReadCoalescer
+        boolean recent = toLoad.values().stream().anyMatch(cache::isRecentlyInvalidated);
+        List<Long> loadIds = List.copyOf(toLoad.keySet());
+        List<Versioned<BookResponseDto>> loaded = recent
+            ? PrimaryReads.call(() -> bookReadRepository.findAllVersionedByIds(loadIds))
+            : bookReadRepository.findAllVersionedByIds(loadIds);
+        for (Versioned<BookResponseDto> book : loaded) {
+            long id = book.body().id();
+            found.put(id, book.body());
+            cache.put(toLoad.get(id), id, book);
+        }
+
+        List<BookResponseDto> books = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            BookResponseDto book = found.get(id);
+            if (book != null) {
+                books.add(book);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new BookBatchResponseDto(books, missingIds);
+    }
+
+    /**
+     * Strong entity tag of {@link #search}: the catalog version and the canonical request. Known before the search
+     * runs, so a matching {@code If-None-Match} is answered without running it.
+     */
+    public String searchEtag(BookSearchRequestDto requestDto) {
+        String key = BookSearchKey.of(requestDto).toString();
+        return "\"" + catalogVersion.current() + "."
+            + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + "\"";
     }
 
     @Transactional
@@ -75,6 +477,7 @@ public class BookService {
         log.debug("Updating a book by id: {}", id);
         Book book = getBook(id);
         bookMapper.map(patchRequestDto, book);
+        eventPublisher.publishEvent(new BookChangedEvent(id));
         return bookMapper.toResponse(bookRepository.save(book));
     }
 
@@ -85,6 +488,7 @@ public class BookService {
             throw new EntityNotFoundException("Book not found");
         }
         bookRepository.deleteById(id);
+        eventPublisher.publishEvent(new BookChangedEvent(id));
     }
 
     @Transactional
@@ -99,6 +503,8 @@ public class BookService {
         }
 
         book.setAuthors(new LinkedHashSet<>(authors));
+        touch(book);
+        eventPublisher.publishEvent(new BookChangedEvent(bookId));
     }
 
     @Transactional
@@ -109,13 +515,17 @@ public class BookService {
             return;
         }
         book.getAuthors().addAll(toAdd);
+        touch(book);
+        eventPublisher.publishEvent(new BookChangedEvent(bookId));
     }
 
     @Transactional
     public void removeAuthor(Long bookId, Long authorId) {
         Book book = getBook(bookId);
-        Author author = authorService.get(authorId);
+        Author author = authorService.getReference(authorId);
         book.getAuthors().remove(author);
+        touch(book);
+        eventPublisher.publishEvent(new BookChangedEvent(bookId));
     }
 
     @Transactional
@@ -130,6 +540,8 @@ public class BookService {
         }
 
         book.setGenres(new LinkedHashSet<>(genres));
+        touch(book);
+        eventPublisher.publishEvent(new BookChangedEvent(bookId));
     }
 
     @Transactional
@@ -140,13 +552,25 @@ public class BookService {
             return;
         }
         book.getGenres().addAll(toAdd);
+        touch(book);
+        eventPublisher.publishEvent(new BookChangedEvent(bookId));
     }
 
     @Transactional
     public void removeGenre(Long bookId, Long genreId) {
         Book book = getBook(bookId);
-        Genre genre = genreService.get(genreId);
+        Genre genre = genreService.getReference(genreId);
         book.getGenres().remove(genre);
+        touch(book);
+        eventPublisher.publishEvent(new BookChangedEvent(bookId));
+    }
+
+    /**
+     * Marks the book as updated when only its authors or genres changed, which leaves the row itself clean: other
+     * instances find changed books by {@code updated_at}, see {@code BookSearchIndexUpdater#refresh}.
+     */
+    private static void touch(Book book) {
+        book.setUpdatedAt(ZonedDateTime.now());
     }
 
     private Book getBook(Long id) {
@@ -0,0 +1,239 @@
+package org.example.bookstore.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookstore.config.properties.ImportProperties;
+import org.example.bookstore.dto.importjob.ImportJobDto;
+import org.example.bookstore.event.BooksChangedEvent;
+import org.example.bookstore.event.ReferencesChangedEvent;
+import org.example.bookstore.exception.BookstoreBadRequestException;
+import org.example.bookstore.exception.BookstoreEntityNotFoundException;
+import org.example.bookstore.importer.ImportFormat;
+import org.example.bookstore.importer.ImportJobStatus;
+import org.example.bookstore.importer.ImportReader;
+import org.example.bookstore.importer.ImportRecord;
+import org.example.bookstore.importer.InvalidRecordException;
+import org.example.bookstore.repository.BookBulkRepository;
+import org.example.bookstore.repository.CatalogImportRepository;
+import org.example.bookstore.repository.CatalogImportRepository.ClaimedJob;
+import org.example.bookstore.repository.CatalogImportRepository.MergeResult;
+import org.example.bookstore.util.Constants;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports publisher feeds into the catalog in the background.
+ *
+ * <p>An uploaded file is stored in {@link ImportProperties#directory()} and read as a stream, in chunks of
+ * {@link ImportProperties#chunkSize()} records. Each chunk is merged by {@link CatalogImportRepository} in one
+ * transaction, together with the checkpoint of the job, so a failed or interrupted job resumes after its last
+ * committed chunk. The file is deleted once the job completes.
+ *
+ * <p>Records are upserted: a record whose id belongs to a book updates it, any other record creates a book with a
+ * fresh id. Records that can not be read are counted as rejected and skipped.
+ */
+@Slf4j
+@Service
+public class CatalogImportService {
+
+    /**
+     * Book ids per {@link BooksChangedEvent}; listeners re-read the books with one IN query.
+     */
+    private static final int EVENT_BATCH = 1_000;
+    private static final int MAX_CHUNK_SIZE = 10_000;
+
+    private final ImportProperties properties;
+    private final CatalogImportRepository catalogImportRepository;
+    private final BookBulkRepository bookBulkRepository;
+    private final ObjectMapper objectMapper;
+    private final AuditorAware<String> auditorAware;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    private final Counter merged;
+    private final Counter rejected;
+
+    public CatalogImportService(ImportProperties properties, CatalogImportRepository catalogImportRepository,
+                                BookBulkRepository bookBulkRepository, ObjectMapper objectMapper,
+                                AuditorAware<String> auditorAware, ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager, MeterRegistry registry) {
+        this.properties = properties;
+        this.catalogImportRepository = catalogImportRepository;
+        this.bookBulkRepository = bookBulkRepository;
+        this.objectMapper = objectMapper;
+        this.auditorAware = auditorAware;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = new ThreadPoolExecutor(properties.threads(), properties.threads(), 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), new CustomizableThreadFactory("catalog-import-"));
+        executor.allowCoreThreadTimeOut(true);
+        this.merged = Counter.builder("bookstore.import.records").tag("outcome", "merged").register(registry);
+        this.rejected = Counter.builder("bookstore.import.records").tag("outcome", "rejected").register(registry);
+    }
+
+    /**
+     * Stores the file and starts importing it.
+     */
+    public ImportJobDto start(ImportFormat format, InputStream content) {
+        String user = auditorAware.getCurrentAuditor().orElse(Constants.DEFAULT_USER_NAME);
+        Path file = properties.directory().resolve(UUID.randomUUID() + "." + format.name().toLowerCase());
+        try {
+            Files.createDirectories(properties.directory());
+            Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store the import file", e);
+        }
+        long id = catalogImportRepository.createJob(format, file.toString(), user);
+        log.info("Import {} of {} stored as {}", id, format, file);
+        executor.execute(() -> run(id));
+        return get(id);
+    }
+
+    public ImportJobDto get(long id) {
+        return catalogImportRepository.findJob(id)
+            .orElseThrow(() -> new BookstoreEntityNotFoundException(id, ImportJobDto.class));
+    }
+
+    /**
+     * Continues a failed or interrupted job after its last checkpoint.
+     */
+    public ImportJobDto resume(long id) {
+        ImportJobDto job = get(id);
+        if (job.status() == ImportJobStatus.COMPLETED || running.contains(id)) {
+            throw new BookstoreBadRequestException("Import " + id + " is " + job.status().name().toLowerCase());
+        }
+        executor.execute(() -> run(id));
+        return job;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // running jobs stop between chunks at the latest; they are resumed from their checkpoint
+        executor.shutdownNow();
+    }
+
+    private void run(long id) {
+        ClaimedJob job = catalogImportRepository.claim(id, properties.staleAfter()).orElse(null);
+        if (job == null || !running.add(id)) {
+            log.info("Import {} is not claimable, skipped", id);
+            return;
+        }
+        try {
+            long read = importFile(id, Path.of(job.fileName()), job.user());
+            catalogImportRepository.finish(id, ImportJobStatus.COMPLETED, null);
+            Files.deleteIfExists(Path.of(job.fileName()));
+            log.info("Import {} completed, {} records", id, read);
+        } catch (Exception e) {
+            log.error("Import {} failed", id, e);
+            catalogImportRepository.finish(id, ImportJobStatus.FAILED, String.valueOf(e.getMessage()));
+        } finally {
+            running.remove(id);
+        }
+    }
+
+    private long importFile(long id, Path file, String user) throws IOException {
+        ImportJobDto job = get(id);
+        int chunkSize = Math.min(Math.max(1, properties.chunkSize()), MAX_CHUNK_SIZE);
+        try (ImportReader reader = new ImportReader(job.format(), objectMapper, Files.newInputStream(file))) {
+            long read = reader.skip(job.recordsRead());
+            long start = System.nanoTime();
+            List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+            long chunkRejected = 0;
+            boolean end = false;
+            while (!end && !Thread.currentThread().isInterrupted()) {
+                try {
+                    ImportRecord record = reader.next();
+                    if (record == null) {
+                        end = true;
+                    } else {
+                        chunk.add(record);
+                        read++;
+                    }
+                } catch (InvalidRecordException e) {
+                    log.debug("Import {}: record {} rejected: {}", id, read + 1, e.getMessage());
+                    chunkRejected++;
+                    read++;
+                }
+                if (chunk.size() + chunkRejected >= chunkSize || end && (!chunk.isEmpty() || chunkRejected > 0)) {
+                    mergeChunk(id, chunk, read, chunkRejected, user);
+                    log.info("Import {}: {} records read, {} records/s", id, read,
+                        (read - job.recordsRead()) * 1_000_000_000L / Math.max(1, System.nanoTime() - start));
+                    chunk = new ArrayList<>(chunkSize);
+                    chunkRejected = 0;
+                }
+            }
+            if (!end) {
+                throw new IllegalStateException("Interrupted after " + read + " records");
+            }
+            return read;
+        }
+    }
+
+    private void mergeChunk(long id, List<ImportRecord> chunk, long read, long chunkRejected, String user) {
+        List<ImportRecord> records = withIds(chunk);
+        transactionTemplate.executeWithoutResult(status -> {
+            MergeResult result = records.isEmpty()
+                ? new MergeResult(List.of(), List.of(), List.of())
+                : catalogImportRepository.merge(records, user);
+            catalogImportRepository.checkpoint(id, read, result, chunkRejected);
+            // applied after commit, see the listeners of the events
+            if (!result.authorIds().isEmpty() || !result.genreIds().isEmpty()) {
+                eventPublisher.publishEvent(new ReferencesChangedEvent(result.authorIds(), result.genreIds()));
+            }
+            List<Long> bookIds = result.bookIds();
+            for (int from = 0; from < bookIds.size(); from += EVENT_BATCH) {
+                eventPublisher.publishEvent(new BooksChangedEvent(
+                    bookIds.subList(from, Math.min(from + EVENT_BATCH, bookIds.size()))));
+            }
+        });
+        merged.increment(records.size());
+        rejected.increment(chunkRejected);
+    }
+
+    /**
+     * Keeps the last record of every known book id, and gives every other record a fresh id.
+     */
+    private List<ImportRecord> withIds(List<ImportRecord> chunk) {
+        Set<Long> existing = catalogImportRepository.findExistingBookIds(
+            chunk.stream().map(ImportRecord::id).filter(bookId -> bookId != null).distinct().toList());
+        Map<Long, ImportRecord> updates = new LinkedHashMap<>();
+        List<ImportRecord> creates = new ArrayList<>();
+        for (ImportRecord record : chunk) {
+            if (record.id() != null && existing.contains(record.id())) {
+                updates.put(record.id(), record);
+            } else {
+                creates.add(record);
+            }
+        }
+        List<ImportRecord> records = new ArrayList<>(updates.values());
+        List<Long> ids = creates.isEmpty() ? List.of() : bookBulkRepository.reserveIds(creates.size());
+        for (int i = 0; i < creates.size(); i++) {
+            records.add(creates.get(i).withId(ids.get(i)));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.bookstore.service;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.example.bookstore.config.properties.SearchCacheProperties;
+import org.example.bookstore.event.AuthorChangedEvent;
+import org.example.bookstore.event.BookChangedEvent;
+import org.example.bookstore.event.BooksChangedEvent;
+import org.example.bookstore.event.GenreChangedEvent;
+import org.example.bookstore.event.ReferencesChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Counter of committed book, author and genre changes, the version of every search result.
+ *
+ * <p>The counter lives in this instance only, so {@link #current()} is prefixed with an id of the instance: versions
+ * of different instances, or of a restarted one, never compare equal. Counts after {@link BookSearchCacheEvictor}
+ * has run, so that a result tagged with a new version is never served from the cache of an older one.
+ *
+ * <p>Changes made on other instances are not counted; they reach the results of this one as its cached searches
+ * expire. The version therefore also moves on once per {@code app.search.cache.expire-after-write}.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String instance = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong changes = new AtomicLong();
+    private final long periodMillis;
+
+    public CatalogVersion(SearchCacheProperties properties) {
+        this.periodMillis = Math.max(1, properties.expireAfterWrite().toMillis());
+    }
+
+    public String current() {
+        return instance + "." + changes.get() + "." + System.currentTimeMillis() / periodMillis;
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksChanged(BooksChangedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGenreChanged(GenreChangedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferencesChanged(ReferencesChangedEvent event) {
+        changes.incrementAndGet();
+    }
+}
@@ -3,10 +3,14 @@ package org.example.bookstore.service;
 import jakarta.transaction.Transactional;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import lombok.RequiredArgsConstructor;
+import org.example.bookstore.config.database.ReadOnlyTransactional;
 import org.example.bookstore.entity.Genre;
+import org.example.bookstore.event.GenreChangedEvent;
 import org.example.bookstore.exception.BookstoreEntityNotFoundException;
 import org.example.bookstore.repository.GenreRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -16,26 +20,45 @@ import org.springframework.stereotype.Service;
 public class GenreService {
 
     private final GenreRepository genreRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Genre create(String name) {
         String n = normalize(name);
         Genre genre = Genre.builder().name(n).build();
-        return genreRepository.save(genre);
+        Genre saved = genreRepository.save(genre);
+        eventPublisher.publishEvent(new GenreChangedEvent(saved.getId()));
+        return saved;
     }
 
-    @Transactional
+    @ReadOnlyTransactional
     public Genre get(Long id) {
         return genreRepository.findById(id)
             .orElseThrow(() -> new BookstoreEntityNotFoundException(id, Genre.class));
     }
 
-    @Transactional
+    /**
+     * The genres that exist, read from the database rather than from the reference data snapshot: another instance
+     * may have created or deleted some since the snapshot was loaded. Meant for setting associations within a
+     * transaction.
+     */
+    @ReadOnlyTransactional
     public List<Genre> getAllByIds(Collection<Long> ids) {
-        return genreRepository.findAllById(ids);
+        return genreRepository.findAllById(ids.stream().filter(Objects::nonNull).toList());
     }
 
+    /**
+     * Reference to an existing genre, see {@link #getAllByIds}.
+     */
     @Transactional
+    public Genre getReference(Long id) {
+        if (!genreRepository.existsById(id)) {
+            throw new BookstoreEntityNotFoundException(id, Genre.class);
+        }
+        return genreRepository.getReferenceById(id);
+    }
+
+    @ReadOnlyTransactional
     public Page<Genre> list(Pageable pageable) {
         return genreRepository.findAll(pageable);
     }
@@ -45,13 +68,16 @@ public class GenreService {
         Genre existing = get(id);
         String n = normalize(newName);
         existing.setName(n);
-        return genreRepository.save(existing);
+        Genre saved = genreRepository.save(existing);
+        eventPublisher.publishEvent(new GenreChangedEvent(id));
+        return saved;
     }
 
     @Transactional
     public void delete(Long id) {
         get(id); // throws if not exists
         genreRepository.deleteById(id);
+        eventPublisher.publishEvent(new GenreChangedEvent(id));
     }
 
     private String normalize(String s) {
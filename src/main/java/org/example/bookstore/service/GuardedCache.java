@@ -0,0 +1,138 @@
+package org.example.bookstore.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+
+/**
+ * A Caffeine cache whose fills can not outlive an invalidation: a loader takes a {@link Stamp} before it reads, and
+ * its {@link #put} is dropped if the key was invalidated since. Without it, a load that read the old rows before a
+ * commit could store them after the after-commit eviction, and keep them until they expire.
+ *
+ * <p>The time of the last invalidation is kept per stripe of keys and for the cache as a whole; two keys sharing a
+ * stripe only cost each other a skipped fill. Every invalidation is recorded before the entries are removed, and a
+ * fill re-checks after storing its value, so either the fill sees the invalidation or the invalidation removes the
+ * fill.
+ *
+ * <p>A fill read from a lagging replica may still miss the commit behind an invalidation. Loaders therefore check
+ * {@link #isRecentlyInvalidated} and read from the primary within the replica lag.
+ */
+public final class GuardedCache {
+
+    private static final int STRIPES = 1_024;
+
+    private final Cache<Object, Object> cache;
+    private final long replicaLagNanos;
+    // nanoTime at construction minus one, so that every invalidation time is positive and 0 means none
+    private final long origin = System.nanoTime() - 1;
+    private final AtomicLongArray keyInvalidations = new AtomicLongArray(STRIPES);
+    private final AtomicLong allInvalidations = new AtomicLong();
+
+    /**
+     * Last invalidation times as seen by a loader before it read.
+     */
+    public record Stamp(int stripe, long key, long all) {
+    }
+
+    public GuardedCache(Cache<Object, Object> cache) {
+        this(cache, Duration.ZERO);
+    }
+
+    /**
+     * @param replicaLag how far behind the primary a replica may serve reads, zero without replica
+     */
+    public GuardedCache(Cache<Object, Object> cache, Duration replicaLag) {
+        this.cache = cache;
+        this.replicaLagNanos = replicaLag.toNanos();
+    }
+
+    public <V> V get(Object key, Class<V> type) {
+        Object value = cache.getIfPresent(key);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+
+    /**
+     * Takes the stamp for a fill of the key; must be taken before the value is read.
+     */
+    public Stamp stamp(Object key) {
+        int stripe = stripe(key);
+        return new Stamp(stripe, keyInvalidations.get(stripe), allInvalidations.get());
+    }
+
+    /**
+     * Whether the key was invalidated within the replica lag before the stamp was taken: a replica may not have
+     * replayed the change yet, so the fill should read from the primary.
+     */
+    public boolean isRecentlyInvalidated(Stamp stamp) {
+        long last = Math.max(stamp.key(), stamp.all());
+        return last != 0 && now() - last < replicaLagNanos;
+    }
+
+    /**
+     * Stores the value unless the key was invalidated after the stamp was taken.
+     *
+     * @return whether the value was stored
+     */
+    public boolean put(Stamp stamp, Object key, Object value) {
+        if (!isCurrent(stamp)) {
+            return false;
+        }
+        cache.put(key, value);
+        if (!isCurrent(stamp)) {
+            cache.invalidate(key);
+            return false;
+        }
+        return true;
+    }
+
+    public void invalidate(Object key) {
+        tick(stripe(key));
+        cache.invalidate(key);
+    }
+
+    public void invalidateAll(Collection<?> keys) {
+        keys.forEach(key -> tick(stripe(key)));
+        cache.invalidateAll(keys);
+    }
+
+    public void invalidateAll() {
+        allInvalidations.accumulateAndGet(now(), GuardedCache::next);
+        cache.invalidateAll();
+    }
+
+    /**
+     * Invalidates the entries whose values match; fills in flight are dropped whatever their key.
+     */
+    public void invalidateIf(Predicate<Object> value) {
+        allInvalidations.accumulateAndGet(now(), GuardedCache::next);
+        cache.asMap().values().removeIf(value);
+    }
+
+    private boolean isCurrent(Stamp stamp) {
+        return keyInvalidations.get(stamp.stripe()) == stamp.key() && allInvalidations.get() == stamp.all();
+    }
+
+    private void tick(int stripe) {
+        keyInvalidations.accumulateAndGet(stripe, now(), GuardedCache::next);
+    }
+
+    private long now() {
+        return System.nanoTime() - origin;
+    }
+
+    /**
+     * The current time, or one past the last invalidation if the clock has not advanced, so that every invalidation
+     * changes the value.
+     */
+    private static long next(long last, long now) {
+        return Math.max(last + 1, now);
+    }
+
+    private static int stripe(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
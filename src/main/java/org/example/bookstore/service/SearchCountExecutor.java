@@ -0,0 +1,105 @@
+package org.example.bookstore.service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookstore.config.database.PrimaryReads;
+import org.example.bookstore.config.database.ReadYourWrites;
+import org.example.bookstore.config.properties.SearchCountProperties;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs count queries on a bounded pool, each in a read-only transaction of its own and therefore on its own
+ * connection, so that a search can count while it loads the page.
+ *
+ * <p>The transaction sets {@code statement_timeout} to the wait timeout, to the millisecond: a count that is given up
+ * on is also cancelled in the database and gives its connection back. A client that disconnects is not noticed; its
+ * count ends with the search or at the timeout, whichever comes first.
+ */
+@Slf4j
+@Component
+public class SearchCountExecutor {
+
+    private static final String STATEMENT_TIMEOUT_SQL = "SELECT set_config('statement_timeout', :timeout, true)";
+
+    private final SearchCountProperties properties;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+
+    public SearchCountExecutor(SearchCountProperties properties, NamedParameterJdbcTemplate jdbc,
+                               PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.jdbc = jdbc;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+        this.executor = new ThreadPoolExecutor(properties.threads(), properties.threads(), 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(properties.threads() * 4), new CustomizableThreadFactory("search-count-"));
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public boolean isEnabled() {
+        return properties.parallel();
+    }
+
+    /**
+     * Starts the count.
+     *
+     * @return the pending count, {@code null} if the pool is saturated and the caller should count by itself
+     */
+    public Future<Long> start(Supplier<Long> count) {
+        try {
+            // the count runs on another thread; it reads from the primary if the search does
+            boolean primary = PrimaryReads.isActive() || ReadYourWrites.hasWritten();
+            Supplier<Long> counted = () -> transactionTemplate.execute(status -> {
+                // local to the transaction, like SET LOCAL: the pooled connection gets its default timeout back
+                jdbc.queryForObject(STATEMENT_TIMEOUT_SQL,
+                    Map.of("timeout", properties.timeout().toMillis() + "ms"), String.class);
+                return count.get();
+            });
+            return executor.submit(() -> primary ? PrimaryReads.call(counted) : counted.get());
+        } catch (RejectedExecutionException e) {
+            log.debug("Count pool saturated, counting on the request thread");
+            return null;
+        }
+    }
+
+    /**
+     * Waits for a started count.
+     *
+     * @return the count, {@code null} if it did not finish within the timeout; it is then cancelled
+     */
+    public Long await(Future<Long> count) {
+        try {
+            return count.get(properties.timeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Count did not finish within {}, returning the page without total", properties.timeout());
+            count.cancel(true);
+            return null;
+        } catch (InterruptedException e) {
+            count.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the count", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
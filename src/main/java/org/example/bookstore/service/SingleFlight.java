@@ -0,0 +1,102 @@
+package org.example.bookstore.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Coalesces concurrent calls with equal keys: the first caller executes, callers arriving while it runs wait for its
+ * result or exception instead of executing again. Nothing is kept once the call completes, so no result outlives
+ * its execution.
+ *
+ * <p>A waiting caller gives up after the timeout and executes by itself; the stuck call is then forgotten, so later
+ * callers do not join it either. {@link #forget()} makes all later callers start fresh calls, which is what a write
+ * needs: a call that started before the commit may return the old state.
+ *
+ * <p>Counts calls in {@code bookstore.single_flight.calls} by {@code name} and {@code outcome} ({@code executed},
+ * {@code coalesced}, {@code timeout}).
+ *
+ * @param <K> key, with value equality
+ * @param <V> result
+ */
+@Slf4j
+public final class SingleFlight<K, V> {
+
+    private final String name;
+    private final Duration timeout;
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+    private final Counter timedOut;
+
+    public SingleFlight(String name, Duration timeout, MeterRegistry registry) {
+        this.name = name;
+        this.timeout = timeout;
+        this.executed = counter(registry, name, "executed");
+        this.coalesced = counter(registry, name, "coalesced");
+        this.timedOut = counter(registry, name, "timeout");
+    }
+
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+        if (running == null) {
+            return lead(key, flight, call);
+        }
+        coalesced.increment();
+        try {
+            return running.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            log.warn("{} call for {} did not complete within {}, executing again", name, key, timeout);
+            inFlight.remove(key, running);
+            return execute(key, call);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + name, e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Stops later callers from joining the calls in flight.
+     */
+    public void forget() {
+        inFlight.clear();
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private V lead(K key, CompletableFuture<V> flight, Supplier<V> call) {
+        executed.increment();
+        try {
+            V result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String name, String outcome) {
+        return Counter.builder("bookstore.single_flight.calls")
+            .description("Calls executed, joined to a call in flight, or executed again after waiting too long")
+            .tag("name", name)
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+}
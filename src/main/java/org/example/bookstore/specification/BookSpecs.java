@@ -1,19 +1,59 @@
 package org.example.bookstore.specification;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Subquery;
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import org.example.bookstore.entity.Author;
 import org.example.bookstore.entity.Book;
+import org.example.bookstore.entity.Genre;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaExpression;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 public final class BookSpecs {
 
+    /**
+     * Escape character for LIKE patterns built from user input.
+     */
+    private static final char LIKE_ESCAPE = '\\';
+
+    /**
+     * Scalar attributes results can be sorted (and keyset paged) by.
+     */
+    public static final Set<String> SORTABLE_PROPERTIES =
+        Set.of("id", "title", "price", "quantity", "rating", "createdAt", "updatedAt");
+
+    /**
+     * Sortable attributes whose columns are {@code NOT NULL}.
+     */
+    private static final Set<String> NOT_NULL_PROPERTIES = Set.of("id", "title", "createdAt", "updatedAt");
+
     private BookSpecs() {
     }
 
+    /**
+     * Case-insensitive substring match on the title, served by the {@code idx_book_title_trgm} trigram index.
+     */
     public static Specification<Book> titleContains(String q) {
         return (root, cq, cb) ->
-            isBlank(q) ? null : cb.like(cb.lower(root.get("title")), "%" + q.toLowerCase() + "%");
+            isBlank(q) ? null : cb.like(cb.lower(root.get("title")), containsPattern(q), LIKE_ESCAPE);
+    }
+
+    /**
+     * Typo-tolerant title match: some word sequence of the title is trigram-similar to the term, see
+     * {@code fuzzy_word_match}. Served by the {@code idx_book_title_trgm} trigram index.
+     */
+    public static Specification<Book> titleSimilar(String q) {
+        return (root, cq, cb) -> isBlank(q) ? null : fuzzyMatch(cb, q, cb.lower(root.get("title")));
     }
 
     public static Specification<Book> priceBetween(BigDecimal min, BigDecimal max) {
@@ -82,14 +122,17 @@ public final class BookSpecs {
     }
 
     // --- Authors (many-to-many) ---
+    // relation filters are correlated EXISTS semi-joins: a book matches at most once, so no DISTINCT is needed and
+    // combining filters does not multiply rows
+
     public static Specification<Book> authorIdsAny(Collection<Long> ids) {
         return (root, cq, cb) -> {
             if (ids == null || ids.isEmpty()) {
                 return null;
             }
-            var authors = root.joinSet("authors");
-            cq.distinct(true);
-            return authors.get("id").in(ids);
+            Subquery<Long> sq = cq.subquery(Long.class);
+            Join<Book, Author> a = sq.correlate(root).join("authors");
+            return cb.exists(sq.select(a.get("id")).where(a.get("id").in(ids)));
         };
     }
 
@@ -98,22 +141,47 @@ public final class BookSpecs {
             if (names == null || names.isEmpty()) {
                 return null;
             }
-            var a = root.joinSet("authors");
-            cq.distinct(true);
-            // match first, last, or "first last"
+            Subquery<Long> sq = cq.subquery(Long.class);
+            Join<Book, Author> a = sq.correlate(root).join("authors");
+            // match first, last, or "first last"; each expression mirrors one of the author trigram indexes
+            Expression<String> fullName =
+                cb.function("author_full_name", String.class, a.get("firstName"), a.get("lastName"));
             var or = cb.disjunction();
             for (String n : names) {
                 if (isBlank(n)) {
                     continue;
                 }
-                String like = "%" + n.toLowerCase() + "%";
+                String like = containsPattern(n);
                 or = cb.or(or,
-                    cb.like(cb.lower(a.get("firstName")), like),
-                    cb.like(cb.lower(a.get("lastName")), like),
-                    cb.like(cb.lower(cb.concat(cb.concat(a.get("firstName"), " "), a.get("lastName"))), like)
+                    cb.like(cb.lower(a.get("firstName")), like, LIKE_ESCAPE),
+                    cb.like(cb.lower(a.get("lastName")), like, LIKE_ESCAPE),
+                    cb.like(cb.lower(fullName), like, LIKE_ESCAPE)
                 );
             }
-            return or;
+            return cb.exists(sq.select(a.get("id")).where(or));
+        };
+    }
+
+    /**
+     * Typo-tolerant variant of {@link #authorNamesAny}: any of the names is trigram-similar to part of the author's
+     * full name, which covers first and last names alone. Served by {@code idx_author_full_name_trgm}.
+     */
+    public static Specification<Book> authorNamesSimilar(Collection<String> names) {
+        return (root, cq, cb) -> {
+            if (names == null || names.isEmpty()) {
+                return null;
+            }
+            Subquery<Long> sq = cq.subquery(Long.class);
+            Join<Book, Author> a = sq.correlate(root).join("authors");
+            Expression<String> fullName =
+                cb.lower(cb.function("author_full_name", String.class, a.get("firstName"), a.get("lastName")));
+            var or = cb.disjunction();
+            for (String n : names) {
+                if (!isBlank(n)) {
+                    or = cb.or(or, fuzzyMatch(cb, n, fullName));
+                }
+            }
+            return cb.exists(sq.select(a.get("id")).where(or));
         };
     }
 
@@ -123,9 +191,9 @@ public final class BookSpecs {
             if (ids == null || ids.isEmpty()) {
                 return null;
             }
-            var g = root.joinSet("genres");
-            cq.distinct(true);
-            return g.get("id").in(ids);
+            Subquery<Long> sq = cq.subquery(Long.class);
+            Join<Book, Genre> g = sq.correlate(root).join("genres");
+            return cb.exists(sq.select(g.get("id")).where(g.get("id").in(ids)));
         };
     }
 
@@ -134,20 +202,106 @@ public final class BookSpecs {
             if (names == null || names.isEmpty()) {
                 return null;
             }
-            var g = root.joinSet("genres");
-            cq.distinct(true);
+            Subquery<Long> sq = cq.subquery(Long.class);
+            Join<Book, Genre> g = sq.correlate(root).join("genres");
             var or = cb.disjunction();
             for (String n : names) {
                 if (isBlank(n)) {
                     continue;
                 }
-                String like = "%" + n.toLowerCase() + "%";
-                or = cb.or(or, cb.like(cb.lower(g.get("name")), like));
+                or = cb.or(or, cb.like(cb.lower(g.get("name")), containsPattern(n), LIKE_ESCAPE));
             }
-            return or;
+            return cb.exists(sq.select(g.get("id")).where(or));
         };
     }
 
+    // --- Keyset paging ---
+
+    /**
+     * Restricts results to rows that come strictly after the given sort key values.
+     *
+     * <p>When all orders share one direction and all keys are {@code NOT NULL}, as for the default sort by id, the
+     * seek is a row-value comparison {@code (k1, k2, ...) > (v1, v2, ...)}. When an index leads with the same
+     * columns (book_pkey for id), PostgreSQL starts its range scan there, so a late page does not read the rows of the
+     * earlier ones. Otherwise it expands to
+     * {@code (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ...}, which avoids the OFFSET but is applied as a filter. Nulls are
+     * treated as the largest value, which matches PostgreSQL ordering when no NULLS FIRST/LAST is given. The sort must
+     * end with a unique key (id) for the seek to be stable.
+     *
+     * @param sort   ordering of the query, one value per order
+     * @param values sort key values of the last row of the previous page, {@code null} for the first page
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Book> seekAfter(Sort sort, List<Object> values) {
+        return (root, cq, cb) -> {
+            if (values == null) {
+                return null;
+            }
+            List<Sort.Order> orders = sort.toList();
+            if (cb instanceof HibernateCriteriaBuilder hcb && isRowComparable(orders, values)) {
+                List<JpaExpression<?>> keys = new ArrayList<>();
+                List<JpaExpression<?>> bounds = new ArrayList<>();
+                for (int i = 0; i < orders.size(); i++) {
+                    keys.add((JpaExpression<?>) root.get(orders.get(i).getProperty()));
+                    bounds.add(hcb.literal(values.get(i)));
+                }
+                Expression<Comparable> row = (Expression) hcb.tuple(Object[].class, keys);
+                Expression<Comparable> bound = (Expression) hcb.tuple(Object[].class, bounds);
+                return orders.get(0).isAscending() ? hcb.greaterThan(row, bound) : hcb.lessThan(row, bound);
+            }
+            Predicate seek = cb.disjunction();
+            Predicate ties = cb.conjunction();
+            for (int i = 0; i < orders.size(); i++) {
+                Sort.Order order = orders.get(i);
+                Expression<Comparable> key = root.get(order.getProperty());
+                Comparable value = (Comparable) values.get(i);
+                boolean nullable = !NOT_NULL_PROPERTIES.contains(order.getProperty());
+                seek = cb.or(seek, cb.and(ties, after(cb, key, value, order.isAscending(), nullable)));
+                ties = cb.and(ties, value == null ? cb.isNull(key) : cb.equal(key, value));
+            }
+            return seek;
+        };
+    }
+
+    private static boolean isRowComparable(List<Sort.Order> orders, List<Object> values) {
+        Sort.Direction direction = orders.get(0).getDirection();
+        for (int i = 0; i < orders.size(); i++) {
+            Sort.Order order = orders.get(i);
+            if (order.getDirection() != direction || !NOT_NULL_PROPERTIES.contains(order.getProperty())
+                || values.get(i) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(CriteriaBuilder cb, Expression<Comparable> key, Comparable value,
+                                   boolean ascending, boolean nullable) {
+        if (ascending) {
+            if (value == null) {
+                return cb.disjunction();
+            }
+            return nullable ? cb.or(cb.greaterThan(key, value), cb.isNull(key)) : cb.greaterThan(key, value);
+        }
+        return value == null ? cb.isNotNull(key) : cb.lessThan(key, value);
+    }
+
+    private static Predicate fuzzyMatch(CriteriaBuilder cb, String q, Expression<String> haystack) {
+        return cb.isTrue(cb.function("fuzzy_word_match", Boolean.class, cb.literal(q.trim().toLowerCase()), haystack));
+    }
+
+    /**
+     * Builds a lower-cased {@code %q%} pattern, escaping LIKE wildcards in the user input.
+     */
+    private static String containsPattern(String q) {
+        String escaped = q.toLowerCase()
+            .replace(String.valueOf(LIKE_ESCAPE), String.valueOf(LIKE_ESCAPE) + LIKE_ESCAPE)
+            .replace("%", LIKE_ESCAPE + "%")
+            .replace("_", LIKE_ESCAPE + "_");
+        return "%" + escaped + "%";
+    }
+
     private static boolean isBlank(String s) {
         return s == null || s.trim().isEmpty();
     }
@@ -0,0 +1,19 @@
+package org.example.bookstore;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+/**
+ * Benchmark test class or method. Not part of the regular build; run with
+ * {@code BOOKSTORE_BENCHMARK=true ./gradlew integrationTest --tests '<test class>'}.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@EnabledIfEnvironmentVariable(named = "BOOKSTORE_BENCHMARK", matches = "true")
+public @interface Benchmark {
+}
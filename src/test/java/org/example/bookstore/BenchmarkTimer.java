@@ -0,0 +1,52 @@
+package org.example.bookstore;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Timing helpers for {@link Benchmark} tests: wall-clock time per round, percentiles and the environment to log with
+ * them, so that logged results can be compared between runs.
+ */
+public final class BenchmarkTimer {
+
+    private BenchmarkTimer() {
+    }
+
+    /**
+     * Runs the call and records its duration in {@code nanos[round]}. Negative rounds are warm-up and not recorded.
+     */
+    public static <T> T time(Supplier<T> call, long[] nanos, int round) {
+        long start = System.nanoTime();
+        T result = call.get();
+        if (round >= 0) {
+            nanos[round] = System.nanoTime() - start;
+        }
+        return result;
+    }
+
+    /**
+     * Nearest-rank percentile of the recorded durations, {@code p} in (0, 1].
+     */
+    public static long percentile(long[] nanos, double p) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * p) - 1];
+    }
+
+    /**
+     * p50 and p99 of the recorded durations in microseconds.
+     */
+    public static String summary(long[] nanos) {
+        return "p50 %d us, p99 %d us".formatted(percentile(nanos, 0.5) / 1_000, percentile(nanos, 0.99) / 1_000);
+    }
+
+    /**
+     * Hardware and JVM the benchmark ran on. The database container shares the same host.
+     */
+    public static String environment() {
+        Runtime runtime = Runtime.getRuntime();
+        return "%d CPUs, %s %s, Java %s, max heap %d MB".formatted(runtime.availableProcessors(),
+            System.getProperty("os.name"), System.getProperty("os.arch"), Runtime.version(),
+            runtime.maxMemory() / (1024 * 1024));
+    }
+}
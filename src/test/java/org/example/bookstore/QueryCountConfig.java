@@ -0,0 +1,114 @@
+package org.example.bookstore;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Wraps the application data source so that tests can assert the number of executed statements
+ * with {@code QueryCountHolder} and inspect the executed SQL with {@link #executedQueries()}.
+ * Counts and queries are collected per thread; statements of other threads, such as pools a request hands work to,
+ * are counted with {@link #statementsOnThreads(String)}.
+ */
+@TestConfiguration
+public class QueryCountConfig {
+
+    private static final ThreadLocal<List<ExecutedQuery>> EXECUTED = ThreadLocal.withInitial(ArrayList::new);
+    private static final Map<String, AtomicLong> BY_THREAD = new ConcurrentHashMap<>();
+
+    @Bean
+    static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .countQuery()
+                        .listener(new RecordingListener())
+                        .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Statements executed by the current thread since the last {@link #clearExecutedQueries()}.
+     */
+    public static List<ExecutedQuery> executedQueries() {
+        return List.copyOf(EXECUTED.get());
+    }
+
+    public static void clearExecutedQueries() {
+        EXECUTED.get().clear();
+    }
+
+    /**
+     * Statements executed by any thread whose name starts with the prefix since the last
+     * {@link #clearStatementsOnThreads()}.
+     */
+    public static long statementsOnThreads(String prefix) {
+        return BY_THREAD.entrySet().stream()
+            .filter(e -> e.getKey().startsWith(prefix))
+            .mapToLong(e -> e.getValue().get())
+            .sum();
+    }
+
+    public static void clearStatementsOnThreads() {
+        BY_THREAD.clear();
+    }
+
+    /**
+     * An executed statement with the parameters of its first execution.
+     */
+    public record ExecutedQuery(String sql, List<ParameterSetOperation> parameters) {
+
+        /**
+         * Binds the recorded parameters to a statement prepared from the same (or a prefixed) SQL.
+         */
+        public void bind(PreparedStatement ps) throws SQLException {
+            for (ParameterSetOperation op : parameters) {
+                Object[] args = op.getArgs();
+                int index = (Integer) args[0];
+                if ("setNull".equals(op.getMethod().getName())) {
+                    ps.setNull(index, (Integer) args[1]);
+                } else {
+                    ps.setObject(index, args[1]);
+                }
+            }
+        }
+    }
+
+    private static final class RecordingListener implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            BY_THREAD.computeIfAbsent(Thread.currentThread().getName(), name -> new AtomicLong())
+                .addAndGet(queryInfoList.size());
+            for (QueryInfo query : queryInfoList) {
+                List<List<ParameterSetOperation>> parameters = query.getParametersList();
+                EXECUTED.get().add(new ExecutedQuery(query.getQuery(),
+                    parameters.isEmpty() ? List.of() : List.copyOf(parameters.get(0))));
+            }
+        }
+    }
+}
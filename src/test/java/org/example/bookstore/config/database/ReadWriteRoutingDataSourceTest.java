@@ -0,0 +1,56 @@
+package org.example.bookstore.config.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final ReplicaLagMonitor lagMonitor = mock(ReplicaLagMonitor.class);
+    private final ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(mock(DataSource.class),
+        mock(DataSource.class), lagMonitor);
+
+    @AfterEach
+    void clear() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    @DisplayName("read-only transactions go to a usable replica, unless the reads must see recent commits")
+    void read_only_routing() {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        readOnlyTransaction();
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.REPLICA);
+        assertThat(PrimaryReads.call(routing::determineCurrentLookupKey)).isEqualTo(DataSourceRoute.PRIMARY);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.REPLICA);
+
+        ReadYourWrites.markWritten();
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("a lagging replica and read-write transactions use the primary")
+    void primary_routing() {
+        when(lagMonitor.isReplicaUsable()).thenReturn(false);
+        readOnlyTransaction();
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.PRIMARY);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(DataSourceRoute.PRIMARY);
+        assertThat(ReadYourWrites.hasWritten()).isTrue();
+    }
+
+    private static void readOnlyTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+}
@@ -1,10 +1,13 @@
 package org.example.bookstore.controller;
 
 import org.example.bookstore.SharedPostgresqlContainer;
+import org.example.bookstore.reference.ReferenceData;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -28,8 +31,19 @@ public abstract class AbstractIT {
     protected MockMvc mvc;
     @Autowired
     protected JdbcTemplate jdbc;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private ReferenceData referenceData;
 
     @Container
     private static final SharedPostgresqlContainer POSTGRESQL_CONTAINER = SharedPostgresqlContainer.getInstance();
 
+    @BeforeEach
+    void clearCaches() {
+        // test data is seeded behind the application's back
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        referenceData.reload();
+    }
+
 }
\ No newline at end of file
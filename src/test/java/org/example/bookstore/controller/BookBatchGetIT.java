@@ -0,0 +1,81 @@
+package org.example.bookstore.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.example.bookstore.QueryCountConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * POST /api/books/batch-get:
+ * - books in request order, missing ids listed
+ * - three statements for any number of books, none for cached ones.
+ */
+@Sql(
+    scripts = {
+        "/testdata/cleanup.sql",
+        "/testdata/search-seed.sql"
+    },
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+@Import(QueryCountConfig.class)
+class BookBatchGetIT extends AbstractIT {
+
+    private static final String USER = "user";
+    private static final String PASS = "user123";
+
+    @Test
+    @DisplayName("request order, missing ids, three statements")
+    void batch_get() throws Exception {
+        QueryCountHolder.clear();
+        batchGet("{\"ids\":[105, 999, 100, 103, 105]}")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.books[*].title", contains("American Gods", "Good Omens", "Effective Java")))
+            .andExpect(jsonPath("$.books[1].authors[*].lastName", contains("Pratchett", "Gaiman")))
+            .andExpect(jsonPath("$.books[2].genres[0].name").value("Programming"))
+            .andExpect(jsonPath("$.missingIds", contains(999)));
+        assertThat(QueryCountHolder.getGrandTotal().getSelect()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("books cached by GET /api/books/{id} are reused, and batch results are cached for it")
+    void shares_book_cache() throws Exception {
+        mvc.perform(get("/api/books/{id}", 100L).with(httpBasic(USER, PASS))).andExpect(status().isOk());
+
+        QueryCountHolder.clear();
+        batchGet("{\"ids\":[100]}")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.books[0].title").value("Good Omens"));
+        assertThat(QueryCountHolder.getGrandTotal().getSelect()).isZero();
+
+        batchGet("{\"ids\":[101]}").andExpect(status().isOk());
+        QueryCountHolder.clear();
+        batchGet("{\"ids\":[101, 100]}")
+            .andExpect(jsonPath("$.books[*].title", contains("Guards! Guards!", "Good Omens")));
+        assertThat(QueryCountHolder.getGrandTotal().getSelect()).isZero();
+    }
+
+    @Test
+    @DisplayName("null ids are rejected")
+    void null_id() throws Exception {
+        batchGet("{\"ids\":[100, null]}").andExpect(status().isBadRequest());
+    }
+
+    private ResultActions batchGet(String body) throws Exception {
+        return mvc.perform(post("/api/books/batch-get")
+            .with(httpBasic(USER, PASS))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(body));
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.bookstore.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * POST /api/books/bulk:
+ * - valid items are created with their authors and genres, invalid ones are reported per item
+ * - ids from the pooled sequence never collide with books created through JPA.
+ */
+@Sql(
+    scripts = {
+        "/testdata/cleanup.sql",
+        "/testdata/search-seed.sql"
+    },
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+class BookBulkCreateIT extends AbstractIT {
+
+    private static final String ADMIN = "admin";
+    private static final String APASS = "admin123";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("per-item report; created books are readable and searchable")
+    void mixed_items() throws Exception {
+        String body = bulkCreate("""
+            { "books": [
+                { "title": "Small Gods", "price": 9.99, "quantity": 3, "authorIds": [10], "genreIds": [20] },
+                { "title": " ", "price": 5.00 },
+                { "title": "Stardust", "authorIds": [11, 99] }
+            ] }
+            """)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created").value(1))
+            .andExpect(jsonPath("$.failed").value(2))
+            .andExpect(jsonPath("$.items[*].index", contains(0, 1, 2)))
+            .andExpect(jsonPath("$.items[0].error").value(nullValue()))
+            .andExpect(jsonPath("$.items[1].id").value(nullValue()))
+            .andExpect(jsonPath("$.items[1].error", containsString("title")))
+            .andExpect(jsonPath("$.items[2].error").value("authorIds: unknown [99]"))
+            .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(body).at("/items/0/id").asLong();
+
+        mvc.perform(get("/api/books/{id}", id).with(httpBasic("user", "user123")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Small Gods"))
+            .andExpect(jsonPath("$.authors[*].lastName", contains("Pratchett")))
+            .andExpect(jsonPath("$.genres[*].name", contains("Fantasy")));
+        mvc.perform(post("/api/books/search")
+                .with(httpBasic("user", "user123"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{ \"title\": \"small gods\" }"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].id", contains((int) id)));
+        assertThat(jdbc.queryForObject("SELECT created_by FROM book WHERE id = ?", String.class, id))
+            .isEqualTo(ADMIN);
+    }
+
+    @Test
+    @DisplayName("bulk and single creations draw distinct ids from the same sequence")
+    void ids_from_pooled_sequence() throws Exception {
+        long first = createOne("Mort");
+        String items = IntStream.range(0, 120)
+            .mapToObj(i -> "{ \"title\": \"Generated " + i + "\", \"genreIds\": [21] }")
+            .collect(Collectors.joining(","));
+        JsonNode report = objectMapper.readTree(bulkCreate("{ \"books\": [" + items + "] }")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created").value(120))
+            .andReturn().getResponse().getContentAsString());
+        long last = createOne("Eric");
+
+        List<Long> ids = new ArrayList<>();
+        ids.add(first);
+        report.get("items").forEach(item -> ids.add(item.get("id").asLong()));
+        ids.add(last);
+        Set<Long> distinct = new HashSet<>(ids);
+        assertThat(distinct).hasSize(122).allMatch(id -> id > 106);
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM book_genre WHERE genre_id = 21", Long.class))
+            .isEqualTo(120);
+    }
+
+    @Test
+    @DisplayName("an empty request is rejected")
+    void empty() throws Exception {
+        bulkCreate("{ \"books\": [] }").andExpect(status().isBadRequest());
+    }
+
+    private long createOne(String title) throws Exception {
+        String body = mvc.perform(post("/api/books")
+                .with(httpBasic(ADMIN, APASS))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{ \"title\": \"" + title + "\" }"))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private ResultActions bulkCreate(String body) throws Exception {
+        return mvc.perform(post("/api/books/bulk")
+            .with(httpBasic(ADMIN, APASS))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(body));
+    }
+}
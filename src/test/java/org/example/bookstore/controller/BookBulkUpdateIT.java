@@ -0,0 +1,101 @@
+package org.example.bookstore.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * PATCH /api/books/bulk:
+ * - items set the given values, rules adjust the matching books
+ * - only changed books get a new updatedAt and updatedBy; counts and failed ids are reported.
+ */
+@Sql(
+    scripts = {
+        "/testdata/cleanup.sql",
+        "/testdata/search-seed.sql"
+    },
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+class BookBulkUpdateIT extends AbstractIT {
+
+    private static final String ADMIN = "admin";
+    private static final String APASS = "admin123";
+
+    @Test
+    @DisplayName("items: changed books are written, unchanged ones untouched, invalid and unknown ids reported")
+    void items() throws Exception {
+        bulkUpdate("""
+            { "items": [
+                { "id": 100, "price": 14.00, "quantity": 9 },
+                { "id": 101, "price": 10.99 },
+                { "id": 102, "rating": -1 },
+                { "id": 999, "quantity": 1 },
+                { "price": 1.00 }
+            ] }
+            """)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.updated").value(1))
+            .andExpect(jsonPath("$.unchanged").value(1))
+            .andExpect(jsonPath("$.failed").value(3))
+            .andExpect(jsonPath("$.failedIds", contains(102, 999)));
+
+        Map<String, Object> changed = jdbc.queryForMap("SELECT * FROM book WHERE id = 100");
+        assertThat(changed.get("price")).isEqualTo(new BigDecimal("14.00"));
+        assertThat(changed.get("quantity")).isEqualTo(9);
+        assertThat(changed.get("rating")).isEqualTo(new BigDecimal("4.80"));
+        assertThat(changed.get("updated_by")).isEqualTo(ADMIN);
+        assertThat(changed.get("created_by")).isEqualTo("seed");
+        assertThat(jdbc.queryForList("SELECT id FROM book WHERE updated_by <> 'seed'", Long.class))
+            .isEqualTo(List.of(100L));
+        mvc.perform(get("/api/books/{id}", 100).with(httpBasic("user", "user123")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.price").value(14.0));
+    }
+
+    @Test
+    @DisplayName("rule: +10% price and -5 stock for the books of a genre")
+    void rule() throws Exception {
+        bulkUpdate("""
+            { "rule": { "pricePercent": 10, "quantityDelta": -5, "genreIds": [22] } }
+            """)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.updated").value(2))
+            .andExpect(jsonPath("$.failed").value(0));
+
+        assertThat(jdbc.queryForList("SELECT price FROM book WHERE id IN (103, 104) ORDER BY id", BigDecimal.class))
+            .containsExactly(new BigDecimal("43.99"), new BigDecimal("48.40"));
+        assertThat(jdbc.queryForList("SELECT quantity FROM book WHERE id IN (103, 104) ORDER BY id", Integer.class))
+            .containsExactly(0, 0);
+        assertThat(jdbc.queryForList("SELECT id FROM book WHERE updated_by = 'admin' ORDER BY id", Long.class))
+            .containsExactly(103L, 104L);
+    }
+
+    @Test
+    @DisplayName("a rule must change something and name known genres; items and rule exclude each other")
+    void invalid_requests() throws Exception {
+        bulkUpdate("{ \"rule\": { \"genreIds\": [22] } }").andExpect(status().isBadRequest());
+        bulkUpdate("{ \"rule\": { \"pricePercent\": 5, \"genreIds\": [99] } }").andExpect(status().isBadRequest());
+        bulkUpdate("{ \"rule\": { \"pricePercent\": -101 } }").andExpect(status().isBadRequest());
+        bulkUpdate("{ \"items\": [], \"rule\": { \"quantityDelta\": 1 } }").andExpect(status().isBadRequest());
+    }
+
+    private ResultActions bulkUpdate(String body) throws Exception {
+        return mvc.perform(patch("/api/books/bulk")
+            .with(httpBasic(ADMIN, APASS))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(body));
+    }
+}
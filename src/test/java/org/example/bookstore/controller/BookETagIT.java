@@ -0,0 +1,134 @@
+package org.example.bookstore.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.example.bookstore.QueryCountConfig;
+import org.example.bookstore.service.AuthorService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Conditional requests:
+ * - a cached book answers 304 to its current ETag without statements
+ * - book, association and author changes produce a new book ETag
+ * - search ETags follow the catalog version, compare weakly and are answered without searching.
+ */
+@Sql(
+    scripts = {
+        "/testdata/cleanup.sql",
+        "/testdata/search-seed.sql"
+    },
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+@Import(QueryCountConfig.class)
+class BookETagIT extends AbstractIT {
+
+    private static final String USER = "user";
+    private static final String PASS = "user123";
+    private static final String ADMIN = "admin";
+    private static final String APASS = "admin123";
+    private static final String SEARCH = """
+        { "genreNames": ["Fantasy"], "page": 0, "size": 2 }
+        """;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Test
+    @DisplayName("book: 304 for the current ETag, answered from the cache")
+    void book_not_modified() throws Exception {
+        String etag = bookEtag(100L);
+
+        QueryCountHolder.clear();
+        mvc.perform(get("/api/books/{id}", 100L)
+                .with(httpBasic(USER, PASS))
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag))
+            .andExpect(content().string(""));
+        assertThat(QueryCountHolder.getGrandTotal().getSelect()).isZero();
+    }
+
+    @Test
+    @DisplayName("book: patch, author replacement and author rename change the ETag")
+    void book_changes() throws Exception {
+        String initial = bookEtag(100L);
+
+        mvc.perform(patch("/api/books/{id}", 100L)
+                .with(httpBasic(ADMIN, APASS))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"price\": 13.00}"))
+            .andExpect(status().isOk());
+        String patched = bookEtag(100L);
+        assertThat(patched).isNotEqualTo(initial);
+
+        mvc.perform(put("/api/books/{bookId}/authors", 100L)
+                .with(httpBasic(ADMIN, APASS))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[10]}"))
+            .andExpect(status().isNoContent());
+        String relinked = bookEtag(100L);
+        assertThat(relinked).isNotEqualTo(patched);
+
+        authorService.update(10L, "Terence", "Pratchett");
+        assertThat(bookEtag(100L)).isNotEqualTo(relinked);
+    }
+
+    @Test
+    @DisplayName("search: 304 without searching until the catalog changes, weak tags match")
+    void search_catalog_changes() throws Exception {
+        String etag = search(null)
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"");
+
+        QueryCountHolder.clear();
+        search(etag).andExpect(status().isNotModified());
+        search("W/\"other\", W/" + etag).andExpect(status().isNotModified());
+        assertThat(QueryCountHolder.getGrandTotal().getSelect()).isZero();
+
+        mvc.perform(put("/api/books/{bookId}/genres", 103L)
+                .with(httpBasic(ADMIN, APASS))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[20, 22]}"))
+            .andExpect(status().isNoContent());
+        search(etag)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(6))
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    private String bookEtag(long id) throws Exception {
+        return mvc.perform(get("/api/books/{id}", id).with(httpBasic(USER, PASS)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private ResultActions search(String ifNoneMatch) throws Exception {
+        var request = post("/api/books/search")
+            .with(httpBasic(USER, PASS))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(SEARCH);
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mvc.perform(request);
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.bookstore.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Streams search results:
+ * - NDJSON, one search result per line, all matches regardless of page size
+ * - CSV with a header row and joined authors and genres
+ * - an invalid request is a 400, not a truncated 200.
+ */
+@Sql(
+    scripts = {
+        "/testdata/cleanup.sql",
+        "/testdata/search-seed.sql"
+    },
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+class BookExportIT extends AbstractIT {
+
+    private static final String USER = "user";
+    private static final String PASS = "user123";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("NDJSON: every match in the requested order, page size is ignored")
+    void ndjson() throws Exception {
+        String body = export("NDJSON", """
+            {
+              "genreIds": [20],
+              "sort": { "orders": [ { "property": "title", "direction": "ASC" } ] },
+              "page": 0, "size": 2
+            }
+            """, "application/x-ndjson");
+
+        List<JsonNode> lines = body.lines().map(this::json).toList();
+        assertThat(lines).extracting(line -> line.get("title").asText())
+            .containsExactly("American Gods", "Good Omens", "Guards! Guards!", "Neverwhere", "The Blade Itself");
+        assertThat(lines.get(1).get("authors")).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("CSV: header, plain decimals, joined relations")
+    void csv() throws Exception {
+        String body = export("CSV", """
+            { "title": "guards" }
+            """, "text/csv");
+
+        assertThat(body.lines()).containsExactly(
+            "id,title,price,quantity,rating,authors,genres",
+            "101,Guards! Guards!,10.99,7,4.6,Terry Pratchett,Fantasy");
+    }
+
+    @Test
+    @DisplayName("an unsupported sort is rejected before streaming starts")
+    void invalid_sort() throws Exception {
+        mvc.perform(post("/api/books/export")
+                .with(httpBasic(USER, PASS))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{ \"sort\": { \"orders\": [ { \"property\": \"authors\", \"direction\": \"ASC\" } ] } }"))
+            .andExpect(request().asyncNotStarted())
+            .andExpect(status().isBadRequest());
+    }
+
+    private String export(String format, String body, String contentType) throws Exception {
+        MvcResult result = mvc.perform(post("/api/books/export")
+                .param("format", format)
+                .with(httpBasic(USER, PASS))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(contentType));
+        return result.getResponse().getContentAsString();
+    }
+
+    private JsonNode json(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
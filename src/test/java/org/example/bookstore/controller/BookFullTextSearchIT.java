@@ -0,0 +1,135 @@
+package org.example.bookstore.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Verifies ranked full-text search:
+ * - title, author and genre names are searchable
+ * - title matches rank above author and genre matches
+ * - keyset paging by rank
+ * - search_vector follows association and name changes.
+ */
+@Sql(
+    scripts = {
+        "/testdata/cleanup.sql",
+        "/testdata/search-seed.sql"
+    },
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+class BookFullTextSearchIT extends AbstractIT {
+
+    private static final String USER = "user";
+    private static final String PASS = "user123";
+    private static final String ADMIN = "admin";
+    private static final String APASS = "admin123";
+
+    @Test
+    @DisplayName("author names are searchable")
+    void matches_author_names() throws Exception {
+        search("{\"query\": \"Gaiman\", \"size\": 10}")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].title",
+                containsInAnyOrder("Good Omens", "American Gods", "Neverwhere")))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("results are ordered by rank: title and author match beats author-only match")
+    void ordered_by_rank() throws Exception {
+        search("{\"query\": \"neverwhere or gaiman\", \"size\": 10}")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(3)))
+            .andExpect(jsonPath("$.content[0].title").value("Neverwhere"));
+    }
+
+    @Test
+    @DisplayName("keyset paging walks all matches exactly once")
+    void keyset_paging_walk() throws Exception {
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String body = cursor == null
+                ? "{\"query\": \"fantasy\", \"size\": 2}"
+                : "{\"query\": \"fantasy\", \"size\": 2, \"cursor\": \"" + cursor + "\"}";
+            String json = search(body)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            titles.addAll(JsonPath.read(json, "$.content[*].title"));
+            cursor = JsonPath.read(json, "$.nextCursor");
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(titles).containsExactlyInAnyOrder(
+            "Good Omens", "Guards! Guards!", "The Blade Itself", "American Gods", "Neverwhere");
+    }
+
+    @Test
+    @DisplayName("cursor from another query is rejected")
+    void cursor_of_other_query_400() throws Exception {
+        String json = search("{\"query\": \"fantasy\", \"size\": 2}")
+            .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(json, "$.nextCursor");
+
+        search("{\"query\": \"gaiman\", \"size\": 2, \"cursor\": \"" + cursor + "\"}")
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("replacing authors updates the search vector")
+    void follows_author_replacement() throws Exception {
+        mvc.perform(put("/api/books/{bookId}/authors", 100L)
+                .with(httpBasic(ADMIN, APASS))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[12]}"))
+            .andExpect(status().isNoContent());
+
+        search("{\"query\": \"pratchett\", \"size\": 10}")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].title", containsInAnyOrder("Guards! Guards!")));
+        search("{\"query\": \"abercrombie\", \"size\": 10}")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].title", containsInAnyOrder("Good Omens", "The Blade Itself")));
+    }
+
+    @Test
+    @DisplayName("renaming a genre updates the search vector of its books")
+    void follows_genre_rename() throws Exception {
+        jdbc.update("update genre set name = 'Software' where id = 22");
+
+        search("{\"query\": \"software\", \"size\": 10}")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].title", containsInAnyOrder("Effective Java", "Refactoring")));
+    }
+
+    @Test
+    @DisplayName("400 for a blank query")
+    void blank_query_400() throws Exception {
+        search("{\"query\": \" \"}")
+            .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions search(String body) throws Exception {
+        return mvc.perform(post("/api/books/search/fulltext")
+            .with(httpBasic(USER, PASS))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(body));
+    }
+}
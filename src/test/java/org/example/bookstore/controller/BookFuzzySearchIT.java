@@ -0,0 +1,70 @@
+package org.example.bookstore.controller;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Fuzzy search:
+ * - misspelled author names and titles match with fuzzy=true
+ * - without it the same terms find nothing.
+ */
+@Sql(
+    scripts = {
+        "/testdata/cleanup.sql",
+        "/testdata/search-seed.sql"
+    },
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+class BookFuzzySearchIT extends AbstractIT {
+
+    private static final String USER = "user";
+    private static final String PASS = "user123";
+
+    @Test
+    @DisplayName("authorNames: misspelled last names")
+    void authorNames_misspelled() throws Exception {
+        search("""
+            { "authorNames": ["Prachett", "Abercrombe"], "fuzzy": true, "page": 0, "size": 20 }
+            """)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(3))
+            .andExpect(jsonPath("$.content[*].title",
+                containsInAnyOrder("Good Omens", "Guards! Guards!", "The Blade Itself")));
+    }
+
+    @Test
+    @DisplayName("title: missing letter")
+    void title_misspelled() throws Exception {
+        search("""
+            { "title": "Nevrwhere", "fuzzy": true, "page": 0, "size": 20 }
+            """)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].title", containsInAnyOrder("Neverwhere")));
+    }
+
+    @Test
+    @DisplayName("without fuzzy a misspelling finds nothing")
+    void exact_by_default() throws Exception {
+        search("""
+            { "authorNames": ["Prachett", "Abercrombe"], "page": 0, "size": 20 }
+            """)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    private ResultActions search(String body) throws Exception {
+        return mvc.perform(post("/api/books/search")
+            .with(httpBasic(USER, PASS))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(body));
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.bookstore.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.example.bookstore.BenchmarkTimer.environment;
+import static org.example.bookstore.BenchmarkTimer.summary;
+import static org.example.bookstore.BenchmarkTimer.time;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.example.bookstore.Benchmark;
+import org.example.bookstore.QueryCountConfig;
+import org.example.bookstore.dto.book.BookResponseDto;
+import org.example.bookstore.mapper.BookMapper;
+import org.example.bookstore.repository.BookReadRepository;
+import org.example.bookstore.repository.BookRepository;
+import org.example.bookstore.service.AuthorService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * GET /api/books/{id}:
+ * - reads the book, its authors and its genres with one statement
+ * - caches books by id until they, their authors or their genres change.
+ */
+@Slf4j
+@Sql(
+    scripts = {
+        "/testdata/cleanup.sql",
+        "/testdata/search-seed.sql"
+    },
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+@Import(QueryCountConfig.class)
+class BookGetIT extends AbstractIT {
+
+    private static final int WARMUP = 500;
+    private static final int ROUNDS = 5_000;
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private BookReadRepository bookReadRepository;
+    @Autowired
+    private BookMapper bookMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private AuthorService authorService;
+
+    @Test
+    @DisplayName("one statement per book, relations ordered by id")
+    void single_statement() throws Exception {
+        QueryCountHolder.clear();
+        mvc.perform(get("/api/books/{id}", 100L).with(httpBasic("user", "user123")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Good Omens"))
+            .andExpect(jsonPath("$.price").value(12.50))
+            .andExpect(jsonPath("$.authors[*].lastName", contains("Pratchett", "Gaiman")))
+            .andExpect(jsonPath("$.genres[*].name", contains("Fantasy")));
+        assertThat(QueryCountHolder.getGrandTotal().getSelect()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("repeated lookups are cached; an author change evicts exactly the books embedding the author")
+    void cache_and_exact_eviction() throws Exception {
+        getBook(100L).andExpect(jsonPath("$.authors[0].firstName").value("Terry"));
+        getBook(103L).andExpect(jsonPath("$.title").value("Effective Java"));
+
+        QueryCountHolder.clear();
+        getBook(100L);
+        getBook(103L);
+        assertThat(QueryCountHolder.getGrandTotal().getSelect()).isZero();
+
+        authorService.update(10L, "Terence", "Pratchett");
+
+        QueryCountHolder.clear();
+        getBook(103L);
+        assertThat(QueryCountHolder.getGrandTotal().getSelect()).isZero();
+        getBook(100L).andExpect(jsonPath("$.authors[0].firstName").value("Terence"));
+        assertThat(QueryCountHolder.getGrandTotal().getSelect()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("book without relations and unknown book")
+    void no_relations_and_missing() throws Exception {
+        jdbc.update("""
+            INSERT INTO book (id, title, created_at, updated_at, created_by, updated_by)
+            VALUES (900, 'Untitled', now(), now(), 'test', 'test')
+            """);
+        mvc.perform(get("/api/books/{id}", 900L).with(httpBasic("user", "user123")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.authors").isEmpty())
+            .andExpect(jsonPath("$.genres").isEmpty());
+        mvc.perform(get("/api/books/{id}", 999L).with(httpBasic("user", "user123")))
+            .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Statements and p50/p99 latency of one lookup, entity path against projection. No results recorded yet, see
+     * Benchmarks in the README.
+     */
+    @Test
+    @Benchmark
+    void latency_entity_vs_projection() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Supplier<BookResponseDto> entity = () -> tx.execute(status ->
+            bookMapper.toResponse(bookRepository.findById(100L).orElseThrow()));
+        Supplier<BookResponseDto> projection = () -> bookReadRepository.findById(100L).orElseThrow().body();
+
+        QueryCountHolder.clear();
+        entity.get();
+        long entityStatements = QueryCountHolder.getGrandTotal().getSelect();
+        QueryCountHolder.clear();
+        projection.get();
+        long projectionStatements = QueryCountHolder.getGrandTotal().getSelect();
+
+        long[] entityNanos = measure(entity);
+        long[] projectionNanos = measure(projection);
+        log.info("GET book ({}): entity {} statements, {}; projection {} statements, {}", environment(),
+            entityStatements, summary(entityNanos), projectionStatements, summary(projectionNanos));
+        assertThat(projection.get().title()).isEqualTo(entity.get().title());
+    }
+
+    private ResultActions getBook(long id) throws Exception {
+        return mvc.perform(get("/api/books/{id}", id).with(httpBasic("user", "user123")))
+            .andExpect(status().isOk());
+    }
+
+    private static long[] measure(Supplier<BookResponseDto> get) {
+        long[] nanos = new long[ROUNDS];
+        for (int i = -WARMUP; i < ROUNDS; i++) {
+            time(get, nanos, i);
+        }
+        return nanos;
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.bookstore.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import org.example.bookstore.QueryCountConfig;
+import org.example.bookstore.QueryCountConfig.ExecutedQuery;
+import org.example.bookstore.repository.BookRepository;
+import org.example.bookstore.specification.BookSpecs;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.test.context.jdbc.Sql;
+
+/**
+ * Verifies that a late keyset page is read with an index range scan that starts at the cursor, instead of reading
+ * and filtering out the rows of the earlier pages.
+ */
+@Sql(scripts = "/testdata/cleanup.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Import(QueryCountConfig.class)
+class BookKeysetPlanIT extends AbstractIT {
+
+    private static final int BOOKS = 20_000;
+    private static final int SIZE = 20;
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("a late page by id seeks into book_pkey")
+    void late_page_by_id_seeks_into_primary_key() throws Exception {
+        seed();
+        Sort sort = Sort.by("id");
+
+        JsonNode plan = explain(sort, List.of((long) BOOKS - 100));
+
+        List<JsonNode> scans = scans(plan);
+        assertThat(scans).extracting(s -> s.get("Node Type").asText()).allMatch(t -> t.startsWith("Index"));
+        assertThat(scans).extracting(s -> s.get("Index Name").asText()).containsOnly("book_pkey");
+        assertThat(scans).allSatisfy(s -> {
+            assertThat(s.has("Index Cond")).isTrue();
+            assertThat(read(s)).isLessThanOrEqualTo(SIZE + 1);
+        });
+    }
+
+    @Test
+    @DisplayName("a late page by descending id seeks into book_pkey")
+    void late_page_by_descending_id_seeks_into_primary_key() throws Exception {
+        seed();
+        Sort sort = Sort.by(Sort.Direction.DESC, "id");
+
+        JsonNode plan = explain(sort, List.of(100L));
+
+        List<JsonNode> scans = scans(plan);
+        assertThat(scans).extracting(s -> s.get("Index Name").asText()).containsOnly("book_pkey");
+        assertThat(scans).extracting(s -> s.get("Scan Direction").asText()).containsOnly("Backward");
+        assertThat(scans).allSatisfy(s -> assertThat(read(s)).isLessThanOrEqualTo(SIZE + 1));
+    }
+
+    private void seed() {
+        jdbc.update("""
+            INSERT INTO book (id, title, price, quantity, rating, created_at, updated_at, created_by, updated_by)
+            SELECT i, 'Book ' || i, (i % 5000) / 100.0, i % 50, (i % 50) / 10.0, now(), now(), 'plan', 'plan'
+            FROM generate_series(1, ?) i
+            """, BOOKS);
+        jdbc.execute("ANALYZE book");
+    }
+
+    /**
+     * Runs the keyset query of the page after the given cursor values, then EXPLAIN ANALYZEs it.
+     */
+    private JsonNode explain(Sort sort, List<Object> after) throws Exception {
+        QueryCountConfig.clearExecutedQueries();
+        assertThat(bookRepository.findKeys(BookSpecs.seekAfter(sort, after), sort, 0, SIZE + 1)).hasSize(SIZE + 1);
+        ExecutedQuery page = QueryCountConfig.executedQueries().get(0);
+        String plan = jdbc.execute((ConnectionCallback<String>) con -> {
+            try (PreparedStatement ps = con.prepareStatement("EXPLAIN (ANALYZE, FORMAT JSON) " + page.sql())) {
+                page.bind(ps);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        });
+        return objectMapper.readTree(plan).get(0).get("Plan");
+    }
+
+    /**
+     * Plan nodes that read the book table.
+     */
+    private static List<JsonNode> scans(JsonNode plan) {
+        List<JsonNode> scans = new ArrayList<>();
+        collect(plan, scans);
+        assertThat(scans).isNotEmpty();
+        return scans;
+    }
+
+    private static void collect(JsonNode node, List<JsonNode> scans) {
+        if ("book".equals(node.path("Relation Name").asText())) {
+            scans.add(node);
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collect(child, scans);
+        }
+    }
+
+    /**
+     * Rows a scan node read: the rows it returned plus the ones its filter threw away (a seek that is only a filter
+     * throws away every row of the earlier pages).
+     */
+    private static long read(JsonNode scan) {
+        return (scan.get("Actual Rows").asLong() + scan.path("Rows Removed by Filter").asLong())
+            * scan.get("Actual Loops").asLong();
+    }
+}
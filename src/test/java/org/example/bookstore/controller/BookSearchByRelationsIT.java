@@ -1,5 +1,6 @@
 package org.example.bookstore.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
@@ -7,9 +8,15 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.jayway.jsonpath.JsonPath;
+import java.util.ArrayList;
+import java.util.List;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.example.bookstore.QueryCountConfig;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
@@ -20,7 +27,8 @@ import org.springframework.test.web.servlet.MockMvc;
  * - multiple authorNames => OR behavior
  * - genreNames and genreIds filters
  * - combined filters (title + author/genre)
- * - pagination and distinct results.
+ * - pagination and distinct results
+ * - keyset paging and a fixed statement count per search.
  *
  */
 @Sql(
@@ -30,6 +38,7 @@ import org.springframework.test.web.servlet.MockMvc;
     },
     executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
 )
+@Import(QueryCountConfig.class)
 class BookSearchByRelationsIT extends AbstractIT {
 
     @Autowired
@@ -37,6 +46,7 @@ class BookSearchByRelationsIT extends AbstractIT {
 
     private static final String USER = "user";
     private static final String PASS = "user123";
+    private static final String COUNT_THREADS = "search-count-";
 
     @Test
     @DisplayName("authorNames: case-insensitive partial match on last name (gaiman)")
@@ -189,9 +199,9 @@ class BookSearchByRelationsIT extends AbstractIT {
     }
 
     @Test
-    @DisplayName("distinct results when joining many-to-many")
+    @DisplayName("distinct results when filtering on many-to-many relations")
     void distinct_results() throws Exception {
-        // authorNames + genreNames together could cause duplicates if DISTINCT isn't applied
+        // authorNames + genreNames together would cause duplicates if the relations were joined
         String body = """
             {
               "authorNames": ["gaiman"],
@@ -208,4 +218,134 @@ class BookSearchByRelationsIT extends AbstractIT {
                 containsInAnyOrder("Good Omens", "American Gods", "Neverwhere")))
             .andExpect(jsonPath("$.content", hasSize(3)));
     }
+
+    @Test
+    @DisplayName("keyset paging: walks all books by price desc via cursors without repeats or gaps")
+    void keyset_paging_walk() throws Exception {
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        do {
+            String body = """
+                {
+                  "paging": "KEYSET",
+                  "cursor": %s,
+                  "sort": { "orders": [ { "property": "price", "direction": "DESC" } ] },
+                  "size": 3
+                }
+                """.formatted(cursor == null ? "null" : "\"" + cursor + "\"");
+            String json = mvc.perform(post("/api/books/search")
+                    .with(httpBasic(USER, PASS))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(-1))
+                .andReturn().getResponse().getContentAsString();
+            titles.addAll(JsonPath.read(json, "$.content[*].title"));
+            cursor = JsonPath.read(json, "$.nextCursor");
+        } while (cursor != null);
+
+        assertThat(titles).containsExactly("Refactoring", "Effective Java", "The Blade Itself", "Good Omens",
+            "American Gods", "Guards! Guards!", "Neverwhere");
+    }
+
+    @Test
+    @DisplayName("keyset paging: cursor from another sort is rejected with 400")
+    void keyset_cursor_sort_mismatch() throws Exception {
+        String first = """
+            { "paging": "KEYSET", "size": 2 }
+            """;
+        String json = mvc.perform(post("/api/books/search")
+                .with(httpBasic(USER, PASS))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(first))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(json, "$.nextCursor");
+
+        String next = """
+            {
+              "cursor": "%s",
+              "sort": { "orders": [ { "property": "title", "direction": "ASC" } ] },
+              "size": 2
+            }
+            """.formatted(cursor);
+        mvc.perform(post("/api/books/search")
+                .with(httpBasic(USER, PASS))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(next))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("search executes a fixed number of statements regardless of page size")
+    void search_statement_count_does_not_depend_on_page_size() throws Exception {
+        // keys + books + authors + genres on the request thread; statement_timeout + count run concurrently on a
+        // count pool thread, with a connection of their own
+        assertThat(statementsFor(2)).isEqualTo(4);
+        assertThat(QueryCountConfig.statementsOnThreads(COUNT_THREADS)).isEqualTo(2);
+        // all 5 matches fit the first page: the total is known without waiting, and the count is cancelled at
+        // whatever point it reached, so only the request thread is asserted
+        assertThat(statementsFor(5)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("countMode NONE skips the count query and reports hasNext")
+    void search_without_count() throws Exception {
+        // keys + books + authors + genres
+        assertThat(statementsFor(2, "NONE")).isEqualTo(4);
+        assertThat(QueryCountConfig.statementsOnThreads(COUNT_THREADS)).isZero();
+        mvc.perform(post("/api/books/search")
+                .with(httpBasic(USER, PASS))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    { "genreNames": ["Fantasy"], "countMode": "NONE", "page": 2, "size": 2 }
+                    """))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(1)))
+            .andExpect(jsonPath("$.countType").value("NONE"))
+            .andExpect(jsonPath("$.hasNext").value(false))
+            .andExpect(jsonPath("$.totalElements").value(-1));
+    }
+
+    @Test
+    @DisplayName("countMode ESTIMATED is exact below the cap")
+    void search_estimated_count() throws Exception {
+        mvc.perform(post("/api/books/search")
+                .with(httpBasic(USER, PASS))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    { "genreNames": ["Fantasy"], "countMode": "ESTIMATED", "page": 0, "size": 2 }
+                    """))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.countType").value("EXACT"))
+            .andExpect(jsonPath("$.hasNext").value(true))
+            .andExpect(jsonPath("$.totalElements").value(5))
+            .andExpect(jsonPath("$.totalPages").value(3));
+    }
+
+    private long statementsFor(int size) throws Exception {
+        return statementsFor(size, "EXACT");
+    }
+
+    private long statementsFor(int size, String countMode) throws Exception {
+        String body = """
+            {
+              "genreNames": ["Fantasy"],
+              "sort": { "orders": [ { "property": "title", "direction": "ASC" } ] },
+              "countMode": "%s",
+              "page": 0, "size": %d
+            }
+            """.formatted(countMode, size);
+        QueryCountHolder.clear();
+        QueryCountConfig.clearStatementsOnThreads();
+        mvc.perform(post("/api/books/search")
+                .with(httpBasic(USER, PASS))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(size)))
+            .andExpect(jsonPath("$.content[0].authors").isNotEmpty())
+            .andExpect(jsonPath("$.content[0].genres[0].name").value("Fantasy"));
+        return QueryCountHolder.getGrandTotal().getTotal();
+    }
 }
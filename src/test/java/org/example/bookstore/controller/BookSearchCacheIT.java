@@ -0,0 +1,84 @@
+package org.example.bookstore.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.example.bookstore.QueryCountConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Search result cache:
+ * - equivalent requests are answered from the cache without statements
+ * - writes through the API invalidate cached results.
+ */
+@Sql(
+    scripts = {
+        "/testdata/cleanup.sql",
+        "/testdata/search-seed.sql"
+    },
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+@Import(QueryCountConfig.class)
+class BookSearchCacheIT extends AbstractIT {
+
+    private static final String USER = "user";
+    private static final String PASS = "user123";
+    private static final String ADMIN = "admin";
+    private static final String APASS = "admin123";
+
+    @Test
+    @DisplayName("equivalent request is served from the cache")
+    void equivalent_request_hits_cache() throws Exception {
+        search("""
+            { "genreNames": ["Fantasy"], "authorIds": [11, 10], "maxPrice": 12.0, "page": 0, "size": 20 }
+            """)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(3));
+
+        QueryCountHolder.clear();
+        search("""
+            { "genreNames": ["fantasy"], "authorIds": [10, 11], "maxPrice": 12.00, "page": 0, "size": 20 }
+            """)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(3));
+        assertThat(QueryCountHolder.getGrandTotal().getTotal()).isZero();
+    }
+
+    @Test
+    @DisplayName("patching a book invalidates cached results")
+    void write_evicts() throws Exception {
+        String body = """
+            { "title": "Neverwhere", "page": 0, "size": 20 }
+            """;
+        search(body)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].price").value(9.49));
+
+        mvc.perform(patch("/api/books/{id}", 106L)
+                .with(httpBasic(ADMIN, APASS))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"price\": 8.99}"))
+            .andExpect(status().isOk());
+
+        search(body)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].price").value(8.99));
+    }
+
+    private ResultActions search(String body) throws Exception {
+        return mvc.perform(post("/api/books/search")
+            .with(httpBasic(USER, PASS))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(body));
+    }
+}
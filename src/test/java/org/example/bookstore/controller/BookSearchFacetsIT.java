@@ -0,0 +1,80 @@
+package org.example.bookstore.controller;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Facet counts returned with search results:
+ * - each facet is counted without its own filter
+ * - facets are only present when requested.
+ */
+@Sql(
+    scripts = {
+        "/testdata/cleanup.sql",
+        "/testdata/search-seed.sql"
+    },
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+class BookSearchFacetsIT extends AbstractIT {
+
+    private static final String USER = "user";
+    private static final String PASS = "user123";
+
+    @Test
+    @DisplayName("genre + max price: facets exclude their own filter")
+    void facets_exclude_own_filter() throws Exception {
+        search("""
+            { "genreIds": [20], "maxPrice": 12.00, "facets": true, "page": 0, "size": 20 }
+            """)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(3))
+            // price filter only: the three cheap books are all fantasy
+            .andExpect(jsonPath("$.facets.genres.length()").value(1))
+            .andExpect(jsonPath("$.facets.genres[0].name").value("Fantasy"))
+            .andExpect(jsonPath("$.facets.genres[0].count").value(3))
+            .andExpect(jsonPath("$.facets.authors[0].id").value(11))
+            .andExpect(jsonPath("$.facets.authors[0].name").value("Neil Gaiman"))
+            .andExpect(jsonPath("$.facets.authors[0].count").value(2))
+            .andExpect(jsonPath("$.facets.authors[1].id").value(10))
+            .andExpect(jsonPath("$.facets.authors[1].count").value(1))
+            // genre filter only: all five fantasy books
+            .andExpect(jsonPath("$.facets.price.length()").value(8))
+            .andExpect(jsonPath("$.facets.price[0].from").doesNotExist())
+            .andExpect(jsonPath("$.facets.price[0].count").value(0))
+            .andExpect(jsonPath("$.facets.price[1].count").value(1))
+            .andExpect(jsonPath("$.facets.price[2].from").value(10))
+            .andExpect(jsonPath("$.facets.price[2].to").value(15))
+            .andExpect(jsonPath("$.facets.price[2].count").value(3))
+            .andExpect(jsonPath("$.facets.price[3].count").value(1))
+            .andExpect(jsonPath("$.facets.rating[4].count").value(2))
+            .andExpect(jsonPath("$.facets.rating[5].from").value(4.5))
+            .andExpect(jsonPath("$.facets.rating[5].to").doesNotExist())
+            .andExpect(jsonPath("$.facets.rating[5].count").value(1));
+    }
+
+    @Test
+    @DisplayName("facets are omitted unless requested")
+    void facets_not_requested() throws Exception {
+        search("""
+            { "genreIds": [20], "page": 0, "size": 20 }
+            """)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(5))
+            .andExpect(jsonPath("$.facets").doesNotExist());
+    }
+
+    private ResultActions search(String body) throws Exception {
+        return mvc.perform(post("/api/books/search")
+            .with(httpBasic(USER, PASS))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(body));
+    }
+}
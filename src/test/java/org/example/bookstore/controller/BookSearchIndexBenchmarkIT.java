@@ -0,0 +1,101 @@
+package org.example.bookstore.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.example.bookstore.BenchmarkTimer.environment;
+import static org.example.bookstore.BenchmarkTimer.summary;
+import static org.example.bookstore.BenchmarkTimer.time;
+
+import java.util.List;
+import java.util.Random;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookstore.Benchmark;
+import org.example.bookstore.dto.book.BookSearchRequestDto;
+import org.example.bookstore.entity.Book;
+import org.example.bookstore.repository.BookRepository;
+import org.example.bookstore.search.BookSearchIndex;
+import org.example.bookstore.search.BookSearchIndexUpdater;
+import org.example.bookstore.specification.BookSpecs;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+/**
+ * Compares p50/p99 latency of the in-memory index with the {@code BookSpecs} query path on a generated catalog.
+ */
+@Slf4j
+@Sql(scripts = "/testdata/cleanup.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@TestPropertySource(properties = "app.search.index.enabled=true")
+@Benchmark
+class BookSearchIndexBenchmarkIT extends AbstractIT {
+
+    private static final int BOOKS = 100_000;
+    private static final int AUTHORS = 2_000;
+    private static final int GENRES = 40;
+    private static final int WARMUP = 200;
+    private static final int ROUNDS = 2_000;
+    private static final List<String> WORDS = List.of(
+        "night", "river", "shadow", "empire", "garden", "winter", "stone", "glass", "storm", "crown");
+
+    @Autowired
+    private BookSearchIndex index;
+    @Autowired
+    private BookSearchIndexUpdater indexUpdater;
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Test
+    void p99_index_vs_specs() {
+        seed();
+        indexUpdater.reload();
+
+        Random random = new Random(42);
+        Pageable pageable = PageRequest.of(0, 20, Sort.by("price"));
+        long[] indexNanos = new long[ROUNDS];
+        long[] specsNanos = new long[ROUNDS];
+        for (int i = -WARMUP; i < ROUNDS; i++) {
+            BookSearchRequestDto req = new BookSearchRequestDto();
+            req.setTitle(WORDS.get(random.nextInt(WORDS.size())).substring(0, 4));
+            req.setGenreIds(List.of((long) random.nextInt(GENRES) + 1));
+            Specification<Book> spec = Specification.where(BookSpecs.titleContains(req.getTitle()))
+                .and(BookSpecs.genreIdsAny(req.getGenreIds()));
+
+            long fromIndex = time(() -> index.search(req, pageable).getTotalElements(), indexNanos, i);
+            long fromSpecs = time(() -> bookRepository.findAll(spec, pageable).getTotalElements(), specsNanos, i);
+            assertThat(fromIndex).isEqualTo(fromSpecs);
+        }
+
+        log.info("Search over {} books, {} authors, {} genres ({}): index {}; BookSpecs {}",
+            BOOKS, AUTHORS, GENRES, environment(), summary(indexNanos), summary(specsNanos));
+    }
+
+    private void seed() {
+        jdbc.update("""
+            INSERT INTO author (id, first_name, last_name, created_at, updated_at, created_by, updated_by)
+            SELECT i, 'First' || i, 'Last' || i, now(), now(), 'bench', 'bench' FROM generate_series(1, ?) i
+            """, AUTHORS);
+        jdbc.update("""
+            INSERT INTO genre (id, name, created_at, updated_at, created_by, updated_by)
+            SELECT i, 'Genre ' || i, now(), now(), 'bench', 'bench' FROM generate_series(1, ?) i
+            """, GENRES);
+        String words = "'{" + String.join(",", WORDS) + "}'::text[]";
+        jdbc.update("""
+            INSERT INTO book (id, title, price, quantity, rating, created_at, updated_at, created_by, updated_by)
+            SELECT i,
+                   initcap((%1$s)[1 + i %% 10] || ' ' || (%1$s)[1 + (i / 10) %% 10] || ' ' || i),
+                   (i %% 5000) / 100.0, i %% 50, (i %% 50) / 10.0, now(), now(), 'bench', 'bench'
+            FROM generate_series(1, ?) i
+            """.formatted(words), BOOKS);
+        jdbc.update("""
+            INSERT INTO book_author (book_id, author_id) SELECT i, 1 + i % ? FROM generate_series(1, ?) i
+            """, AUTHORS, BOOKS);
+        jdbc.update("""
+            INSERT INTO book_genre (book_id, genre_id) SELECT i, 1 + i % ? FROM generate_series(1, ?) i
+            """, GENRES, BOOKS);
+        jdbc.execute("ANALYZE");
+    }
+}
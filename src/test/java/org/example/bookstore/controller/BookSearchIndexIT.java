@@ -0,0 +1,124 @@
+package org.example.bookstore.controller;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.example.bookstore.search.BookSearchIndexUpdater;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Runs searches against the in-memory index:
+ * - same results as the database path for title, relation and range filters
+ * - writes through the API are visible after commit
+ * - writes of other instances are visible after a refresh.
+ */
+@Sql(
+    scripts = {
+        "/testdata/cleanup.sql",
+        "/testdata/search-seed.sql"
+    },
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+@TestPropertySource(properties = "app.search.index.enabled=true")
+class BookSearchIndexIT extends AbstractIT {
+
+    private static final String USER = "user";
+    private static final String PASS = "user123";
+    private static final String ADMIN = "admin";
+    private static final String APASS = "admin123";
+
+    @Autowired
+    private BookSearchIndexUpdater indexUpdater;
+
+    @BeforeEach
+    void reloadIndex() {
+        // the seed is inserted behind the application's back
+        indexUpdater.reload();
+    }
+
+    @Test
+    @DisplayName("title + authorNames + price range")
+    void combined_filters() throws Exception {
+        search("""
+            { "title": "e", "authorNames": ["gaiman"], "maxPrice": 12.00, "page": 0, "size": 20 }
+            """)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(2))
+            .andExpect(jsonPath("$.content[*].title", containsInAnyOrder("American Gods", "Neverwhere")));
+    }
+
+    @Test
+    @DisplayName("genreNames with sort and paging")
+    void genre_sorted_paged() throws Exception {
+        search("""
+            {
+              "genreNames": ["fantasy"],
+              "page": 1, "size": 2,
+              "sort": { "orders": [ { "property": "price", "direction": "DESC" } ] }
+            }
+            """)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(5))
+            .andExpect(jsonPath("$.totalPages").value(3))
+            .andExpect(jsonPath("$.content[0].title").value("American Gods"))
+            .andExpect(jsonPath("$.content[1].title").value("Guards! Guards!"))
+            .andExpect(jsonPath("$.content[0].authors[0].lastName").value("Gaiman"))
+            .andExpect(jsonPath("$.content[0].genres[0].name").value("Fantasy"));
+    }
+
+    @Test
+    @DisplayName("author replacement is reflected after commit")
+    void incremental_update() throws Exception {
+        mvc.perform(put("/api/books/{bookId}/authors", 100L)
+                .with(httpBasic(ADMIN, APASS))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[12]}"))
+            .andExpect(status().isNoContent());
+
+        search("""
+            { "authorIds": [12], "page": 0, "size": 20 }
+            """)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].title", containsInAnyOrder("Good Omens", "The Blade Itself")));
+    }
+
+    @Test
+    @DisplayName("rows changed behind the application's back are picked up by the refresh")
+    void refresh() throws Exception {
+        // as another instance would, without an event reaching this one
+        jdbc.update("UPDATE book SET title = 'Good Omens, Revised', updated_at = now() WHERE id = 100");
+        jdbc.update("DELETE FROM book_author WHERE book_id = 101");
+        jdbc.update("DELETE FROM book_genre WHERE book_id = 101");
+        jdbc.update("DELETE FROM book WHERE id = 101");
+
+        indexUpdater.refresh();
+
+        search("""
+            { "genreNames": ["fantasy"], "page": 0, "size": 20 }
+            """)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(4))
+            .andExpect(jsonPath("$.content[*].title", hasItem("Good Omens, Revised")))
+            .andExpect(jsonPath("$.content[*].title", not(hasItem("Guards! Guards!"))));
+    }
+
+    private ResultActions search(String body) throws Exception {
+        return mvc.perform(post("/api/books/search")
+            .with(httpBasic(USER, PASS))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(body));
+    }
+}
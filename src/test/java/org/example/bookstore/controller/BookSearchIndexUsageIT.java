@@ -0,0 +1,124 @@
+package org.example.bookstore.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import org.example.bookstore.QueryCountConfig;
+import org.example.bookstore.QueryCountConfig.ExecutedQuery;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.test.context.jdbc.Sql;
+
+/**
+ * Verifies that substring filters generated by {@code BookSpecs} are served by the pg_trgm indexes.
+ *
+ * <p>The seed is tiny, so sequential scans are disabled while explaining: the planner then picks the trigram index
+ * if, and only if, the predicate matches the indexed expression.
+ */
+@Sql(
+    scripts = {
+        "/testdata/cleanup.sql",
+        "/testdata/search-seed.sql"
+    },
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+@Import(QueryCountConfig.class)
+class BookSearchIndexUsageIT extends AbstractIT {
+
+    private static final String USER = "user";
+    private static final String PASS = "user123";
+
+    @Test
+    @DisplayName("title filter uses idx_book_title_trgm")
+    void title_uses_trigram_index() throws Exception {
+        String plan = explainSearch("""
+            { "title": "GoDs", "page": 0, "size": 20 }
+            """);
+
+        assertThat(plan).contains("idx_book_title_trgm");
+    }
+
+    @Test
+    @DisplayName("authorNames filter uses the author trigram indexes")
+    void authorNames_use_trigram_indexes() throws Exception {
+        String plan = explainSearch("""
+            { "authorNames": ["terry prat"], "page": 0, "size": 20 }
+            """);
+
+        assertThat(plan).contains("idx_author_first_name_trgm", "idx_author_last_name_trgm",
+            "idx_author_full_name_trgm");
+    }
+
+    @Test
+    @DisplayName("fuzzy title and authorNames use the trigram indexes")
+    void fuzzy_uses_trigram_indexes() throws Exception {
+        String plan = explainSearch("""
+            { "title": "nevrwhere", "authorNames": ["gaimn"], "fuzzy": true, "page": 0, "size": 20 }
+            """, "fuzzy_word_match");
+
+        assertThat(plan).contains("idx_book_title_trgm", "idx_author_full_name_trgm");
+    }
+
+    @Test
+    @DisplayName("LIKE wildcards in the search term are matched literally")
+    void wildcards_are_escaped() throws Exception {
+        mvc.perform(post("/api/books/search")
+                .with(httpBasic(USER, PASS))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    { "title": "%", "page": 0, "size": 20 }
+                    """))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content").isEmpty());
+    }
+
+    private String explainSearch(String body) throws Exception {
+        return explainSearch(body, " like ");
+    }
+
+    private String explainSearch(String body, String marker) throws Exception {
+        QueryCountConfig.clearExecutedQueries();
+        mvc.perform(post("/api/books/search")
+                .with(httpBasic(USER, PASS))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isOk());
+
+        ExecutedQuery keys = QueryCountConfig.executedQueries().stream()
+            .filter(q -> q.sql().contains(marker))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("no query containing '" + marker + "' was executed"));
+        return explain(keys);
+    }
+
+    private String explain(ExecutedQuery query) {
+        return jdbc.execute((ConnectionCallback<String>) con -> {
+            try (Statement st = con.createStatement()) {
+                st.execute("SET enable_seqscan = off");
+            }
+            try (PreparedStatement ps = con.prepareStatement("EXPLAIN " + query.sql())) {
+                query.bind(ps);
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            } finally {
+                try (Statement st = con.createStatement()) {
+                    st.execute("RESET enable_seqscan");
+                }
+            }
+        });
+    }
+}
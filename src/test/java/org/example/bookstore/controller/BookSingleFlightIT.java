@@ -0,0 +1,129 @@
+package org.example.bookstore.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.example.bookstore.QueryCountConfig;
+import org.example.bookstore.repository.BookReadRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.context.jdbc.Sql;
+
+/**
+ * Coalesced book lookups:
+ * - concurrent GETs of a book share one load
+ * - a write forgets the load in flight; the old load neither answers later requests nor fills the cache.
+ */
+@Sql(
+    scripts = {
+        "/testdata/cleanup.sql",
+        "/testdata/search-seed.sql"
+    },
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+@Import(QueryCountConfig.class)
+class BookSingleFlightIT extends AbstractIT {
+
+    @MockitoSpyBean
+    private BookReadRepository bookReadRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final CountDownLatch read = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    @DisplayName("concurrent GETs share one load")
+    void concurrent_gets_share_one_load() throws Exception {
+        holdFirstLoad();
+        double coalesced = coalesced();
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> title(100L));
+        assertThat(read.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> title(100L));
+        awaitCoalesced(coalesced + 1);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("Good Omens");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("Good Omens");
+        verify(bookReadRepository, times(1)).findById(100L);
+    }
+
+    @Test
+    @DisplayName("a write forgets the load in flight; its old result is not cached")
+    void write_forgets_load_in_flight() throws Exception {
+        holdFirstLoad();
+
+        CompletableFuture<String> before = CompletableFuture.supplyAsync(() -> title(100L));
+        assertThat(read.await(5, TimeUnit.SECONDS)).isTrue();
+        mvc.perform(patch("/api/books/{id}", 100L)
+                .with(httpBasic("admin", "admin123"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Good Omens (Revised)\"}"))
+            .andExpect(status().isOk());
+
+        assertThat(title(100L)).isEqualTo("Good Omens (Revised)");
+        release.countDown();
+        assertThat(before.get(5, TimeUnit.SECONDS)).isEqualTo("Good Omens");
+
+        QueryCountHolder.clear();
+        assertThat(title(100L)).isEqualTo("Good Omens (Revised)");
+        assertThat(QueryCountHolder.getGrandTotal().getSelect()).isZero();
+        verify(bookReadRepository, times(2)).findById(100L);
+    }
+
+    /**
+     * The first load of a book reads it, then waits for {@link #release}.
+     */
+    private void holdFirstLoad() {
+        AtomicBoolean first = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            Object book = invocation.callRealMethod();
+            if (first.compareAndSet(true, false)) {
+                read.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return book;
+        }).when(bookReadRepository).findById(100L);
+    }
+
+    private String title(long id) {
+        try {
+            String body = mvc.perform(get("/api/books/{id}", id).with(httpBasic("user", "user123")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            return JsonPath.read(body, "$.title");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("bookstore.single_flight.calls").tag("name", "book_get").tag("outcome", "coalesced")
+            .counter().count();
+    }
+
+    private void awaitCoalesced(double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalesced() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package org.example.bookstore.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.example.bookstore.BenchmarkTimer.environment;
+import static org.example.bookstore.BenchmarkTimer.summary;
+import static org.example.bookstore.BenchmarkTimer.time;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.criteria.Predicate;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Random;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookstore.Benchmark;
+import org.example.bookstore.QueryCountConfig;
+import org.example.bookstore.QueryCountConfig.ExecutedQuery;
+import org.example.bookstore.entity.Book;
+import org.example.bookstore.repository.BookRepository;
+import org.example.bookstore.specification.BookSpecs;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.test.context.jdbc.Sql;
+
+/**
+ * Compares the EXISTS based relation filters of {@code BookSpecs} with the former join + DISTINCT filters on a
+ * generated catalog where every book has several authors and genres: p50/p99 latency of page + count, and rows produced
+ * by the plan nodes of the page query.
+ */
+@Slf4j
+@Sql(scripts = "/testdata/cleanup.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Import(QueryCountConfig.class)
+@Benchmark
+class BookSpecsBenchmarkIT extends AbstractIT {
+
+    private static final int BOOKS = 50_000;
+    private static final int AUTHORS = 2_000;
+    private static final int GENRES = 40;
+    private static final int LINKS = 3;
+    private static final int WARMUP = 50;
+    private static final int ROUNDS = 500;
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exists_vs_join_distinct() {
+        seed();
+
+        Random random = new Random(42);
+        Pageable pageable = PageRequest.of(0, 20, Sort.by("title"));
+        long[] existsNanos = new long[ROUNDS];
+        long[] joinNanos = new long[ROUNDS];
+        for (int i = -WARMUP; i < ROUNDS; i++) {
+            List<Long> authorIds = List.of((long) random.nextInt(AUTHORS) + 1, (long) random.nextInt(AUTHORS) + 1);
+            List<String> genreNames = List.of("genre 1");
+            Specification<Book> exists = Specification.where(BookSpecs.authorIdsAny(authorIds))
+                .and(BookSpecs.genreNamesAny(genreNames));
+            Specification<Book> join = Specification.where(JoinDistinct.authorIdsAny(authorIds))
+                .and(JoinDistinct.genreNamesAny(genreNames));
+
+            long fromExists = time(() -> bookRepository.findAll(exists, pageable).getTotalElements(), existsNanos, i);
+            long fromJoin = time(() -> bookRepository.findAll(join, pageable).getTotalElements(), joinNanos, i);
+            assertThat(fromExists).isEqualTo(fromJoin);
+        }
+
+        List<Long> authorIds = List.of(1L, 2L, 3L);
+        long existsRows = rowsProduced(() -> bookRepository.findAll(Specification
+            .where(BookSpecs.authorIdsAny(authorIds)).and(BookSpecs.genreNamesAny(List.of("genre"))), pageable));
+        long joinRows = rowsProduced(() -> bookRepository.findAll(Specification
+            .where(JoinDistinct.authorIdsAny(authorIds)).and(JoinDistinct.genreNamesAny(List.of("genre"))), pageable));
+
+        log.info("Relation search over {} books, {} authors, {} genres ({}): EXISTS {}; join + DISTINCT {}",
+            BOOKS, AUTHORS, GENRES, environment(), summary(existsNanos), summary(joinNanos));
+        log.info("Rows produced by the page query: EXISTS {}, join + DISTINCT {}", existsRows, joinRows);
+    }
+
+    private void seed() {
+        jdbc.update("""
+            INSERT INTO author (id, first_name, last_name, created_at, updated_at, created_by, updated_by)
+            SELECT i, 'First' || i, 'Last' || i, now(), now(), 'bench', 'bench' FROM generate_series(1, ?) i
+            """, AUTHORS);
+        jdbc.update("""
+            INSERT INTO genre (id, name, created_at, updated_at, created_by, updated_by)
+            SELECT i, 'Genre ' || i, now(), now(), 'bench', 'bench' FROM generate_series(1, ?) i
+            """, GENRES);
+        jdbc.update("""
+            INSERT INTO book (id, title, price, quantity, rating, created_at, updated_at, created_by, updated_by)
+            SELECT i, 'Book ' || i, (i % 5000) / 100.0, i % 50, (i % 50) / 10.0, now(), now(), 'bench', 'bench'
+            FROM generate_series(1, ?) i
+            """, BOOKS);
+        jdbc.update("""
+            INSERT INTO book_author (book_id, author_id)
+            SELECT DISTINCT i, 1 + (i * 7 + k * 131) % ? FROM generate_series(1, ?) i, generate_series(1, ?) k
+            """, AUTHORS, BOOKS, LINKS);
+        jdbc.update("""
+            INSERT INTO book_genre (book_id, genre_id)
+            SELECT DISTINCT i, 1 + (i + k * 13) % ? FROM generate_series(1, ?) i, generate_series(1, ?) k
+            """, GENRES, BOOKS, LINKS);
+        jdbc.execute("ANALYZE");
+    }
+
+    /**
+     * Runs the search, then EXPLAIN ANALYZEs its first statement and sums the rows produced by every plan node.
+     */
+    private long rowsProduced(Runnable search) {
+        QueryCountConfig.clearExecutedQueries();
+        search.run();
+        ExecutedQuery page = QueryCountConfig.executedQueries().get(0);
+        String plan = jdbc.execute((ConnectionCallback<String>) con -> {
+            try (PreparedStatement ps = con.prepareStatement("EXPLAIN (ANALYZE, FORMAT JSON) " + page.sql())) {
+                page.bind(ps);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        });
+        try {
+            return rows(objectMapper.readTree(plan).get(0).get("Plan"));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long rows(JsonNode node) {
+        long rows = node.get("Actual Rows").asLong() * node.get("Actual Loops").asLong();
+        JsonNode children = node.get("Plans");
+        if (children != null) {
+            for (JsonNode child : children) {
+                rows += rows(child);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Relation filters as they were before the EXISTS rewrite.
+     */
+    private static final class JoinDistinct {
+
+        static Specification<Book> authorIdsAny(List<Long> ids) {
+            return (root, cq, cb) -> {
+                cq.distinct(true);
+                return root.joinSet("authors").get("id").in(ids);
+            };
+        }
+
+        static Specification<Book> genreNamesAny(List<String> names) {
+            return (root, cq, cb) -> {
+                cq.distinct(true);
+                var g = root.joinSet("genres");
+                return cb.or(names.stream()
+                    .map(n -> cb.like(cb.lower(g.get("name")), "%" + n.toLowerCase() + "%"))
+                    .toArray(Predicate[]::new));
+            };
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.bookstore.controller;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.example.bookstore.search.BookSuggestIndexUpdater;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Autocomplete:
+ * - word prefixes of titles, author names and genre names, ranked by popularity
+ * - books created through the API are suggested after commit
+ * - books written by other instances are suggested after a refresh.
+ */
+@Sql(
+    scripts = {
+        "/testdata/cleanup.sql",
+        "/testdata/search-seed.sql"
+    },
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+@TestPropertySource(properties = "app.search.suggest.enabled=true")
+class BookSuggestIT extends AbstractIT {
+
+    private static final String USER = "user";
+    private static final String PASS = "user123";
+    private static final String ADMIN = "admin";
+    private static final String APASS = "admin123";
+
+    @Autowired
+    private BookSuggestIndexUpdater indexUpdater;
+
+    @BeforeEach
+    void reloadIndex() {
+        // the seed is inserted behind the application's back
+        indexUpdater.reload();
+    }
+
+    @Test
+    @DisplayName("titles by rating, authors and genres by number of books")
+    void ranked_completions() throws Exception {
+        suggest("Go")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.titles[*].text", contains("Good Omens", "American Gods")));
+        suggest("ga")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.authors[0].id").value(11))
+            .andExpect(jsonPath("$.authors[0].text").value("Neil Gaiman"));
+        suggest("pro")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.genres[*].text", contains("Programming")))
+            .andExpect(jsonPath("$.titles").isEmpty());
+    }
+
+    @Test
+    @DisplayName("created book is suggested after commit")
+    void incremental_update() throws Exception {
+        mvc.perform(post("/api/books")
+                .with(httpBasic(ADMIN, APASS))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    { "title": "Going Postal", "price": 9.99, "quantity": 1, "rating": 5 }
+                    """))
+            .andExpect(status().isCreated());
+
+        suggest("go")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.titles[*].text", contains("Going Postal", "Good Omens", "American Gods")));
+    }
+
+    @Test
+    @DisplayName("rows changed behind the application's back are picked up by the refresh")
+    void refresh() throws Exception {
+        // as another instance would, without an event reaching this one
+        jdbc.update("""
+            INSERT INTO book (id, title, price, quantity, rating, created_at, updated_at, created_by, updated_by)
+            VALUES (900, 'Going Postal', 9.99, 1, 5, now(), now(), 'other', 'other')
+            """);
+        jdbc.update("DELETE FROM book_author WHERE book_id = 105");
+        jdbc.update("DELETE FROM book_genre WHERE book_id = 105");
+        jdbc.update("DELETE FROM book WHERE id = 105");
+
+        indexUpdater.refresh();
+
+        suggest("go")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.titles[*].text", contains("Going Postal", "Good Omens")));
+    }
+
+    @Test
+    @DisplayName("limit above the maximum is rejected")
+    void limit_out_of_range() throws Exception {
+        mvc.perform(get("/api/books/suggest")
+                .param("q", "go")
+                .param("limit", "1000")
+                .with(httpBasic(USER, PASS)))
+            .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions suggest(String q) throws Exception {
+        return mvc.perform(get("/api/books/suggest")
+            .param("q", q)
+            .with(httpBasic(USER, PASS)));
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.bookstore.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.example.bookstore.config.properties.ImportProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * /api/imports:
+ * - CSV and NDJSON feeds update books by id and create the others, with their authors and genres
+ * - invalid records are counted and skipped
+ * - a failed job resumes after its checkpoint.
+ */
+@Sql(
+    scripts = {
+        "/testdata/cleanup.sql",
+        "/testdata/search-seed.sql"
+    },
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+class CatalogImportIT extends AbstractIT {
+
+    private static final String ADMIN = "admin";
+    private static final String APASS = "admin123";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ImportProperties importProperties;
+
+    @Test
+    @DisplayName("csv: upserts books, creates missing authors and genres, counts rejected records")
+    void csv_import() throws Exception {
+        JsonNode job = awaitFinished(start("CSV", """
+            id,title,price,quantity,rating,authors,genres
+            100,Good Omens (Revised),13.00,5,4.8,Terry Pratchett; Neil Gaiman,Fantasy
+            ,Thud!,8.99,4,,Terry Pratchett,Fantasy; Comedy
+            ,,1.00,,,,
+            999999,Anathem,,,,Neal Stephenson,Sci-Fi
+            """));
+
+        assertThat(job.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(job.get("recordsRead").asLong()).isEqualTo(4);
+        assertThat(job.get("rejected").asLong()).isEqualTo(1);
+        assertThat(job.get("booksMerged").asLong()).isEqualTo(3);
+        assertThat(job.get("authorsCreated").asLong()).isEqualTo(1);
+        assertThat(job.get("genresCreated").asLong()).isEqualTo(1);
+
+        mvc.perform(get("/api/books/{id}", 100).with(httpBasic("user", "user123")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Good Omens (Revised)"))
+            .andExpect(jsonPath("$.authors[*].lastName", containsInAnyOrder("Pratchett", "Gaiman")));
+        assertThat(jdbc.queryForObject("SELECT updated_by FROM book WHERE id = 100", String.class)).isEqualTo(ADMIN);
+        // unknown ids are not taken over, the book gets one from the sequence
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM book WHERE id = 999999", Long.class)).isZero();
+        mvc.perform(post("/api/books/search")
+                .with(httpBasic("user", "user123"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{ \"title\": \"thud\" }"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].genres[*].name", containsInAnyOrder("Fantasy", "Comedy")));
+    }
+
+    @Test
+    @DisplayName("ndjson: an export of the catalog imported back changes nothing")
+    void ndjson_round_trip() throws Exception {
+        MvcResult export = mvc.perform(post("/api/books/export")
+                .with(httpBasic(ADMIN, APASS))
+                .param("format", "NDJSON")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mvc.perform(asyncDispatch(export)).andExpect(status().isOk());
+
+        JsonNode job = awaitFinished(start("NDJSON", export.getResponse().getContentAsString()));
+
+        assertThat(job.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(job.get("recordsRead").asLong()).isEqualTo(7);
+        assertThat(job.get("booksMerged").asLong()).isZero();
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM book", Long.class)).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("a failed job continues after the records it has committed")
+    void resume() throws Exception {
+        Path file = Files.createDirectories(importProperties.directory()).resolve("resume-it.csv");
+        Files.writeString(file, "title,authors\nAlready Imported,Terry Pratchett\nNation,Terry Pratchett\n",
+            StandardCharsets.UTF_8);
+        Long id = jdbc.queryForObject("""
+            INSERT INTO import_job (format, file_name, status, records_read, created_by)
+            VALUES ('CSV', ?, 'FAILED', 1, 'admin')
+            RETURNING id
+            """, Long.class, file.toString());
+
+        mvc.perform(post("/api/imports/{id}/resume", id).with(httpBasic(ADMIN, APASS)))
+            .andExpect(status().isAccepted());
+        JsonNode job = awaitFinished(id);
+
+        assertThat(job.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(job.get("recordsRead").asLong()).isEqualTo(2);
+        assertThat(jdbc.queryForList("SELECT title FROM book WHERE created_by = 'admin'", String.class))
+            .isEqualTo(List.of("Nation"));
+        assertThat(file).doesNotExist();
+        mvc.perform(post("/api/imports/{id}/resume", id).with(httpBasic(ADMIN, APASS)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("imports are for admins only")
+    void admin_only() throws Exception {
+        mvc.perform(post("/api/imports")
+                .with(httpBasic("user", "user123"))
+                .param("format", "CSV")
+                .content("title\nNation\n"))
+            .andExpect(status().isForbidden());
+        mvc.perform(get("/api/imports/{id}", Long.MAX_VALUE).with(httpBasic(ADMIN, APASS)))
+            .andExpect(status().isNotFound());
+    }
+
+    private long start(String format, String content) throws Exception {
+        String body = mvc.perform(post("/api/imports")
+                .with(httpBasic(ADMIN, APASS))
+                .param("format", format)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(content.getBytes(StandardCharsets.UTF_8)))
+            .andExpect(status().isAccepted())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private JsonNode awaitFinished(long id) throws Exception {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            String body = mvc.perform(get("/api/imports/{id}", id).with(httpBasic(ADMIN, APASS)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            JsonNode job = objectMapper.readTree(body);
+            String status = job.get("status").asText();
+            if (status.equals("COMPLETED") || status.equals("FAILED")
+                || System.currentTimeMillis() > deadline) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.bookstore.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookstore.Benchmark;
+import org.example.bookstore.dto.book.BookSearchRequestDto;
+import org.example.bookstore.entity.Author;
+import org.example.bookstore.service.AuthorService;
+import org.example.bookstore.service.BookService;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Read-only transactions load entities read-only and never flush.
+ */
+@Slf4j
+@Sql(
+    scripts = {
+        "/testdata/cleanup.sql",
+        "/testdata/search-seed.sql"
+    },
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+class ReadOnlyTransactionIT extends AbstractIT {
+
+    private static final int WARMUP = 200;
+    private static final int ROUNDS = 2_000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private AuthorService authorService;
+    @Autowired
+    private BookService bookService;
+
+    @Test
+    @DisplayName("no snapshots and no flush in a read-only transaction")
+    void read_only_session() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+
+        tx.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            Author author = authorService.get(10L);
+
+            assertThat(session.getHibernateFlushMode()).isEqualTo(FlushMode.MANUAL);
+            assertThat(session.isReadOnly(author)).isTrue();
+            author.setFirstName("Changed");
+        });
+
+        assertThat(firstName(10L)).isEqualTo("Terry");
+    }
+
+    /**
+     * The book search as served, in its own read-only transaction and joined into a read-write one. Search pages over
+     * scalar keys and reads the rows through JDBC, so the difference is the transaction and session setup.
+     */
+    @Test
+    @Benchmark
+    void allocation_and_cpu_read_write_vs_read_only() {
+        jdbc.update("""
+            INSERT INTO book (id, title, price, quantity, rating, created_at, updated_at, created_by, updated_by)
+            SELECT i, 'Generated ' || i, (i % 5000) / 100.0, i % 50, (i % 50) / 10.0, now(), now(), 'bench', 'bench'
+            FROM generate_series(1000, 5999) i
+            """);
+        jdbc.update("""
+            INSERT INTO book_author (book_id, author_id) SELECT i, 10 + i % 5 FROM generate_series(1000, 5999) i
+            """);
+        jdbc.update("""
+            INSERT INTO book_genre (book_id, genre_id) SELECT i, 20 + i % 3 FROM generate_series(1000, 5999) i
+            """);
+
+        BookSearchRequestDto request = new BookSearchRequestDto();
+        request.setGenreIds(List.of(20L));
+        request.setSize(100);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        Supplier<Integer> search = () -> bookService.search(request).content().size();
+
+        Cost readWriteCost = measure(() -> readWrite.execute(status -> search.get()));
+        Cost readOnlyCost = measure(search);
+        log.info("Search of {} books: read-write {} KB and {} us CPU per request, read-only {} KB and {} us CPU",
+            request.getSize(), readWriteCost.bytes() / 1_024, readWriteCost.cpuNanos() / 1_000,
+            readOnlyCost.bytes() / 1_024, readOnlyCost.cpuNanos() / 1_000);
+        assertThat(search.get()).isEqualTo(readWrite.execute(status -> search.get()));
+    }
+
+    private String firstName(long authorId) {
+        return jdbc.queryForObject("SELECT first_name FROM author WHERE id = ?", String.class, authorId);
+    }
+
+    /**
+     * Mean allocation and CPU time of the calling thread per request.
+     */
+    private static Cost measure(Supplier<Integer> request) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP; i++) {
+            request.get();
+        }
+        long bytes = threads.getCurrentThreadAllocatedBytes();
+        long cpu = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            request.get();
+        }
+        return new Cost((threads.getCurrentThreadAllocatedBytes() - bytes) / ROUNDS,
+            (threads.getCurrentThreadCpuTime() - cpu) / ROUNDS);
+    }
+
+    private record Cost(long bytes, long cpuNanos) {
+    }
+}
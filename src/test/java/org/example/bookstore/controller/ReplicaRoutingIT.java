@@ -0,0 +1,181 @@
+package org.example.bookstore.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.example.bookstore.config.database.ReadYourWrites;
+import org.example.bookstore.config.database.ReplicaLagMonitor;
+import org.example.bookstore.repository.BookReadRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Read/write routing against a primary and a streaming replica:
+ * - read-only transactions are served by the replica
+ * - a request that has written reads from the primary
+ * - a lagging replica is bypassed.
+ *
+ * <p>Starts two containers of its own; run with {@code BOOKSTORE_REPLICATION=true ./gradlew integrationTest
+ * --tests '*ReplicaRoutingIT'}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+@EnabledIfEnvironmentVariable(named = "BOOKSTORE_REPLICATION", matches = "true")
+class ReplicaRoutingIT {
+
+    private static final String IMAGE = "postgres:15.4";
+    private static final Duration MAX_LAG = Duration.ofSeconds(3);
+    private static final Network NETWORK = Network.newNetwork();
+
+    @Container
+    private static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>(IMAGE)
+        .withNetwork(NETWORK)
+        .withNetworkAliases("primary")
+        .withCopyToContainer(Transferable.of("""
+            psql -v ON_ERROR_STOP=1 -U "$POSTGRES_USER" -d "$POSTGRES_DB" \
+                -c "CREATE ROLE replicator WITH REPLICATION LOGIN PASSWORD 'replicator'"
+            echo "host replication replicator all scram-sha-256" >> "$PGDATA/pg_hba.conf"
+            """), "/docker-entrypoint-initdb.d/replication.sh");
+
+    @Container
+    private static final GenericContainer<?> REPLICA = new GenericContainer<>(IMAGE)
+        .dependsOn(PRIMARY)
+        .withNetwork(NETWORK)
+        .withExposedPorts(PostgreSQLContainer.POSTGRESQL_PORT)
+        .withEnv("PGPASSWORD", "replicator")
+        .withCreateContainerCmdModifier(cmd -> cmd.withUser("postgres"))
+        .withCommand("bash", "-c", """
+            rm -rf "$PGDATA"/* \
+            && until pg_basebackup -h primary -U replicator -D "$PGDATA" -R -X stream; do sleep 1; done \
+            && chmod 700 "$PGDATA" && exec postgres
+            """)
+        .waitingFor(Wait.forLogMessage(".*ready to accept read.only connections.*", 1));
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+    @Autowired
+    private BookReadRepository bookReadRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", PRIMARY::getJdbcUrl);
+        registry.add("spring.datasource.username", PRIMARY::getUsername);
+        registry.add("spring.datasource.password", PRIMARY::getPassword);
+        registry.add("app.datasource.replica.enabled", () -> "true");
+        registry.add("app.datasource.replica.url", ReplicaRoutingIT::replicaUrl);
+        registry.add("app.datasource.replica.username", PRIMARY::getUsername);
+        registry.add("app.datasource.replica.password", PRIMARY::getPassword);
+        registry.add("app.datasource.replica.max-lag", MAX_LAG::toString);
+        // measured on demand by the tests
+        registry.add("app.datasource.replica.lag-check-interval", () -> "1h");
+        registry.add("spring.test.database.replace", () -> "NONE");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @AfterEach
+    void resumeReplay() throws SQLException {
+        onReplica("SELECT pg_wal_replay_resume()");
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    @DisplayName("reads go to the replica until the request writes or the replica lags")
+    void routing() throws Exception {
+        JdbcTemplate jdbc = new JdbcTemplate(primary);
+        insertBook(jdbc, 9001);
+        awaitReplicated(9001);
+
+        onReplica("SELECT pg_wal_replay_pause()");
+        insertBook(jdbc, 9002);
+        lagMonitor.refresh();
+
+        // served by the paused replica, which has not seen the book
+        mvc.perform(get("/api/books/{id}", 9002L).with(httpBasic("user", "user123")))
+            .andExpect(status().isNotFound());
+
+        // a request that has written reads its own writes
+        ReadYourWrites.markWritten();
+        assertThat(readOnly(9002)).isTrue();
+        ReadYourWrites.clear();
+        assertThat(readOnly(9002)).isFalse();
+
+        // once the replica trails by more than max-lag, reads fall back to the primary
+        Thread.sleep(MAX_LAG.plusSeconds(1).toMillis());
+        lagMonitor.refresh();
+        assertThat(lagMonitor.isReplicaUsable()).isFalse();
+        mvc.perform(get("/api/books/{id}", 9002L).with(httpBasic("user", "user123")))
+            .andExpect(status().isOk());
+    }
+
+    private boolean readOnly(long id) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        return Boolean.TRUE.equals(tx.execute(status -> bookReadRepository.findById(id).isPresent()));
+    }
+
+    private void awaitReplicated(long id) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (System.nanoTime() < deadline) {
+            lagMonitor.refresh();
+            if (lagMonitor.isReplicaUsable() && readOnly(id)) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Book " + id + " was not replicated");
+    }
+
+    private static void insertBook(JdbcTemplate jdbc, long id) {
+        jdbc.update("""
+            INSERT INTO book (id, title, created_at, updated_at, created_by, updated_by)
+            VALUES (?, 'Replicated', now(), now(), 'test', 'test')
+            """, id);
+    }
+
+    private static void onReplica(String sql) throws SQLException {
+        try (Connection con = DriverManager.getConnection(replicaUrl(), PRIMARY.getUsername(), PRIMARY.getPassword());
+             Statement st = con.createStatement()) {
+            st.execute(sql);
+        }
+    }
+
+    private static String replicaUrl() {
+        return "jdbc:postgresql://" + REPLICA.getHost() + ":"
+            + REPLICA.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + PRIMARY.getDatabaseName();
+    }
+}
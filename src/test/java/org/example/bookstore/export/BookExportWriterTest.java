@@ -0,0 +1,50 @@
+package org.example.bookstore.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.example.bookstore.dto.author.AuthorDto;
+import org.example.bookstore.dto.book.BookResponseDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BookExportWriterTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @Test
+    @DisplayName("csv: quotes fields with separators and quotes, leaves empty values blank")
+    void csv_quoting() {
+        AuthorDto author = new AuthorDto();
+        author.setFirstName("Neil");
+        author.setLastName("Gaiman");
+        BookExportWriter writer = new BookExportWriter(ExportFormat.CSV, new ObjectMapper(), out);
+
+        writer.write(new BookResponseDto(1L, "Smoke, \"Mirrors\"", List.of(author, author), List.of(),
+            new BigDecimal("1E+1"), null, null));
+        writer.flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).containsExactly(
+            BookExportWriter.CSV_HEADER,
+            "1,\"Smoke, \"\"Mirrors\"\"\",10,,,Neil Gaiman; Neil Gaiman,");
+    }
+
+    @Test
+    @DisplayName("ndjson: one object per line, nothing is written before flush")
+    void ndjson_lines() {
+        BookExportWriter writer = new BookExportWriter(ExportFormat.NDJSON, new ObjectMapper(), out);
+
+        writer.writeAll(List.of(
+            new BookResponseDto(1L, "A", List.of(), List.of(), null, 1, null),
+            new BookResponseDto(2L, "B", List.of(), List.of(), null, 2, null)));
+        assertThat(out.size()).isZero();
+        writer.flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).hasSize(2)
+            .allSatisfy(line -> assertThat(line).startsWith("{\"id\":"));
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.bookstore.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.example.bookstore.importer.ImportRecord.AuthorName;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ImportReaderTest {
+
+    @Test
+    @DisplayName("csv: quoted fields, author and genre lists, blank values; invalid records are skipped")
+    void csv_records() throws IOException {
+        ImportReader reader = reader(ImportFormat.CSV, """
+            id,title,price,quantity,rating,authors,genres
+            1,"Smoke, ""Mirrors""\",10,,,Neil Gaiman; Terry Pratchett,Fantasy
+            ,Mort,abc,1,,,
+            ,"Multi
+            line",-1,,,,
+            , Stardust ,9.5,2,4.1,Neil Gaiman,
+            """);
+
+        assertThat(reader.next()).isEqualTo(new ImportRecord(1L, "Smoke, \"Mirrors\"", BigDecimal.TEN, null, null,
+            List.of(new AuthorName("Neil", "Gaiman"), new AuthorName("Terry", "Pratchett")), List.of("Fantasy")));
+        assertThatThrownBy(reader::next).isInstanceOf(InvalidRecordException.class).hasMessageContaining("price");
+        assertThatThrownBy(reader::next).isInstanceOf(InvalidRecordException.class).hasMessageContaining("range");
+        assertThat(reader.next()).isEqualTo(new ImportRecord(null, "Stardust", new BigDecimal("9.5"), 2,
+            new BigDecimal("4.1"), List.of(new AuthorName("Neil", "Gaiman")), List.of()));
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    @DisplayName("ndjson: the export layout is read back; malformed lines are rejected")
+    void ndjson_records() throws IOException {
+        ImportReader reader = reader(ImportFormat.NDJSON, """
+            {"id":7,"title":"Mort","authors":[{"firstName":"T.","lastName":"Pratchett"}],"genres":[{"name":"Fantasy"}]}
+            {"title":
+
+            {"title":"  "}
+            """);
+
+        ImportRecord record = reader.next();
+        assertThat(record.id()).isEqualTo(7L);
+        assertThat(record.authors()).containsExactly(new AuthorName("T.", "Pratchett"));
+        assertThat(record.genres()).containsExactly("Fantasy");
+        assertThatThrownBy(reader::next).isInstanceOf(InvalidRecordException.class);
+        assertThatThrownBy(reader::next).hasMessage("Missing title");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    @DisplayName("skip counts rejected records and stops at the end of the file")
+    void skip() throws IOException {
+        ImportReader reader = reader(ImportFormat.CSV, "title,price\nA,1\nB,x\nC,3\n");
+
+        assertThat(reader.skip(2)).isEqualTo(2);
+        assertThat(reader.next().title()).isEqualTo("C");
+        assertThat(reader.skip(5)).isZero();
+    }
+
+    private static ImportReader reader(ImportFormat format, String content) {
+        return new ImportReader(format, new ObjectMapper(),
+            new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.bookstore.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import org.example.bookstore.exception.BookstoreBadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CursorMapperTest {
+
+    private final CursorMapper mapper = new CursorMapper();
+
+    @Test
+    @DisplayName("encode/decode round-trips all supported value types including nulls")
+    void roundTrip() {
+        ZonedDateTime now = ZonedDateTime.parse("2024-05-01T10:15:30.123456Z");
+        List<Object> values = Arrays.asList("Good Omens", null, new BigDecimal("12.50"), 7, now, 0.25d, 100L);
+
+        String cursor = mapper.encode("title: ASC,id: ASC", values);
+
+        assertThat(cursor).doesNotContain("=", "+", "/");
+        assertThat(mapper.decode(cursor, "title: ASC,id: ASC", values.size())).containsExactlyElementsOf(values);
+    }
+
+    @Test
+    @DisplayName("decode rejects a cursor produced for another sort")
+    void decode_signatureMismatch() {
+        String cursor = mapper.encode("title: ASC,id: ASC", List.of("Mort", 1L));
+
+        assertThatThrownBy(() -> mapper.decode(cursor, "price: DESC,id: ASC", 2))
+            .isInstanceOf(BookstoreBadRequestException.class)
+            .hasMessageContaining("sort");
+    }
+
+    @Test
+    @DisplayName("decode rejects a cursor with more or fewer values than sort keys")
+    void decode_keyCountMismatch() {
+        String cursor = mapper.encode("title: ASC,id: ASC", List.of("Mort"));
+
+        assertThatThrownBy(() -> mapper.decode(cursor, "title: ASC,id: ASC", 2))
+            .isInstanceOf(BookstoreBadRequestException.class)
+            .hasMessageContaining("sort");
+    }
+
+    @Test
+    @DisplayName("decode rejects garbage")
+    void decode_malformed() {
+        assertThatThrownBy(() -> mapper.decode("not a cursor!", "id: ASC", 1))
+            .isInstanceOf(BookstoreBadRequestException.class);
+        assertThatThrownBy(() -> mapper.decode("AAAA", "id: ASC", 1))
+            .isInstanceOf(BookstoreBadRequestException.class);
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.bookstore.reference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LongMapTest {
+
+    private record Row(long id, String name) {
+    }
+
+    @Test
+    @DisplayName("of: sorts by key, the last of equal keys wins")
+    void of() {
+        LongMap<Row> map = LongMap.of(List.of(new Row(3, "c"), new Row(1, "a"), new Row(3, "c2")), Row::id);
+
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.get(3).name()).isEqualTo("c2");
+        assertThat(map.get(2)).isNull();
+        assertThat(map.values()).extracting(Row::id).containsExactly(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("with and without return copies and leave the original untouched")
+    void copy_on_write() {
+        LongMap<Row> original = LongMap.of(List.of(new Row(1, "a"), new Row(5, "e")), Row::id);
+
+        LongMap<Row> added = original.with(3, new Row(3, "c")).with(9, new Row(9, "i")).with(0, new Row(0, "z"));
+        LongMap<Row> replaced = original.with(5, new Row(5, "E"));
+        LongMap<Row> removed = original.without(1);
+
+        assertThat(added.values()).extracting(Row::id).containsExactly(0L, 1L, 3L, 5L, 9L);
+        assertThat(replaced.get(5).name()).isEqualTo("E");
+        assertThat(removed.containsKey(1)).isFalse();
+        assertThat(removed.without(42)).isSameAs(removed);
+        assertThat(original.values()).extracting(Row::name).containsExactly("a", "e");
+    }
+
+    @Test
+    @DisplayName("withAll: replaces, adds and removes in one copy")
+    void with_all() {
+        LongMap<Row> original = LongMap.of(List.of(new Row(1, "a"), new Row(3, "c"), new Row(5, "e")), Row::id);
+
+        LongMap<Row> changed = original.withAll(List.of(new Row(4, "d"), new Row(3, "C")), List.of(5L, 7L), Row::id);
+
+        assertThat(changed.values()).extracting(Row::name).containsExactly("a", "C", "d");
+        assertThat(original.withAll(List.of(), List.of(), Row::id)).isSameAs(original);
+        assertThat(original.values()).extracting(Row::name).containsExactly("a", "c", "e");
+    }
+
+    @Test
+    @DisplayName("empty map")
+    void empty() {
+        LongMap<Row> empty = LongMap.empty();
+
+        assertThat(empty.size()).isZero();
+        assertThat(empty.containsKey(1)).isFalse();
+        assertThat(empty.with(1, new Row(1, "a")).get(1).name()).isEqualTo("a");
+    }
+}
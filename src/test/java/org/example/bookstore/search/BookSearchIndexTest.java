@@ -0,0 +1,182 @@
+package org.example.bookstore.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+import org.example.bookstore.dto.SearchRequestDto;
+import org.example.bookstore.dto.author.AuthorDto;
+import org.example.bookstore.dto.book.BookFacetsDto;
+import org.example.bookstore.dto.book.BookResponseDto;
+import org.example.bookstore.dto.book.BookSearchRequestDto;
+import org.example.bookstore.dto.genre.GenreDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+class BookSearchIndexTest {
+
+    private final BookSearchIndex index = new BookSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.load(
+            List.of(
+                book(100, "Good Omens", "12.50", new long[] {10, 11}, new long[] {20}),
+                book(101, "Guards! Guards!", "10.99", new long[] {10}, new long[] {20}),
+                book(103, "Effective Java", "39.99", new long[] {13}, new long[] {22}),
+                book(105, "American Gods", "11.99", new long[] {11}, new long[] {20}),
+                book(106, "Neverwhere", null, new long[] {11}, new long[] {20})
+            ),
+            List.of(author(10, "Terry", "Pratchett"), author(11, "Neil", "Gaiman"), author(13, "Joshua", "Bloch")),
+            List.of(genre(20, "Fantasy"), genre(22, "Programming"))
+        );
+    }
+
+    @Test
+    @DisplayName("title: case-insensitive substring, also for terms shorter than a trigram")
+    void title_contains() {
+        assertThat(titles(request(r -> r.setTitle("GOD")), Sort.unsorted())).containsExactly("American Gods");
+        assertThat(titles(request(r -> r.setTitle("ds")), Sort.unsorted()))
+            .containsExactly("Guards! Guards!", "American Gods");
+        assertThat(titles(request(r -> r.setTitle("xyz")), Sort.unsorted())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("authorNames and genreNames: OR within a filter, AND across filters")
+    void relations() {
+        BookSearchRequestDto req = request(r -> {
+            r.setAuthorNames(List.of("terry prat", "bloch"));
+            r.setGenreNames(List.of("fant"));
+        });
+
+        assertThat(titles(req, Sort.unsorted())).containsExactly("Good Omens", "Guards! Guards!");
+    }
+
+    @Test
+    @DisplayName("price range excludes books without a price; sort puts nulls last ascending, first descending")
+    void ranges_and_nulls() {
+        assertThat(titles(request(r -> r.setMaxPrice(new BigDecimal("12.00"))), Sort.unsorted()))
+            .containsExactly("Guards! Guards!", "American Gods");
+        assertThat(titles(request(r -> r.setAuthorIds(List.of(11L))), Sort.by("price")))
+            .containsExactly("American Gods", "Good Omens", "Neverwhere");
+        assertThat(titles(request(r -> r.setAuthorIds(List.of(11L))), Sort.by(Sort.Direction.DESC, "price")))
+            .containsExactly("Neverwhere", "Good Omens", "American Gods");
+    }
+
+    @Test
+    @DisplayName("pages report the total of all matches")
+    void paging() {
+        Page<BookResponseDto> page = index.search(request(r -> r.setGenreIds(List.of(20L))),
+            PageRequest.of(1, 2, Sort.by("id")));
+
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(page.getContent()).extracting(BookResponseDto::title)
+            .containsExactly("American Gods", "Neverwhere");
+        assertThat(page.getContent().get(0).authors()).extracting(AuthorDto::getLastName).containsExactly("Gaiman");
+    }
+
+    @Test
+    @DisplayName("a page before the last one holds the same books as with a full sort")
+    void paging_top_k() {
+        BookSearchRequestDto fantasy = request(r -> r.setGenreIds(List.of(20L)));
+
+        assertThat(index.search(fantasy, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "price"))))
+            .extracting(BookResponseDto::title).containsExactly("Neverwhere", "Good Omens");
+        assertThat(index.search(fantasy, PageRequest.of(1, 1, Sort.by("price"))))
+            .extracting(BookResponseDto::title).containsExactly("American Gods");
+        assertThat(index.search(fantasy, PageRequest.of(5, 2, Sort.by("price")))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("putBook and removeBook update the term dictionary and the relation postings")
+    void incremental_updates() {
+        index.putBook(book(105, "Anansi Boys", "9.99", new long[] {11}, new long[] {20}));
+        index.putBook(book(107, "Going Postal", "8.99", new long[] {10}, new long[] {20}));
+        index.removeBook(100);
+
+        assertThat(titles(request(r -> r.setTitle("go")), Sort.by("id"))).containsExactly("Going Postal");
+        assertThat(titles(request(r -> r.setAuthorIds(List.of(10L))), Sort.by("id")))
+            .containsExactly("Guards! Guards!", "Going Postal");
+    }
+
+    @Test
+    @DisplayName("refresh puts changed books, drops missing ones and replaces authors and genres")
+    void refresh() {
+        index.refresh(
+            List.of(book(101, "Men at Arms", "10.99", new long[] {10}, new long[] {20})),
+            Roaring64Bitmap.bitmapOf(100, 101, 103, 105),
+            List.of(author(10, "Terry", "Pratchett"), author(11, "Neil", "Gaiman")),
+            List.of(genre(20, "Fantasy"), genre(22, "Programming"))
+        );
+
+        assertThat(titles(request(r -> r.setGenreIds(List.of(20L))), Sort.by("id")))
+            .containsExactly("Good Omens", "Men at Arms", "American Gods");
+        assertThat(index.search(request(r -> r.setTitle("java")), PageRequest.of(0, 20)).getContent())
+            .singleElement().satisfies(book -> assertThat(book.authors()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("facets: each one is counted without its own filter")
+    void facets() {
+        BookFacetsDto facets = index.facets(request(r -> {
+            r.setGenreIds(List.of(20L));
+            r.setAuthorIds(List.of(10L));
+            r.setMaxPrice(new BigDecimal("12.00"));
+        }), 20);
+
+        assertThat(facets.genres()).containsExactly(new BookFacetsDto.ValueCount(20L, "Fantasy", 1));
+        // ties are broken by id
+        assertThat(facets.authors()).containsExactly(
+            new BookFacetsDto.ValueCount(10L, "Terry Pratchett", 1),
+            new BookFacetsDto.ValueCount(11L, "Neil Gaiman", 1));
+        assertThat(facets.price()).extracting(BookFacetsDto.RangeCount::count)
+            .containsExactly(0L, 0L, 2L, 0L, 0L, 0L, 0L, 0L);
+        assertThat(facets.price().get(2).from()).isEqualByComparingTo("10");
+        assertThat(facets.rating()).extracting(BookFacetsDto.RangeCount::count).containsExactly(0L, 0L, 0L, 0L, 0L, 0L);
+    }
+
+    @Test
+    @DisplayName("keyset requests and title sorts are left to the database")
+    void supports() {
+        assertThat(index.supports(new BookSearchRequestDto(), Sort.by("price"))).isTrue();
+        assertThat(index.supports(new BookSearchRequestDto(), Sort.by("title"))).isFalse();
+        assertThat(index.supports(request(r -> r.setPaging(SearchRequestDto.PagingMode.KEYSET)), Sort.unsorted()))
+            .isFalse();
+    }
+
+    private List<String> titles(BookSearchRequestDto req, Sort sort) {
+        return index.search(req, PageRequest.of(0, 20, sort)).map(BookResponseDto::title).getContent();
+    }
+
+    private static BookSearchRequestDto request(Consumer<BookSearchRequestDto> customizer) {
+        BookSearchRequestDto req = new BookSearchRequestDto();
+        customizer.accept(req);
+        return req;
+    }
+
+    private static BookDocument book(long id, String title, String price, long[] authorIds, long[] genreIds) {
+        return new BookDocument(id, title, price == null ? null : new BigDecimal(price), 1, null, null, null,
+            authorIds, genreIds);
+    }
+
+    private static AuthorDto author(long id, String firstName, String lastName) {
+        AuthorDto author = new AuthorDto();
+        author.setId(id);
+        author.setFirstName(firstName);
+        author.setLastName(lastName);
+        return author;
+    }
+
+    private static GenreDto genre(long id, String name) {
+        GenreDto genre = new GenreDto();
+        genre.setId(id);
+        genre.setName(name);
+        return genre;
+    }
+}
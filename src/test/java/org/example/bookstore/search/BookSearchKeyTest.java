@@ -0,0 +1,50 @@
+package org.example.bookstore.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import org.example.bookstore.dto.SearchRequestDto;
+import org.example.bookstore.dto.book.BookSearchRequestDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BookSearchKeyTest {
+
+    @Test
+    @DisplayName("list order, case of names, blank names and decimal scale do not change the key")
+    void equivalent_requests() {
+        BookSearchRequestDto a = new BookSearchRequestDto();
+        a.setTitle("Gods");
+        a.setAuthorIds(List.of(11L, 10L));
+        a.setGenreNames(Arrays.asList("Fantasy", " ", "sci"));
+        a.setMaxPrice(new BigDecimal("12.0"));
+
+        BookSearchRequestDto b = new BookSearchRequestDto();
+        b.setTitle("gods");
+        b.setAuthorIds(List.of(10L, 11L, 10L));
+        b.setGenreNames(List.of("SCI", "fantasy"));
+        b.setMaxPrice(new BigDecimal("12.00"));
+
+        assertThat(BookSearchKey.of(a)).isEqualTo(BookSearchKey.of(b));
+        assertThat(BookSearchKey.of(a)).hasSameHashCodeAs(BookSearchKey.of(b));
+    }
+
+    @Test
+    @DisplayName("paging, sort and facets are part of the key")
+    void distinct_requests() {
+        BookSearchRequestDto a = new BookSearchRequestDto();
+        BookSearchRequestDto b = new BookSearchRequestDto();
+        b.setPage(1);
+        BookSearchRequestDto c = new BookSearchRequestDto();
+        SearchRequestDto.OrderDto order = new SearchRequestDto.OrderDto();
+        order.setProperty("title");
+        c.getSort().getOrders().add(order);
+        BookSearchRequestDto d = new BookSearchRequestDto();
+        d.setFacets(true);
+
+        assertThat(List.of(BookSearchKey.of(b), BookSearchKey.of(c), BookSearchKey.of(d)))
+            .doesNotContain(BookSearchKey.of(a));
+    }
+}
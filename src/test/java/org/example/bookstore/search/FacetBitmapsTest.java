@@ -0,0 +1,58 @@
+package org.example.bookstore.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class FacetBitmapsTest {
+
+    private final FacetBitmaps facets = new FacetBitmaps();
+
+    @Test
+    @DisplayName("anyAuthor/anyGenre: union of the relation bitmaps, unknown ids are ignored")
+    void relations() {
+        facets.add(book(1, "9.99", 4, new long[] {10, 11}, new long[] {20}));
+        facets.add(book(2, "12.50", 0, new long[] {11}, new long[] {21}));
+        facets.add(book(3, "45.00", 60, new long[] {12}, new long[] {20}));
+
+        assertThat(facets.anyAuthor(List.of(10L, 12L, 99L)).toArray()).containsExactly(1L, 3L);
+        assertThat(facets.anyGenre(List.of(20L)).toArray()).containsExactly(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("range: union of the overlapped buckets, a superset of the exact range")
+    void ranges() {
+        facets.add(book(1, "9.99", 4, new long[0], new long[0]));
+        facets.add(book(2, "12.50", 0, new long[0], new long[0]));
+        facets.add(book(3, "45.00", 60, new long[0], new long[0]));
+        facets.add(book(4, null, null, new long[0], new long[0]));
+
+        // [10, 15) bucket only
+        assertThat(facets.price().range(new BigDecimal("11"), new BigDecimal("14")).toArray()).containsExactly(2L);
+        // [5, 10) and [10, 15) buckets: book 1 is a false positive left to the value check
+        assertThat(facets.price().range(new BigDecimal("9.995"), new BigDecimal("13")).toArray())
+            .containsExactly(1L, 2L);
+        assertThat(facets.quantity().range(50, null).toArray()).containsExactly(3L);
+        assertThat(facets.price().range(null, null).toArray()).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("remove clears the book from every bitmap")
+    void remove() {
+        BookDocument doc = book(1, "9.99", 4, new long[] {10}, new long[] {20});
+        facets.add(doc);
+        facets.remove(doc);
+
+        assertThat(facets.all().isEmpty()).isTrue();
+        assertThat(facets.anyAuthor(List.of(10L)).isEmpty()).isTrue();
+        assertThat(facets.price().range(null, null).isEmpty()).isTrue();
+    }
+
+    private static BookDocument book(long id, String price, Integer quantity, long[] authorIds, long[] genreIds) {
+        return new BookDocument(id, "Book " + id, price == null ? null : new BigDecimal(price), quantity, null, null,
+            null, authorIds, genreIds);
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.bookstore.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.example.bookstore.search.PrefixIndex.Completion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PrefixIndexTest {
+
+    // rebuilds run on the writing thread
+    private final PrefixIndex index = new PrefixIndex(Runnable::run);
+
+    @BeforeEach
+    void setUp() {
+        index.load(List.of(
+            new Completion(1, "Good Omens", 4.8),
+            new Completion(2, "Guards! Guards!", 4.6),
+            new Completion(3, "American Gods", 4.4),
+            new Completion(4, "Gods of the Gods", 3.0)
+        ));
+    }
+
+    @Test
+    @DisplayName("matches the start of any word, ranks by score, case-insensitive")
+    void word_prefixes() {
+        assertThat(texts("GO")).containsExactly("Good Omens", "American Gods", "Gods of the Gods");
+        assertThat(texts("guards!")).containsExactly("Guards! Guards!");
+        assertThat(texts("mens")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("long prefixes are scanned, a text matching several times is returned once")
+    void long_prefix_deduplicated() {
+        assertThat(texts("gods")).containsExactly("American Gods", "Gods of the Gods");
+        assertThat(index.top("gods", 1)).extracting(Completion::id).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("puts and removes shadow the loaded entries")
+    void incremental_updates() {
+        index.put(new Completion(4, "Gods of the Gods", 5.0));
+        index.put(new Completion(5, "Going Postal", 4.9));
+        index.remove(1);
+
+        assertThat(texts("go")).containsExactly("Gods of the Gods", "Going Postal", "American Gods");
+        assertThat(texts("gods of")).containsExactly("Gods of the Gods");
+    }
+
+    @Test
+    @DisplayName("a short prefix whose precomputed top lost too many completions to the delta is scanned")
+    void short_prefix_fallback() {
+        List<Completion> many = new ArrayList<>();
+        for (int i = 1; i <= 45; i++) {
+            many.add(new Completion(i, "Go " + i, i));
+        }
+        index.load(many);
+        // the precomputed top of "go" holds 45..6; 9..6 stay visible, 5..1 are behind the cut
+        index.removeAll(LongStream.rangeClosed(10, 45).boxed().toList());
+
+        assertThat(index.top("go", 10)).extracting(Completion::id)
+            .containsExactly(9L, 8L, 7L, 6L, 5L, 4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    @DisplayName("a batch larger than the delta rebuilds the base; later changes keep applying")
+    void batch_and_rebuild() {
+        List<Completion> batch = new ArrayList<>();
+        for (int i = 100; i < 5_100; i++) {
+            batch.add(new Completion(i, "Night Watch " + i, 1.0));
+        }
+        index.putAll(batch);
+        index.put(new Completion(2, "Guards! Guards!", 5.0));
+
+        assertThat(index.top("night", 1)).extracting(Completion::text).containsExactly("Night Watch 100");
+        assertThat(index.top("gua", 1)).extracting(Completion::score).containsExactly(5.0);
+        assertThat(texts("good")).containsExactly("Good Omens");
+    }
+
+    private List<String> texts(String prefix) {
+        return index.top(prefix, 10).stream().map(Completion::text).toList();
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.bookstore.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import org.example.bookstore.entity.Author;
+import org.example.bookstore.exception.BookstoreConflictException;
+import org.example.bookstore.exception.BookstoreEntityNotFoundException;
+import org.example.bookstore.repository.AuthorRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorServiceTest {
+
+    @Mock
+    private AuthorRepository authorRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private AuthorService service;
+
+    @Test
+    @DisplayName("create: an author with the same names is a conflict")
+    void create_duplicate() {
+        when(authorRepository.existsByFirstNameAndLastName("Terry", "Pratchett")).thenReturn(true);
+
+        assertThatThrownBy(() -> service.create(" Terry ", "Pratchett"))
+            .isInstanceOf(BookstoreConflictException.class)
+            .hasMessageContaining("Terry Pratchett");
+        verify(authorRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("update: taking the names of another author is a conflict, keeping one's own is not")
+    void update_duplicate() {
+        Author author = Author.builder().firstName("Terry").lastName("Pratchett").build();
+        author.setId(10L);
+        when(authorRepository.findById(10L)).thenReturn(Optional.of(author));
+        when(authorRepository.existsByFirstNameAndLastNameAndIdNot("Neil", "Gaiman", 10L)).thenReturn(true);
+        when(authorRepository.existsByFirstNameAndLastNameAndIdNot("Terry", "Pratchett", 10L)).thenReturn(false);
+        when(authorRepository.save(author)).thenReturn(author);
+
+        assertThatThrownBy(() -> service.update(10L, "Neil", "Gaiman"))
+            .isInstanceOf(BookstoreConflictException.class);
+        assertThat(service.update(10L, "Terry", "Pratchett")).isSameAs(author);
+    }
+
+    @Test
+    @DisplayName("getReference: existence is checked against the database")
+    void get_reference() {
+        Author author = new Author();
+        when(authorRepository.existsById(10L)).thenReturn(true);
+        when(authorRepository.existsById(99L)).thenReturn(false);
+        when(authorRepository.getReferenceById(10L)).thenReturn(author);
+
+        assertThat(service.getReference(10L)).isSameAs(author);
+        assertThatThrownBy(() -> service.getReference(99L))
+            .isInstanceOf(BookstoreEntityNotFoundException.class);
+    }
+}
@@ -0,0 +1,169 @@
+package org.example.bookstore.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.validation.Validation;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import org.example.bookstore.dto.book.BookBulkCreateItemDto;
+import org.example.bookstore.dto.book.BookBulkCreateResponseDto;
+import org.example.bookstore.dto.book.BookBulkCreateResponseDto.ItemResult;
+import org.example.bookstore.dto.book.BookBulkUpdateItemDto;
+import org.example.bookstore.dto.book.BookBulkUpdateRequestDto;
+import org.example.bookstore.dto.book.BookBulkUpdateResponseDto;
+import org.example.bookstore.dto.book.BookBulkUpdateRuleDto;
+import org.example.bookstore.event.BooksChangedEvent;
+import org.example.bookstore.exception.BookstoreBadRequestException;
+import org.example.bookstore.repository.BookBulkRepository;
+import org.example.bookstore.repository.BookBulkRepository.UpdateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BookBulkServiceTest {
+
+    @Mock
+    private BookBulkRepository bookBulkRepository;
+    @Mock
+    private AuditorAware<String> auditorAware;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookBulkService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BookBulkService(bookBulkRepository,
+            Validation.buildDefaultValidatorFactory().getValidator(), auditorAware, eventPublisher, transactionManager);
+        when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of("admin"));
+        when(bookBulkRepository.findExistingAuthorIds(anyCollection()))
+            .thenAnswer(inv -> inv.<Collection<Long>>getArgument(0).stream().filter(id -> id < 50)
+                .collect(Collectors.toSet()));
+        when(bookBulkRepository.findExistingGenreIds(anyCollection()))
+            .thenAnswer(inv -> new HashSet<>(inv.<Collection<Long>>getArgument(0)));
+    }
+
+    @Test
+    @DisplayName("invalid items are reported and never written; valid ones get ids in request order")
+    void validates_per_item() {
+        when(bookBulkRepository.insertAll(anyList(), eq("admin"))).thenReturn(List.of(500L, 501L));
+
+        BookBulkCreateResponseDto response = service.createAll(List.of(
+            item("A", Set.of(10L)), item("", null), item("B", null), item("C", Set.of(10L, 99L))));
+
+        assertThat(response.created()).isEqualTo(2);
+        assertThat(response.failed()).isEqualTo(2);
+        assertThat(response.items()).extracting(ItemResult::id).containsExactly(500L, null, 501L, null);
+        assertThat(response.items().get(1).error()).startsWith("title: ");
+        assertThat(response.items().get(3).error()).isEqualTo("authorIds: unknown [99]");
+        verify(bookBulkRepository).findExistingAuthorIds(Set.of(10L, 99L));
+        verify(eventPublisher).publishEvent(new BooksChangedEvent(List.of(500L, 501L)));
+    }
+
+    @Test
+    @DisplayName("a failing chunk is reported item by item, the other chunks are created")
+    void chunk_failure() {
+        List<BookBulkCreateItemDto> items = IntStream.range(0, 1_500).mapToObj(i -> item("T" + i, null)).toList();
+        when(bookBulkRepository.insertAll(anyList(), any()))
+            .thenReturn(IntStream.range(0, 1_000).mapToObj(i -> (long) i).toList())
+            .thenThrow(new DataIntegrityViolationException("fk_book_author_author"));
+
+        BookBulkCreateResponseDto response = service.createAll(items);
+
+        assertThat(response.created()).isEqualTo(1_000);
+        assertThat(response.failed()).isEqualTo(500);
+        assertThat(response.items().get(999).id()).isEqualTo(999L);
+        assertThat(response.items().get(1_000).error()).isEqualTo("Not created: fk_book_author_author");
+        verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("update items: the last item of an id wins, invalid and unknown ids are reported")
+    void update_items() {
+        when(bookBulkRepository.updateAll(anyList(), eq("admin")))
+            .thenReturn(new UpdateResult(List.of(1L), List.of(4L)));
+
+        BookBulkUpdateResponseDto response = service.updateAll(new BookBulkUpdateRequestDto(List.of(
+            update(1L, "1.00"), update(2L, "-1"), update(1L, "2.00"), update(null, "3.00"), update(3L, "3.00"),
+            update(4L, "4.00")), null));
+
+        assertThat(response).isEqualTo(new BookBulkUpdateResponseDto(1, 1, 3, List.of(2L, 4L)));
+        verify(bookBulkRepository).updateAll(
+            List.of(update(1L, "2.00"), update(3L, "3.00"), update(4L, "4.00")), "admin");
+        verify(eventPublisher).publishEvent(new BooksChangedEvent(List.of(1L)));
+    }
+
+    @Test
+    @DisplayName("update by rule: books are paged by id; a failing chunk is reported, the next one applied")
+    void update_by_rule() {
+        List<Long> first = LongStream.rangeClosed(1, 1_000).boxed().toList();
+        when(bookBulkRepository.findIds(Set.of(20L), null, 0, 1_000)).thenReturn(first);
+        when(bookBulkRepository.findIds(Set.of(20L), null, 1_000, 1_000)).thenReturn(List.of(1_500L, 1_600L));
+        when(bookBulkRepository.findIds(Set.of(20L), null, 1_600, 1_000)).thenReturn(List.of());
+        when(bookBulkRepository.adjustAll(first, new BigDecimal("1.10"), null, "admin"))
+            .thenThrow(new DataIntegrityViolationException("numeric field overflow"));
+        when(bookBulkRepository.adjustAll(List.of(1_500L, 1_600L), new BigDecimal("1.10"), null, "admin"))
+            .thenReturn(List.of(1_600L));
+
+        BookBulkUpdateResponseDto response = service.updateAll(new BookBulkUpdateRequestDto(null,
+            new BookBulkUpdateRuleDto(BigDecimal.TEN, null, Set.of(20L), null)));
+
+        assertThat(response.updated()).isEqualTo(1);
+        assertThat(response.unchanged()).isEqualTo(1);
+        assertThat(response.failedIds()).isEqualTo(first);
+        verify(eventPublisher, times(1)).publishEvent(new BooksChangedEvent(List.of(1_600L)));
+    }
+
+    @Test
+    @DisplayName("an update needs either items or a rule that changes something")
+    void update_request_checks() {
+        assertThatThrownBy(() -> service.updateAll(new BookBulkUpdateRequestDto(List.of(update(1L, "1")),
+            new BookBulkUpdateRuleDto(BigDecimal.ONE, null, null, null))))
+            .isInstanceOf(BookstoreBadRequestException.class);
+        assertThatThrownBy(() -> service.updateAll(new BookBulkUpdateRequestDto(null,
+            new BookBulkUpdateRuleDto(null, null, Set.of(20L), null))))
+            .isInstanceOf(BookstoreBadRequestException.class);
+        assertThatThrownBy(() -> service.updateAll(new BookBulkUpdateRequestDto(null,
+            new BookBulkUpdateRuleDto(null, 5, null, Set.of(99L)))))
+            .hasMessage("Unknown genreIds [], authorIds [99]");
+    }
+
+    private static BookBulkUpdateItemDto update(Long id, String price) {
+        return new BookBulkUpdateItemDto(id, new BigDecimal(price), null, null);
+    }
+
+    private static BookBulkCreateItemDto item(String title, Set<Long> authorIds) {
+        BookBulkCreateItemDto item = new BookBulkCreateItemDto();
+        item.setTitle(title);
+        item.setAuthorIds(authorIds);
+        return item;
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.bookstore.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.example.bookstore.config.CacheConfig;
+import org.example.bookstore.config.database.PrimaryReads;
+import org.example.bookstore.config.properties.SingleFlightProperties;
+import org.example.bookstore.dto.SearchRequestDto;
+import org.example.bookstore.dto.SearchResponseDto;
+import org.example.bookstore.dto.Versioned;
+import org.example.bookstore.dto.book.BookResponseDto;
+import org.example.bookstore.dto.book.BookSearchRequestDto;
+import org.example.bookstore.event.BookChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+class BookReadCoalescerTest {
+
+    private static final BookResponseDto OLD = new BookResponseDto(1L, "Old", List.of(), List.of(), null, null, null);
+    private static final BookResponseDto NEW = new BookResponseDto(1L, "New", List.of(), List.of(), null, null, null);
+    private static final Versioned<BookResponseDto> OLD_VERSION = new Versioned<>("old", OLD);
+    private static final Versioned<BookResponseDto> NEW_VERSION = new Versioned<>("new", NEW);
+
+    private final BookService bookService = mock(BookService.class);
+    private final BookCaches bookCaches = caches(Duration.ZERO);
+    private final BookCacheEvictor evictor = new BookCacheEvictor(bookCaches);
+    private final BookSearchCacheEvictor searchEvictor = new BookSearchCacheEvictor(bookCaches);
+    private final BookReadCoalescer coalescer = new BookReadCoalescer(bookService, bookCaches,
+        new SingleFlightProperties(true, Duration.ofSeconds(5), Duration.ofSeconds(5)), new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("get: a load that read before an update does not cache the old book after the eviction")
+    void load_interleaved_with_update() throws Exception {
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+        when(bookService.get(1L))
+            .thenAnswer(invocation -> {
+                read.countDown();
+                committed.await(5, TimeUnit.SECONDS);
+                return OLD_VERSION;
+            })
+            .thenReturn(NEW_VERSION);
+
+        CompletableFuture<Versioned<BookResponseDto>> racing = CompletableFuture.supplyAsync(() -> coalescer.get(1L));
+        assertThat(read.await(5, TimeUnit.SECONDS)).isTrue();
+        // the update commits and evicts while the load still holds the old row
+        coalescer.onBookChanged(new BookChangedEvent(1L));
+        evictor.onBookChanged(new BookChangedEvent(1L));
+        committed.countDown();
+
+        assertThat(racing.get(5, TimeUnit.SECONDS)).isSameAs(OLD_VERSION);
+        assertThat(coalescer.get(1L)).isSameAs(NEW_VERSION);
+        assertThat(coalescer.get(1L)).isSameAs(NEW_VERSION);
+        verify(bookService, times(2)).get(1L);
+    }
+
+    @Test
+    @DisplayName("search: a search that read before an update does not cache its page after the eviction")
+    void search_interleaved_with_update() throws Exception {
+        BookSearchRequestDto request = new BookSearchRequestDto();
+        request.setTitle("dune");
+        SearchResponseDto<BookResponseDto> old = page(OLD);
+        SearchResponseDto<BookResponseDto> current = page(NEW);
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+        when(bookService.search(request))
+            .thenAnswer(invocation -> {
+                read.countDown();
+                committed.await(5, TimeUnit.SECONDS);
+                return old;
+            })
+            .thenReturn(current);
+
+        CompletableFuture<SearchResponseDto<BookResponseDto>> racing =
+            CompletableFuture.supplyAsync(() -> coalescer.search(request));
+        assertThat(read.await(5, TimeUnit.SECONDS)).isTrue();
+        coalescer.onBookChanged(new BookChangedEvent(1L));
+        searchEvictor.onBookChanged(new BookChangedEvent(1L));
+        committed.countDown();
+
+        assertThat(racing.get(5, TimeUnit.SECONDS)).isSameAs(old);
+        assertThat(coalescer.search(request)).isSameAs(current);
+        assertThat(coalescer.search(request)).isSameAs(current);
+        verify(bookService, times(2)).search(request);
+    }
+
+    @Test
+    @DisplayName("search: a page whose exact count timed out is not cached; a page without count by request is")
+    void degraded_not_cached() {
+        BookSearchRequestDto exact = new BookSearchRequestDto();
+        exact.setTitle("dune");
+        BookSearchRequestDto uncounted = new BookSearchRequestDto();
+        uncounted.setTitle("dune");
+        uncounted.setCountMode(SearchRequestDto.CountMode.NONE);
+        SearchResponseDto<BookResponseDto> slice = SearchResponseDto.slice(List.of(OLD), 0, 20, false);
+        when(bookService.search(exact)).thenReturn(slice, page(NEW));
+        when(bookService.search(uncounted)).thenReturn(slice);
+
+        assertThat(coalescer.search(exact)).isSameAs(slice);
+        assertThat(coalescer.search(exact).countType()).isEqualTo(SearchResponseDto.CountType.EXACT);
+        assertThat(coalescer.search(exact).countType()).isEqualTo(SearchResponseDto.CountType.EXACT);
+        coalescer.search(uncounted);
+        coalescer.search(uncounted);
+
+        verify(bookService, times(2)).search(exact);
+        verify(bookService).search(uncounted);
+    }
+
+    @Test
+    @DisplayName("get: within the replica lag of an invalidation the book is reloaded from the primary")
+    void reload_from_primary_within_replica_lag() {
+        BookCaches lagging = caches(Duration.ofHours(1));
+        BookReadCoalescer replicaCoalescer = new BookReadCoalescer(bookService, lagging,
+            new SingleFlightProperties(false, Duration.ofSeconds(5), Duration.ofSeconds(5)), new SimpleMeterRegistry());
+        when(bookService.get(1L)).thenAnswer(invocation -> PrimaryReads.isActive() ? NEW_VERSION : OLD_VERSION);
+
+        assertThat(replicaCoalescer.get(1L)).isSameAs(OLD_VERSION);
+        new BookCacheEvictor(lagging).onBookChanged(new BookChangedEvent(1L));
+
+        assertThat(replicaCoalescer.get(1L)).isSameAs(NEW_VERSION);
+        assertThat(replicaCoalescer.get(1L)).isSameAs(NEW_VERSION);
+        assertThat(PrimaryReads.isActive()).isFalse();
+        verify(bookService, times(2)).get(1L);
+    }
+
+    private static BookCaches caches(Duration replicaLag) {
+        return new BookCaches(new CaffeineCacheManager(CacheConfig.BOOK_BY_ID, CacheConfig.BOOK_SEARCH), replicaLag);
+    }
+
+    private static SearchResponseDto<BookResponseDto> page(BookResponseDto book) {
+        return new SearchResponseDto<>(List.of(book), 0, 20, 1L, 1);
+    }
+}
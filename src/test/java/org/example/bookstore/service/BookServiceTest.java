@@ -3,21 +3,32 @@ package org.example.bookstore.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.Tuple;
 import java.math.BigDecimal;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+import org.example.bookstore.dto.SearchRequestDto;
 import org.example.bookstore.dto.SearchResponseDto;
+import org.example.bookstore.dto.Versioned;
+import org.example.bookstore.dto.book.BookBatchResponseDto;
 import org.example.bookstore.dto.book.BookCreateRequestDto;
+import org.example.bookstore.dto.book.BookFullTextSearchRequestDto;
 import org.example.bookstore.dto.book.BookPatchRequestDto;
 import org.example.bookstore.dto.book.BookResponseDto;
 import org.example.bookstore.dto.book.BookSearchRequestDto;
@@ -25,16 +36,25 @@ import org.example.bookstore.entity.Author;
 import org.example.bookstore.entity.BaseEntity;
 import org.example.bookstore.entity.Book;
 import org.example.bookstore.entity.Genre;
+import org.example.bookstore.event.BookChangedEvent;
+import org.example.bookstore.exception.BookstoreBadRequestException;
 import org.example.bookstore.exception.BookstoreEntityNotFoundException;
 import org.example.bookstore.mapper.BookMapper;
 import org.example.bookstore.mapper.CommonMapper;
+import org.example.bookstore.mapper.CursorMapper;
+import org.example.bookstore.repository.BookFullTextRepository;
+import org.example.bookstore.repository.BookFullTextRepository.Match;
+import org.example.bookstore.repository.BookReadRepository;
 import org.example.bookstore.repository.BookRepository;
+import org.example.bookstore.search.BookSearchIndex;
+import org.example.bookstore.search.BookSuggestIndex;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -50,11 +70,29 @@ class BookServiceTest {
     @Mock
     private CommonMapper commonMapper;
     @Mock
+    private CursorMapper cursorMapper;
+    @Mock
     private BookRepository bookRepository;
     @Mock
+    private BookReadRepository bookReadRepository;
+    @Mock
+    private BookFullTextRepository bookFullTextRepository;
+    @Mock
     private AuthorService authorService;
     @Mock
     private GenreService genreService;
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+    @Mock
+    private BookSuggestIndex bookSuggestIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private SearchCountExecutor searchCountExecutor;
+    @Mock
+    private CatalogVersion catalogVersion;
+    @Mock
+    private BookCaches bookCaches;
 
     @InjectMocks
     private BookService service;
@@ -96,61 +134,218 @@ class BookServiceTest {
     // ---------- search ----------
 
     @Test
-    @DisplayName("search: builds spec, maps pageable via CommonMapper, returns mapped page")
+    @DisplayName("search: pages over keys, batch-loads the page and skips count for a partial first page")
     void search_ok() {
         BookSearchRequestDto req = new BookSearchRequestDto();
         req.setTitle("clean");
         req.setMinPrice(new BigDecimal("0"));
         req.setMaxPrice(new BigDecimal("100"));
-        req.getSort().getOrders().add(new org.example.bookstore.dto.SearchRequestDto.OrderDto());
 
         Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
         when(commonMapper.mapPageable(req)).thenReturn(pageable);
 
-        Book b = new Book();
-        b.setId(1L);
-        Page<Book> page = new PageImpl<>(List.of(b), pageable, 1);
-
-        when(bookRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(page);
+        Tuple key = mock(Tuple.class);
+        when(key.get("id", Long.class)).thenReturn(1L);
+        when(bookRepository.findKeys(any(Specification.class), eq(pageable.getSort()), eq(0L), eq(10)))
+            .thenReturn(List.of(key));
 
         BookResponseDto resp = new BookResponseDto(1L, "Clean Architecture", List.of(), List.of(), null, null, null);
-        when(commonMapper.mapPage(eq(page), any())).thenReturn(
-            new SearchResponseDto<>(List.of(resp), 0, 10, 1L, 1)
-        );
+        when(bookReadRepository.findAllByIds(List.of(1L))).thenReturn(List.of(resp));
+        when(commonMapper.mapPage(any(), any())).thenAnswer(invocation -> {
+            Page<BookResponseDto> page = invocation.getArgument(0);
+            return new SearchResponseDto<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages());
+        });
 
         SearchResponseDto<BookResponseDto> out = service.search(req);
         assertThat(out.totalElements()).isEqualTo(1L);
         assertThat(out.content()).singleElement().isSameAs(resp);
 
-        verify(commonMapper).mapPageable(req);
-        verify(bookRepository).findAll(any(Specification.class), eq(pageable));
-        verify(commonMapper).mapPage(eq(page), any());
+        verify(bookReadRepository).findAllByIds(List.of(1L));
+        verify(bookRepository, never()).count(any(Specification.class));
+        verify(bookRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("search: count mode NONE fetches one extra key instead of counting")
+    void search_countNone() {
+        BookSearchRequestDto req = new BookSearchRequestDto();
+        req.setCountMode(SearchRequestDto.CountMode.NONE);
+        Pageable pageable = PageRequest.of(0, 1, Sort.by("id"));
+        when(commonMapper.mapPageable(req)).thenReturn(pageable);
+        Tuple first = key(1L);
+        Tuple second = mock(Tuple.class);
+        when(bookRepository.findKeys(any(Specification.class), eq(pageable.getSort()), eq(0L), eq(2)))
+            .thenReturn(List.of(first, second));
+        BookResponseDto resp = new BookResponseDto(1L, "Clean Architecture", List.of(), List.of(), null, null, null);
+        when(bookReadRepository.findAllByIds(List.of(1L))).thenReturn(List.of(resp));
+
+        SearchResponseDto<BookResponseDto> out = service.search(req);
+        assertThat(out.countType()).isEqualTo(SearchResponseDto.CountType.NONE);
+        assertThat(out.hasNext()).isTrue();
+        assertThat(out.totalElements()).isEqualTo(-1L);
+        assertThat(out.content()).singleElement().isSameAs(resp);
+        verify(bookRepository, never()).count(any(Specification.class));
+        verify(bookRepository, never()).countAtMost(any(Specification.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("search: concurrent count; a count past its timeout leaves the page without total")
+    @SuppressWarnings("unchecked")
+    void search_countConcurrently() {
+        BookSearchRequestDto req = new BookSearchRequestDto();
+        Pageable pageable = PageRequest.of(1, 1, Sort.by("id"));
+        when(commonMapper.mapPageable(req)).thenReturn(pageable);
+        when(searchCountExecutor.isEnabled()).thenReturn(true);
+        Future<Long> count = mock(Future.class);
+        when(searchCountExecutor.start(any())).thenReturn(count);
+        Tuple first = key(1L);
+        when(bookRepository.findKeys(any(Specification.class), eq(pageable.getSort()), eq(1L), eq(2)))
+            .thenReturn(List.of(first, mock(Tuple.class)));
+        when(bookReadRepository.findAllByIds(List.of(1L))).thenReturn(List.of());
+
+        when(searchCountExecutor.await(count)).thenReturn(5L);
+        SearchResponseDto<BookResponseDto> counted = service.search(req);
+        assertThat(counted.countType()).isEqualTo(SearchResponseDto.CountType.EXACT);
+        assertThat(counted.totalElements()).isEqualTo(5L);
+        assertThat(counted.totalPages()).isEqualTo(5);
+
+        when(searchCountExecutor.await(count)).thenReturn(null);
+        SearchResponseDto<BookResponseDto> timedOut = service.search(req);
+        assertThat(timedOut.countType()).isEqualTo(SearchResponseDto.CountType.NONE);
+        assertThat(timedOut.hasNext()).isTrue();
+
+        verify(count, times(2)).cancel(true);
+        verify(bookRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    @DisplayName("search: count mode ESTIMATED reports a capped count as a lower bound")
+    void search_countEstimated() {
+        BookSearchRequestDto req = new BookSearchRequestDto();
+        req.setCountMode(SearchRequestDto.CountMode.ESTIMATED);
+        Pageable pageable = PageRequest.of(0, 1, Sort.by("id"));
+        when(commonMapper.mapPageable(req)).thenReturn(pageable);
+        Tuple first = key(1L);
+        when(bookRepository.findKeys(any(Specification.class), eq(pageable.getSort()), eq(0L), eq(2)))
+            .thenReturn(List.of(first, mock(Tuple.class)));
+        when(bookReadRepository.findAllByIds(List.of(1L))).thenReturn(List.of());
+        when(bookRepository.countAtMost(any(Specification.class), eq(10_000))).thenReturn(10_001L);
+
+        SearchResponseDto<BookResponseDto> out = service.search(req);
+        assertThat(out.countType()).isEqualTo(SearchResponseDto.CountType.ESTIMATED);
+        assertThat(out.totalElements()).isEqualTo(10_001L);
+        assertThat(out.hasNext()).isTrue();
+        verify(bookRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    @DisplayName("search: answered from the in-memory index when it is ready")
+    void search_fromIndex() {
+        BookSearchRequestDto req = new BookSearchRequestDto();
+        req.setTitle("gods");
+        Pageable pageable = PageRequest.of(0, 10);
+        when(commonMapper.mapPageable(req)).thenReturn(pageable);
+        when(bookSearchIndex.isReady()).thenReturn(true);
+        when(bookSearchIndex.supports(req, pageable.getSort())).thenReturn(true);
+        BookResponseDto resp = new BookResponseDto(105L, "American Gods", List.of(), List.of(), null, null, null);
+        Page<BookResponseDto> page = new PageImpl<>(List.of(resp), pageable, 1);
+        when(bookSearchIndex.search(req, pageable)).thenReturn(page);
+        SearchResponseDto<BookResponseDto> expected = new SearchResponseDto<>(List.of(resp), 0, 10, 1, 1);
+        when(commonMapper.mapPage(eq(page), any())).thenReturn(expected);
+
+        assertThat(service.search(req)).isSameAs(expected);
+        verifyNoMoreInteractions(bookRepository, bookReadRepository);
+    }
+
+    @Test
+    @DisplayName("search: rejects sorting by a non-scalar property")
+    void search_unsupportedSort() {
+        BookSearchRequestDto req = new BookSearchRequestDto();
+        when(commonMapper.mapPageable(req)).thenReturn(PageRequest.of(0, 10, Sort.by("authors")));
+
+        assertThatThrownBy(() -> service.search(req))
+            .isInstanceOf(BookstoreBadRequestException.class);
+        verifyNoMoreInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("searchFullText: fetches one extra match and encodes rank and id of the last one as the cursor")
+    void searchFullText_nextCursor() {
+        BookFullTextSearchRequestDto req = new BookFullTextSearchRequestDto("gods", 1, null);
+        when(bookFullTextRepository.findMatches("gods", null, 2))
+            .thenReturn(List.of(new Match(105L, 0.6f), new Match(100L, 0.2f)));
+        BookResponseDto resp = new BookResponseDto(105L, "American Gods", List.of(), List.of(), null, null, null);
+        when(bookReadRepository.findAllByIds(List.of(105L))).thenReturn(List.of(resp));
+        when(cursorMapper.encode("fulltext:gods", List.of(0.6f, 105L))).thenReturn("next");
+
+        SearchResponseDto<BookResponseDto> out = service.searchFullText(req);
+        assertThat(out.content()).singleElement().isSameAs(resp);
+        assertThat(out.nextCursor()).isEqualTo("next");
+    }
+
+    @Test
+    @DisplayName("searchFullText: continues after the match stored in the cursor")
+    void searchFullText_afterCursor() {
+        BookFullTextSearchRequestDto req = new BookFullTextSearchRequestDto("gods", 1, "next");
+        when(cursorMapper.decode("next", "fulltext:gods", 2)).thenReturn(List.of(0.6d, 105L));
+        when(bookFullTextRepository.findMatches("gods", new Match(105L, 0.6f), 2)).thenReturn(List.of());
+
+        SearchResponseDto<BookResponseDto> out = service.searchFullText(req);
+        assertThat(out.content()).isEmpty();
+        assertThat(out.nextCursor()).isNull();
     }
 
     // ---------- get ----------
 
     @Test
-    @DisplayName("get: returns mapped response when found")
+    @DisplayName("get: returns the read model without loading the entity")
     void get_found() {
-        Book b = new Book();
-        b.setId(100L);
-        when(bookRepository.findById(100L)).thenReturn(Optional.of(b));
+        Versioned<BookResponseDto> resp =
+            new Versioned<>("v1", new BookResponseDto(100L, "X", List.of(), List.of(), null, null, null));
+        when(bookReadRepository.findById(100L)).thenReturn(Optional.of(resp));
 
-        BookResponseDto resp = new BookResponseDto(100L, "X", List.of(), List.of(), null, null, null);
-        when(bookMapper.toResponse(b)).thenReturn(resp);
-
-        BookResponseDto out = service.get(100L);
+        Versioned<BookResponseDto> out = service.get(100L);
         assertThat(out).isSameAs(resp);
+        verify(bookRepository, never()).findById(anyLong());
     }
 
     @Test
     @DisplayName("get: throws BookstoreEntityNotFoundException when not found")
     void get_notFound() {
-        when(bookRepository.findById(999L)).thenReturn(Optional.empty());
+        when(bookReadRepository.findById(999L)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> service.get(999L))
             .isInstanceOf(BookstoreEntityNotFoundException.class);
     }
 
+    // ---------- getAll ----------
+
+    @Test
+    @DisplayName("getAll: cached books are not loaded again; request order kept, duplicates once, missing ids listed")
+    void getAll_cacheAndMissing() {
+        GuardedCache cache = new GuardedCache(Caffeine.newBuilder().build());
+        when(bookCaches.byId()).thenReturn(cache);
+        BookResponseDto cached = new BookResponseDto(2L, "Cached", List.of(), List.of(), null, null, null);
+        cache.put(cache.stamp(2L), 2L, new Versioned<>("v2", cached));
+        Versioned<BookResponseDto> loaded =
+            new Versioned<>("v1", new BookResponseDto(1L, "Loaded", List.of(), List.of(), null, null, null));
+        when(bookReadRepository.findAllVersionedByIds(List.of(3L, 1L))).thenReturn(List.of(loaded));
+
+        BookBatchResponseDto out = service.getAll(List.of(3L, 2L, 1L, 2L));
+
+        assertThat(out.books()).containsExactly(cached, loaded.body());
+        assertThat(out.missingIds()).containsExactly(3L);
+        assertThat(cache.get(1L, Versioned.class)).isSameAs(loaded);
+    }
+
+    @Test
+    @DisplayName("getAll: rejects more ids than the limit")
+    void getAll_tooMany() {
+        List<Long> ids = LongStream.rangeClosed(1, 501).boxed().toList();
+        assertThatThrownBy(() -> service.getAll(ids)).isInstanceOf(BookstoreBadRequestException.class);
+        verifyNoMoreInteractions(bookReadRepository);
+    }
+
     // ---------- patch ----------
 
     @Test
@@ -213,6 +408,7 @@ class BookServiceTest {
         service.replaceAuthors(1L, Set.of(10L, 11L));
 
         assertThat(book.getAuthors()).containsExactlyInAnyOrder(a1, a2);
+        verify(eventPublisher).publishEvent(new BookChangedEvent(1L));
     }
 
     @Test
@@ -262,7 +458,7 @@ class BookServiceTest {
         book.setAuthors(new LinkedHashSet<>(List.of(a10, a11)));
 
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
-        when(authorService.get(10L)).thenReturn(a10);
+        when(authorService.getReference(10L)).thenReturn(a10);
 
         service.removeAuthor(1L, 10L);
         assertThat(book.getAuthors()).containsExactly(a11);
@@ -330,7 +526,7 @@ class BookServiceTest {
         book.setGenres(new LinkedHashSet<>(List.of(g20, g21)));
 
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
-        when(genreService.get(20L)).thenReturn(g20);
+        when(genreService.getReference(20L)).thenReturn(g20);
 
         service.removeGenre(1L, 20L);
         assertThat(book.getGenres()).containsExactly(g21);
@@ -349,4 +545,10 @@ class BookServiceTest {
         g.setId(id);
         return g;
     }
+
+    private static Tuple key(long id) {
+        Tuple key = mock(Tuple.class);
+        when(key.get("id", Long.class)).thenReturn(id);
+        return key;
+    }
 }
@@ -0,0 +1,70 @@
+package org.example.bookstore.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class GuardedCacheTest {
+
+    private final GuardedCache cache = new GuardedCache(Caffeine.newBuilder().build());
+
+    @Test
+    @DisplayName("a fill stamped before an invalidation of its key is dropped")
+    void put_after_invalidation() {
+        GuardedCache.Stamp stamp = cache.stamp(1L);
+        cache.invalidate(1L);
+
+        assertThat(cache.put(stamp, 1L, "old")).isFalse();
+        assertThat(cache.get(1L, String.class)).isNull();
+
+        assertThat(cache.put(cache.stamp(1L), 1L, "new")).isTrue();
+        assertThat(cache.get(1L, String.class)).isEqualTo("new");
+    }
+
+    @Test
+    @DisplayName("invalidating other keys does not drop a fill")
+    void other_keys() {
+        GuardedCache.Stamp stamp = cache.stamp(1L);
+        cache.invalidateAll(List.of(2L, 3L));
+
+        assertThat(cache.put(stamp, 1L, "value")).isTrue();
+        assertThat(cache.get(1L, Object.class)).isEqualTo("value");
+    }
+
+    @Test
+    @DisplayName("whole-cache invalidations drop every fill in flight")
+    void invalidate_all_and_if() {
+        GuardedCache.Stamp first = cache.stamp(1L);
+        cache.invalidateAll();
+        assertThat(cache.put(first, 1L, "a")).isFalse();
+
+        cache.put(cache.stamp(1L), 1L, "a");
+        cache.put(cache.stamp(2L), 2L, "b");
+        GuardedCache.Stamp second = cache.stamp(3L);
+        cache.invalidateIf("a"::equals);
+
+        assertThat(cache.get(1L, String.class)).isNull();
+        assertThat(cache.get(2L, String.class)).isEqualTo("b");
+        assertThat(cache.put(second, 3L, "c")).isFalse();
+    }
+
+    @Test
+    @DisplayName("a key counts as recently invalidated within the replica lag only")
+    void recently_invalidated() {
+        GuardedCache lagging = new GuardedCache(Caffeine.newBuilder().build(), Duration.ofHours(1));
+        assertThat(lagging.isRecentlyInvalidated(lagging.stamp(1L))).isFalse();
+
+        lagging.invalidate(1L);
+        assertThat(lagging.isRecentlyInvalidated(lagging.stamp(1L))).isTrue();
+        assertThat(lagging.isRecentlyInvalidated(lagging.stamp(2L))).isFalse();
+        lagging.invalidateAll();
+        assertThat(lagging.isRecentlyInvalidated(lagging.stamp(2L))).isTrue();
+
+        cache.invalidate(1L);
+        assertThat(cache.isRecentlyInvalidated(cache.stamp(1L))).isFalse();
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.bookstore.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.example.bookstore.entity.Book;
+import org.example.bookstore.exception.BookstoreEntityNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight<String, Integer> flight = new SingleFlight<>("test", Duration.ofSeconds(5), registry);
+
+    @Test
+    @DisplayName("concurrent equal calls share one execution")
+    void coalesces() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        CompletableFuture<Integer> leader = CompletableFuture.supplyAsync(() -> flight.execute("k", () -> {
+            started.countDown();
+            await(release);
+            return executions.incrementAndGet();
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Integer> follower = CompletableFuture.supplyAsync(
+            () -> flight.execute("k", executions::incrementAndGet));
+        waitForCoalesced(1);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(executions).hasValue(1);
+        assertThat(flight.inFlight()).isZero();
+        assertThat(count("executed")).isEqualTo(1);
+        assertThat(count("coalesced")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("the exception of the shared execution reaches every caller")
+    void propagates_errors() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Integer> leader = CompletableFuture.supplyAsync(() -> flight.execute("k", () -> {
+            started.countDown();
+            await(release);
+            throw new BookstoreEntityNotFoundException(1L, Book.class);
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Integer> follower = CompletableFuture.supplyAsync(() -> flight.execute("k", () -> 0));
+        waitForCoalesced(1);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+            .hasCauseInstanceOf(BookstoreEntityNotFoundException.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+            .hasCauseInstanceOf(BookstoreEntityNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("a caller that waits too long executes by itself")
+    void timeout() {
+        SingleFlight<String, Integer> impatient = new SingleFlight<>("impatient", Duration.ofMillis(50), registry);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> stuck = CompletableFuture.supplyAsync(() -> impatient.execute("k", () -> {
+            await(release);
+            return 1;
+        }));
+        try {
+            while (impatient.inFlight() == 0) {
+                Thread.onSpinWait();
+            }
+            assertThat(impatient.execute("k", () -> 2)).isEqualTo(2);
+            assertThat(registry.get("bookstore.single_flight.calls").tag("name", "impatient")
+                .tag("outcome", "timeout").counter().count()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            stuck.join();
+        }
+    }
+
+    @Test
+    @DisplayName("after forget, callers start a new execution")
+    void forget() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> before = CompletableFuture.supplyAsync(() -> flight.execute("k", () -> {
+            await(release);
+            return 1;
+        }));
+        while (flight.inFlight() == 0) {
+            Thread.onSpinWait();
+        }
+
+        flight.forget();
+
+        assertThat(flight.execute("k", () -> 2)).isEqualTo(2);
+        release.countDown();
+        assertThat(before.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(count("coalesced")).isZero();
+    }
+
+    private double count(String outcome) {
+        return registry.get("bookstore.single_flight.calls").tag("name", "test").tag("outcome", outcome)
+            .counter().count();
+    }
+
+    private void waitForCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("coalesced") < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
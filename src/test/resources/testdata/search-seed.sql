@@ -45,7 +45,7 @@ INSERT INTO book_genre (book_id, genre_id) VALUES
                                                (103,22), (104,22)               -- Programming
 ON CONFLICT DO NOTHING;
 
--- Keep sequences in sync if using serial/identity
-SELECT setval(pg_get_serial_sequence('author','id'), COALESCE((SELECT MAX(id) FROM author),0));
-SELECT setval(pg_get_serial_sequence('genre','id'),  COALESCE((SELECT MAX(id) FROM genre),0));
-SELECT setval(pg_get_serial_sequence('book','id'),   COALESCE((SELECT MAX(id) FROM book),0));
\ No newline at end of file
+-- Keep sequences ahead of the seeded ids; never move them back, Hibernate keeps the id blocks it reserved
+SELECT setval('author_seq', GREATEST((SELECT MAX(id) FROM author), (SELECT last_value FROM author_seq)));
+SELECT setval('genre_seq',  GREATEST((SELECT MAX(id) FROM genre),  (SELECT last_value FROM genre_seq)));
+SELECT setval('book_seq',   GREATEST((SELECT MAX(id) FROM book),   (SELECT last_value FROM book_seq)));
\ No newline at end of file